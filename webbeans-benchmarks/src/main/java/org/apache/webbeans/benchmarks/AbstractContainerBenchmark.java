@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.Extension;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.lifecycle.test.OpenWebBeansTestLifeCycle;
+import org.apache.webbeans.lifecycle.test.OpenWebBeansTestMetaDataDiscoveryService;
+import org.apache.webbeans.util.WebBeansUtil;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * <p>Base of the benchmarks which need a running container.</p>
+ *
+ * <p>The container gets booted with an explicit list of bean classes like in the unit tests,
+ * so the numbers don't depend on the classpath the benchmarks get started with.
+ * Subclasses are thread scoped JMH states because the request and session contexts of the
+ * standalone container are bound to the thread which started them.</p>
+ *
+ * <p>Build the benchmarks with <code>mvn install -Pbenchmarks</code> and run them with
+ * <code>java -jar webbeans-benchmarks/target/benchmarks.jar</code>.</p>
+ */
+public abstract class AbstractContainerBenchmark
+{
+    private OpenWebBeansTestLifeCycle lifecycle;
+    private WebBeansContext webBeansContext;
+
+    private final List<Extension> extensions = new ArrayList<Extension>();
+    private final List<Class<?>> interceptors = new ArrayList<Class<?>>();
+    private final List<Class<?>> decorators = new ArrayList<Class<?>>();
+    private final Map<String, String> configuration = new HashMap<String, String>();
+
+    /**
+     * Sets an {@link org.apache.webbeans.config.OpenWebBeansConfiguration} property for the next container start.
+     */
+    protected void setConfiguration(String key, String value)
+    {
+        configuration.put(key, value);
+    }
+
+    protected void addExtension(Extension extension)
+    {
+        extensions.add(extension);
+    }
+
+    protected void addInterceptor(Class<?> interceptorClass)
+    {
+        interceptors.add(interceptorClass);
+    }
+
+    protected void addDecorator(Class<?> decoratorClass)
+    {
+        decorators.add(decoratorClass);
+    }
+
+    protected void startContainer(Class<?>... beanClasses)
+    {
+        startContainer(Arrays.asList(beanClasses));
+    }
+
+    protected void startContainer(Collection<Class<?>> rawBeanClasses)
+    {
+        List<Class<?>> beanClasses = new ArrayList<Class<?>>(rawBeanClasses);
+
+        WebBeansFinder.clearInstances(WebBeansUtil.getCurrentClassLoader());
+        lifecycle = new OpenWebBeansTestLifeCycle();
+        webBeansContext = WebBeansContext.getInstance();
+
+        for (Map.Entry<String, String> property : configuration.entrySet())
+        {
+            webBeansContext.getOpenWebBeansConfiguration().setProperty(property.getKey(), property.getValue());
+        }
+        for (Extension extension : extensions)
+        {
+            webBeansContext.getExtensionLoader().addExtension(extension);
+        }
+        for (Class<?> interceptor : interceptors)
+        {
+            webBeansContext.getInterceptorsManager().addEnabledInterceptorClass(interceptor);
+            beanClasses.add(interceptor);
+        }
+        for (Class<?> decorator : decorators)
+        {
+            webBeansContext.getDecoratorsManager().addEnabledDecorator(decorator);
+            beanClasses.add(decorator);
+        }
+
+        OpenWebBeansTestMetaDataDiscoveryService discoveryService
+                = (OpenWebBeansTestMetaDataDiscoveryService) webBeansContext.getScannerService();
+        discoveryService.deployClasses(beanClasses);
+
+        lifecycle.startApplication(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContainer()
+    {
+        if (lifecycle != null)
+        {
+            lifecycle.stopApplication(null);
+            lifecycle = null;
+            webBeansContext = null;
+        }
+        WebBeansFinder.clearInstances(WebBeansUtil.getCurrentClassLoader());
+    }
+
+    protected WebBeansContext getWebBeansContext()
+    {
+        return webBeansContext;
+    }
+
+    protected BeanManagerImpl getBeanManager()
+    {
+        return webBeansContext.getBeanManagerImpl();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> Bean<T> getBean(Class<T> type)
+    {
+        return (Bean<T>) getBeanManager().resolve(getBeanManager().getBeans(type));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> T getReference(Class<T> type)
+    {
+        Bean<T> bean = getBean(type);
+        CreationalContext<T> creationalContext = getBeanManager().createCreationalContext(bean);
+        return (T) getBeanManager().getReference(bean, type, creationalContext);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.benchmarks.beans.ApplicationScopedBean;
+import org.apache.webbeans.benchmarks.beans.DependentBean;
+import org.apache.webbeans.benchmarks.beans.RequestScopedBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link javax.enterprise.inject.spi.BeanManager#getReference} with an already resolved
+ * {@link Bean} and including the resolution of the bean.
+ * {@link javax.enterprise.inject.spi.BeanManager#getBeans} with a qualifier literal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanManagerBenchmark extends AbstractContainerBenchmark
+{
+    private Bean<DependentBean> dependentBean;
+    private Bean<ApplicationScopedBean> applicationScopedBean;
+    private Bean<RequestScopedBean> requestScopedBean;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        startContainer(DependentBean.class, ApplicationScopedBean.class, RequestScopedBean.class);
+
+        dependentBean = getBean(DependentBean.class);
+        applicationScopedBean = getBean(ApplicationScopedBean.class);
+        requestScopedBean = getBean(RequestScopedBean.class);
+    }
+
+    @Benchmark
+    public Object getReferenceDependent()
+    {
+        return getReference(dependentBean, DependentBean.class);
+    }
+
+    @Benchmark
+    public Object getReferenceApplicationScoped()
+    {
+        return getReference(applicationScopedBean, ApplicationScopedBean.class);
+    }
+
+    @Benchmark
+    public Object getReferenceRequestScoped()
+    {
+        return getReference(requestScopedBean, RequestScopedBean.class);
+    }
+
+    @Benchmark
+    public Object resolveAndGetReferenceApplicationScoped()
+    {
+        return getReference(ApplicationScopedBean.class);
+    }
+
+    /**
+     * A programmatic lookup with a new qualifier literal like {@code Instance.select} does.
+     */
+    @Benchmark
+    public Object getBeansWithNewLiteral()
+    {
+        return getBeanManager().getBeans(DependentBean.class, new NamedLiteral("dependentBean"));
+    }
+
+    private <T> Object getReference(Bean<T> bean, Class<T> type)
+    {
+        CreationalContext<T> creationalContext = getBeanManager().createCreationalContext(bean);
+        return getBeanManager().getReference(bean, type, creationalContext);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.BeforeBeanDiscovery;
+import javax.enterprise.inject.spi.Extension;
+import javax.inject.Inject;
+
+import org.apache.webbeans.benchmarks.beans.ApplicationScopedBean;
+import org.apache.webbeans.benchmarks.beans.DependentBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Boot and shutdown of a container with a growing number of synthetic beans.
+ * Each synthetic bean is an additional {@link AnnotatedType} with two injection points,
+ * so the numbers contain the bean creation, the lifecycle events and the validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BootstrapBenchmark extends AbstractContainerBenchmark
+{
+    @Param({"100", "1000", "10000"})
+    private int beanCount;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        addExtension(new SyntheticBeansExtension(beanCount));
+    }
+
+    @Benchmark
+    public Object bootstrap()
+    {
+        startContainer(DependentBean.class, ApplicationScopedBean.class);
+        Object beanManager = getBeanManager();
+        stopContainer();
+        return beanManager;
+    }
+
+    public static class SyntheticBeansExtension implements Extension
+    {
+        private final int beanCount;
+
+        public SyntheticBeansExtension(int beanCount)
+        {
+            this.beanCount = beanCount;
+        }
+
+        public void addBeans(@Observes BeforeBeanDiscovery beforeBeanDiscovery, BeanManager beanManager)
+        {
+            AnnotatedType<SyntheticBean> annotatedType = beanManager.createAnnotatedType(SyntheticBean.class);
+            for (int i = 0; i < beanCount; i++)
+            {
+                beforeBeanDiscovery.addAnnotatedType(annotatedType, SyntheticBean.class.getName() + "#" + i);
+            }
+        }
+    }
+
+    public static class SyntheticBean
+    {
+        @Inject
+        private DependentBean dependentBean;
+
+        @Inject
+        private ApplicationScopedBean applicationScopedBean;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.Reception;
+import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.spi.AfterBeanDiscovery;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ObserverMethod;
+import javax.inject.Inject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Event#fire(Object)} with a growing number of observer methods.
+ * The observers get registered as synthetic {@link ObserverMethod}s by an Extension.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventBenchmark extends AbstractContainerBenchmark
+{
+    @Param({"1", "10", "100"})
+    private int observerCount;
+
+    private EventSource eventSource;
+    private final BenchmarkEvent event = new BenchmarkEvent();
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        addExtension(new ObserverExtension(observerCount));
+        startContainer(EventSource.class);
+
+        eventSource = getReference(EventSource.class);
+    }
+
+    @Benchmark
+    public int fire()
+    {
+        eventSource.fire(event);
+        return event.notifications;
+    }
+
+    public static class BenchmarkEvent
+    {
+        private int notifications;
+    }
+
+    public static class EventSource
+    {
+        @Inject
+        private Event<BenchmarkEvent> event;
+
+        public void fire(BenchmarkEvent benchmarkEvent)
+        {
+            event.fire(benchmarkEvent);
+        }
+    }
+
+    public static class ObserverExtension implements Extension
+    {
+        private final int observerCount;
+
+        public ObserverExtension(int observerCount)
+        {
+            this.observerCount = observerCount;
+        }
+
+        public void addObservers(@Observes AfterBeanDiscovery afterBeanDiscovery)
+        {
+            for (int i = 0; i < observerCount; i++)
+            {
+                afterBeanDiscovery.addObserverMethod(new CountingObserverMethod());
+            }
+        }
+    }
+
+    private static class CountingObserverMethod implements ObserverMethod<BenchmarkEvent>
+    {
+        @Override
+        public Class<?> getBeanClass()
+        {
+            return ObserverExtension.class;
+        }
+
+        @Override
+        public Type getObservedType()
+        {
+            return BenchmarkEvent.class;
+        }
+
+        @Override
+        public Set<Annotation> getObservedQualifiers()
+        {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Reception getReception()
+        {
+            return Reception.ALWAYS;
+        }
+
+        @Override
+        public TransactionPhase getTransactionPhase()
+        {
+            return TransactionPhase.IN_PROGRESS;
+        }
+
+        @Override
+        public void notify(BenchmarkEvent event)
+        {
+            event.notifications++;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.InjectionTarget;
+import javax.inject.Inject;
+
+import org.apache.webbeans.benchmarks.beans.ApplicationScopedBean;
+import org.apache.webbeans.benchmarks.beans.DependentBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link InjectionTarget#produce} and {@link InjectionTarget#inject} of a non contextual instance
+ * with a dependent and a normal scoped injection point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InjectionTargetBenchmark extends AbstractContainerBenchmark
+{
+    private InjectionTarget<InjectedObject> injectionTarget;
+    private InjectedObject instance;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        startContainer(DependentBean.class, ApplicationScopedBean.class);
+
+        injectionTarget = getBeanManager().createInjectionTarget(getBeanManager().createAnnotatedType(InjectedObject.class));
+        instance = injectionTarget.produce(getBeanManager().<InjectedObject>createCreationalContext(null));
+    }
+
+    @Benchmark
+    public Object produce()
+    {
+        return injectionTarget.produce(createCreationalContext());
+    }
+
+    @Benchmark
+    public Object inject()
+    {
+        injectionTarget.inject(instance, createCreationalContext());
+        return instance;
+    }
+
+    @Benchmark
+    public Object produceAndInject()
+    {
+        CreationalContext<InjectedObject> creationalContext = createCreationalContext();
+        InjectedObject injectedObject = injectionTarget.produce(creationalContext);
+        injectionTarget.inject(injectedObject, creationalContext);
+        return injectedObject;
+    }
+
+    private CreationalContext<InjectedObject> createCreationalContext()
+    {
+        // a new one per invocation, the dependent instances would pile up otherwise
+        return getBeanManager().createCreationalContext(null);
+    }
+
+    public static class InjectedObject
+    {
+        @Inject
+        private DependentBean dependentBean;
+
+        @Inject
+        private ApplicationScopedBean applicationScopedBean;
+    }
+}
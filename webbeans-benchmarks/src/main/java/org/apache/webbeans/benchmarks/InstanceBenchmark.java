@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.apache.webbeans.benchmarks.beans.ApplicationScopedBean;
+import org.apache.webbeans.benchmarks.beans.DependentBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Instance#get()} for a dependent and a normal scoped bean.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstanceBenchmark extends AbstractContainerBenchmark
+{
+    private InstanceHolder holder;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        startContainer(DependentBean.class, ApplicationScopedBean.class, InstanceHolder.class);
+
+        holder = getReference(InstanceHolder.class);
+    }
+
+    @Benchmark
+    public Object getDependent()
+    {
+        DependentBean instance = holder.dependentBeans.get();
+
+        // otherwise the instances pile up in the CreationalContext of the holder
+        holder.dependentBeans.destroy(instance);
+        return instance;
+    }
+
+    @Benchmark
+    public Object getApplicationScoped()
+    {
+        return holder.applicationScopedBeans.get();
+    }
+
+    public static class InstanceHolder
+    {
+        @Inject
+        private Instance<DependentBean> dependentBeans;
+
+        @Inject
+        private Instance<ApplicationScopedBean> applicationScopedBeans;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.benchmarks.beans.DependentBean;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Calls on intercepted and decorated beans compared to a plain call.</p>
+ *
+ * <p>With <code>generatedInvokers=false</code> the AroundInvoke methods and the intercepted
+ * methods get called via reflection, which is the comparison for the generated
+ * {@link org.apache.webbeans.proxy.MethodInvoker}s.</p>
+ *
+ * <p>Run it with <code>-prof gc</code> to see the bytes allocated per call in
+ * <code>gc.alloc.rate.norm</code>. An intercepted call without parameters should only
+ * allocate the InterceptorInvocationContext and the argument array of the AroundInvoke method.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InterceptionBenchmark extends AbstractContainerBenchmark
+{
+    @Param({"true", "false"})
+    private boolean generatedInvokers;
+
+    private DependentBean plainBean;
+    private InterceptedBean interceptedBean;
+    private Service decoratedService;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        setConfiguration(OpenWebBeansConfiguration.GENERATED_METHOD_INVOKERS, Boolean.toString(generatedInvokers));
+        addInterceptor(CountingInterceptor.class);
+        addDecorator(ServiceDecorator.class);
+        startContainer(DependentBean.class, InterceptedBean.class, DecoratedService.class);
+
+        plainBean = getReference(DependentBean.class);
+        interceptedBean = getReference(InterceptedBean.class);
+        decoratedService = getReference(Service.class);
+    }
+
+    @Benchmark
+    public int plain()
+    {
+        return plainBean.ping();
+    }
+
+    @Benchmark
+    public int intercepted()
+    {
+        return interceptedBean.ping();
+    }
+
+    @Benchmark
+    public int decorated()
+    {
+        return decoratedService.ping();
+    }
+
+    @InterceptorBinding
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public static @interface Counted
+    {
+    }
+
+    @Interceptor
+    @Counted
+    public static class CountingInterceptor
+    {
+        private int calls;
+
+        @AroundInvoke
+        public Object count(InvocationContext context) throws Exception
+        {
+            calls++;
+            return context.proceed();
+        }
+    }
+
+    @Counted
+    public static class InterceptedBean
+    {
+        private int counter;
+
+        public int ping()
+        {
+            return ++counter;
+        }
+    }
+
+    public static interface Service
+    {
+        int ping();
+    }
+
+    public static class DecoratedService implements Service
+    {
+        private int counter;
+
+        @Override
+        public int ping()
+        {
+            return ++counter;
+        }
+    }
+
+    @Decorator
+    public abstract static class ServiceDecorator implements Service
+    {
+        @Inject
+        @Delegate
+        private Service delegate;
+
+        @Override
+        public int ping()
+        {
+            return delegate.ping() + 1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.webbeans.benchmarks.beans.ApplicationScopedBean;
+import org.apache.webbeans.benchmarks.beans.DependentBean;
+import org.apache.webbeans.benchmarks.beans.RequestScopedBean;
+import org.apache.webbeans.benchmarks.beans.SessionScopedBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Method calls through the normal scoping proxies of the built-in scopes.
+ * The call on a dependent bean is the baseline without a proxy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalScopedProxyBenchmark extends AbstractContainerBenchmark
+{
+    private DependentBean dependentBean;
+    private ApplicationScopedBean applicationScopedBean;
+    private RequestScopedBean requestScopedBean;
+    private SessionScopedBean sessionScopedBean;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        startContainer(DependentBean.class, ApplicationScopedBean.class, RequestScopedBean.class, SessionScopedBean.class);
+
+        dependentBean = getReference(DependentBean.class);
+        applicationScopedBean = getReference(ApplicationScopedBean.class);
+        requestScopedBean = getReference(RequestScopedBean.class);
+        sessionScopedBean = getReference(SessionScopedBean.class);
+    }
+
+    @Benchmark
+    public int dependent()
+    {
+        return dependentBean.ping();
+    }
+
+    @Benchmark
+    public int applicationScoped()
+    {
+        return applicationScopedBean.ping();
+    }
+
+    @Benchmark
+    public int requestScoped()
+    {
+        return requestScopedBean.ping();
+    }
+
+    @Benchmark
+    public int sessionScoped()
+    {
+        return sessionScopedBean.ping();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.RequestScoped;
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.webbeans.benchmarks.beans.RequestScopedBean;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.web.context.WebContextsService;
+import org.apache.webbeans.web.lifecycle.test.MockServletContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>A request cycle of the {@link WebContextsService} which never touches the RequestContext,
+ * e.g. a request for a static resource.</p>
+ *
+ * <p>With <code>lazyRequestContext=true</code> the RequestContext only gets created once it gets used.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestContextBenchmark extends AbstractContainerBenchmark
+{
+    @Param({"true", "false"})
+    private boolean lazyRequestContext;
+
+    private WebContextsService contextsService;
+    private ServletRequestEvent event;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        setConfiguration(OpenWebBeansConfiguration.LAZY_REQUEST_CONTEXT, Boolean.toString(lazyRequestContext));
+        startContainer(RequestScopedBean.class);
+
+        // the contexts are bound to static ThreadLocals, get rid of the ones the container started
+        WebContextsService.removeThreadLocals();
+
+        contextsService = new WebContextsService(getWebBeansContext());
+        event = new ServletRequestEvent(new MockServletContext(), createRequest());
+    }
+
+    @TearDown(Level.Trial)
+    public void removeThreadLocals()
+    {
+        WebContextsService.removeThreadLocals();
+    }
+
+    @Benchmark
+    public void emptyRequest()
+    {
+        contextsService.startContext(RequestScoped.class, event);
+        contextsService.endContext(RequestScoped.class, event);
+    }
+
+    /**
+     * A request without session, all other methods return <code>null</code> as well.
+     */
+    private static HttpServletRequest createRequest()
+    {
+        return (HttpServletRequest) Proxy.newProxyInstance(RequestContextBenchmark.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.spi.SingletonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contention on the {@link SingletonService} which backs {@link WebBeansContext#getInstance()}
+ * when many request threads look up the WebBeansContext at the same time.
+ * The {@link DefaultSingletonService} gets compared with a WeakHashMap guarded by a lock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class SingletonServiceBenchmark
+{
+    private SingletonService<WebBeansContext> defaultSingletonService;
+    private SingletonService<WebBeansContext> synchronizedSingletonService;
+    private ClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        classLoader = SingletonServiceBenchmark.class.getClassLoader();
+
+        defaultSingletonService = new DefaultSingletonService();
+        defaultSingletonService.get(classLoader);
+
+        synchronizedSingletonService = new SynchronizedSingletonService();
+        synchronizedSingletonService.get(classLoader);
+    }
+
+    @Benchmark
+    public WebBeansContext defaultSingletonService()
+    {
+        return defaultSingletonService.get(classLoader);
+    }
+
+    @Benchmark
+    public WebBeansContext synchronizedSingletonService()
+    {
+        return synchronizedSingletonService.get(classLoader);
+    }
+
+    /**
+     * A SingletonService which takes a lock for every lookup.
+     */
+    private static final class SynchronizedSingletonService implements SingletonService<WebBeansContext>
+    {
+        private final Map<ClassLoader, WebBeansContext> singletonMap = new WeakHashMap<ClassLoader, WebBeansContext>();
+
+        @Override
+        public WebBeansContext get(Object key)
+        {
+            synchronized (singletonMap)
+            {
+                WebBeansContext webBeansContext = singletonMap.get(key);
+                if (webBeansContext == null)
+                {
+                    webBeansContext = new WebBeansContext();
+                    singletonMap.put((ClassLoader) key, webBeansContext);
+                }
+                return webBeansContext;
+            }
+        }
+
+        @Override
+        public void clear(Object key)
+        {
+            synchronized (singletonMap)
+            {
+                singletonMap.remove(key);
+            }
+        }
+    }
+}
@@ -25,9 +25,14 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,6 +61,8 @@ public class DefaultOwbFailOverService implements FailOverService
     public static final String CONFIG_IS_SUPPORT_FAILOVER = "org.apache.webbeans.web.failover.issupportfailover";
     public static final String CONFIG_IS_SUPPORT_PASSIVATE = "org.apache.webbeans.web.failover.issupportpassivation";
     public static final String CONFIG_RESOURCES_SERIALIZATION_HANDLER = "org.apache.webbeans.web.failover.resources.serialization.handler.v10";
+    public static final String CONFIG_DELTA_REPLICATION = "org.apache.webbeans.web.failover.deltareplication";
+    public static final String CONFIG_FULL_REPLICATION_INTERVAL = "org.apache.webbeans.web.failover.fullreplicationinterval";
 
     public static final String ATTRIBUTE_SESSION_CONTEXT = "sessionContext";
     public static final String ATTRIBUTE_CONVERSATION_CONTEXT_MAP = "conversatzionContextMap";
@@ -68,6 +75,16 @@ public class DefaultOwbFailOverService implements FailOverService
     private boolean supportFailOver;
     private boolean supportPassivation;
     private SerializationHandlerV10 handler;
+    private boolean deltaReplication;
+    private int fullReplicationInterval = 10;
+
+    /**
+     * The last {@link FailOverBag} which got replicated to this JVM per session id.
+     * The next delta gets applied on top of it. They are only weakly referenced,
+     * the replicated sessions hold them.
+     */
+    private final ConcurrentMap<String, ReplicaReference> replicas = new ConcurrentHashMap<String, ReplicaReference>();
+    private final ReferenceQueue<FailOverBag> collectedReplicas = new ReferenceQueue<FailOverBag>();
 
     public DefaultOwbFailOverService()
     {
@@ -87,6 +104,18 @@ public class DefaultOwbFailOverService implements FailOverService
             supportPassivation = true;
         }
 
+        value = config.getProperty(CONFIG_DELTA_REPLICATION);
+        if (value != null && value.equalsIgnoreCase("true"))
+        {
+            deltaReplication = true;
+        }
+
+        value = config.getProperty(CONFIG_FULL_REPLICATION_INTERVAL);
+        if (value != null && value.trim().length() > 0)
+        {
+            fullReplicationInterval = Integer.parseInt(value.trim());
+        }
+
         if (supportFailOver || supportPassivation)
         {
             value = config.getProperty(CONFIG_RESOURCES_SERIALIZATION_HANDLER);
@@ -108,6 +137,7 @@ public class DefaultOwbFailOverService implements FailOverService
         {
             LOGGER.log(Level.FINE, "IsSupportFailOver: [{0}]", String.valueOf(supportFailOver));
             LOGGER.log(Level.FINE, "IsSupportPassivation: [{0}]", String.valueOf(supportPassivation));
+            LOGGER.log(Level.FINE, "IsDeltaReplication: [{0}]", String.valueOf(deltaReplication));
         }
     }
 
@@ -165,6 +195,17 @@ public class DefaultOwbFailOverService implements FailOverService
                     LOGGER.log(Level.FINE, "Skip restore beans for session [" + bag.getSessionId() + "] because session is in use.");
                 }
             }
+            else if (bag.isIncomplete())
+            {
+                // this JVM owns the session now
+                replicas.remove(bag.getSessionId());
+
+                String message = "Could not restore beans for session [" + bag.getSessionId()
+                        + "] from [" + bag.getJvmId() + "] because a replication got missed.";
+                LOGGER.log(Level.SEVERE, message);
+
+                throw new WebBeansException(message);
+            }
             else
             {
                 if (LOGGER.isLoggable(Level.FINE))
@@ -173,6 +214,9 @@ public class DefaultOwbFailOverService implements FailOverService
                 }
 
                 restoreBeansFromFailOverBag(bag, session);
+
+                // this JVM owns the session now
+                replicas.remove(bag.getSessionId());
             }
         }
     }
@@ -182,6 +226,13 @@ public class DefaultOwbFailOverService implements FailOverService
     {
         sessionIsIdle(session);
 
+        // there is no previous replication to apply a delta to when the session gets activated again
+        FailOverBag bag = (FailOverBag) session.getAttribute(FailOverBag.SESSION_ATTRIBUTE_NAME);
+        if (bag != null)
+        {
+            bag.requireFullSnapshot();
+        }
+
         passivation.set(true);
     }
 
@@ -380,6 +431,60 @@ public class DefaultOwbFailOverService implements FailOverService
         this.supportPassivation = supportPassivation;
     }
 
+    /**
+     * @return <code>true</code> if only the changed beans of a session get replicated,
+     *         with a full snapshot every {@link #getFullReplicationInterval()} replications
+     */
+    public boolean isDeltaReplication()
+    {
+        return deltaReplication;
+    }
+
+    public void enableDeltaReplication(boolean deltaReplication)
+    {
+        this.deltaReplication = deltaReplication;
+    }
+
+    /**
+     * @return the number of deltas between two full snapshots
+     */
+    public int getFullReplicationInterval()
+    {
+        return fullReplicationInterval;
+    }
+
+    public void setFullReplicationInterval(int fullReplicationInterval)
+    {
+        this.fullReplicationInterval = fullReplicationInterval;
+    }
+
+    /**
+     * @return the last replicated {@link FailOverBag} of the given session or <code>null</code>
+     */
+    FailOverBag getReplica(String sessionId)
+    {
+        ReplicaReference replica = replicas.get(sessionId);
+        return replica != null ? replica.get() : null;
+    }
+
+    /**
+     * Remembers the given {@link FailOverBag} as the last replication of its session.
+     */
+    void setReplica(FailOverBag bag)
+    {
+        Reference<? extends FailOverBag> collected;
+        while ((collected = collectedReplicas.poll()) != null)
+        {
+            ReplicaReference replica = (ReplicaReference) collected;
+            replicas.remove(replica.sessionId, replica);
+        }
+
+        if (bag.getSessionId() != null)
+        {
+            replicas.put(bag.getSessionId(), new ReplicaReference(bag, collectedReplicas));
+        }
+    }
+
     public boolean isPassivation()
     {
         if (passivation.get() == null)
@@ -389,4 +494,15 @@ public class DefaultOwbFailOverService implements FailOverService
 
         return passivation.get();
     }
+
+    private static final class ReplicaReference extends WeakReference<FailOverBag>
+    {
+        private final String sessionId;
+
+        private ReplicaReference(FailOverBag bag, ReferenceQueue<FailOverBag> queue)
+        {
+            super(bag, queue);
+            this.sessionId = bag.getSessionId();
+        }
+    }
 }
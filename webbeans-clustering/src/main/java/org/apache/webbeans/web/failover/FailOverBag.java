@@ -27,12 +27,20 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.enterprise.context.Conversation;
+
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.context.SessionContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.FailOverService;
 
@@ -53,6 +61,21 @@ public class FailOverBag implements Serializable, Externalizable
     private String sessionId;
     private String jvmId;
 
+    /**Number of the last replication, see {@link FailOverDelta}*/
+    private long replicationSequence;
+
+    /**Sender side: the next replication has to be a full snapshot*/
+    private transient boolean fullSnapshotRequired = true;
+
+    /**Sender side: number of deltas since the last full snapshot*/
+    private transient int deltasSinceFullSnapshot;
+
+    /**Sender side: the conversations of the last replication*/
+    private transient Set<Conversation> replicatedConversations;
+
+    /**Receiver side: a replication got missed, the beans can't be restored until the next full snapshot*/
+    private transient boolean incomplete;
+
     /**
      * Used by serialization.
      */
@@ -102,13 +125,14 @@ public class FailOverBag implements Serializable, Externalizable
             return;
         }
 
-        byte[] buffer = (byte[]) in.readObject();
-        ByteArrayInputStream bais = new ByteArrayInputStream(buffer);
-        ObjectInputStream ois = failOverService.getObjectInputStream(bais);
-
-        items = (Map<String, Object>) ois.readObject();
+        Object replication = in.readObject();
+        if (replication instanceof FailOverDelta)
+        {
+            readReplication((FailOverDelta) replication);
+            return;
+        }
 
-        ois.close();
+        items = (Map<String, Object>) deserialize((byte[]) replication);
     }
 
     @Override
@@ -128,18 +152,181 @@ public class FailOverBag implements Serializable, Externalizable
             return;
         }
 
+        DefaultOwbFailOverService defaultFailOverService = getDefaultFailOverService();
+        if (defaultFailOverService != null && defaultFailOverService.isDeltaReplication())
+        {
+            out.writeObject(createReplication(defaultFailOverService.getFullReplicationInterval()));
+            return;
+        }
+
+        out.writeObject(serialize(items));
+    }
+
+    /**
+     * The next replication will be a full snapshot, e.g. because the session gets passivated.
+     */
+    public void requireFullSnapshot()
+    {
+        fullSnapshotRequired = true;
+    }
+
+    private FailOverDelta createReplication(int fullReplicationInterval) throws IOException
+    {
+        long baseSequence = replicationSequence;
+        replicationSequence++;
+
+        // always collect the changes, so the next delta only contains the changes since this replication
+        SessionContext sessionContext = (SessionContext) items.get(DefaultOwbFailOverService.ATTRIBUTE_SESSION_CONTEXT);
+        Map<String, BeanInstanceBag<?>> changedInstances = Collections.emptyMap();
+        Set<String> removedInstances = Collections.emptySet();
+        if (sessionContext != null)
+        {
+            changedInstances = sessionContext.getAndClearDirtyInstances();
+            removedInstances = sessionContext.getAndClearRemovedInstances();
+        }
+        Map<Conversation, ConversationContext> conversations = getConversations(items);
+        boolean conversationsChanged = haveConversationsChanged(conversations);
+
+        if (fullSnapshotRequired || deltasSinceFullSnapshot >= fullReplicationInterval)
+        {
+            fullSnapshotRequired = false;
+            deltasSinceFullSnapshot = 0;
+            return FailOverDelta.fullSnapshot(replicationSequence, serialize(items));
+        }
+
+        deltasSinceFullSnapshot++;
+        FailOverDelta.Changes changes = new FailOverDelta.Changes(
+                changedInstances, removedInstances, conversationsChanged ? conversations : null);
+        return FailOverDelta.changes(replicationSequence, baseSequence, serialize(changes));
+    }
+
+    private boolean haveConversationsChanged(Map<Conversation, ConversationContext> conversations)
+    {
+        boolean changed = false;
+        for (ConversationContext conversationContext : conversations.values())
+        {
+            // no short cut, the dirty flags of all conversations have to get cleared
+            changed |= conversationContext.getAndClearDirty();
+        }
+
+        Set<Conversation> currentConversations = new HashSet<Conversation>(conversations.keySet());
+        if (!currentConversations.equals(replicatedConversations))
+        {
+            changed = true;
+        }
+        replicatedConversations = currentConversations;
+
+        return changed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readReplication(FailOverDelta replication) throws IOException, ClassNotFoundException
+    {
+        DefaultOwbFailOverService defaultFailOverService = getDefaultFailOverService();
+
+        if (replication.isFullSnapshot())
+        {
+            items = (Map<String, Object>) deserialize(replication.getPayload());
+        }
+        else
+        {
+            FailOverBag base = defaultFailOverService != null ? defaultFailOverService.getReplica(sessionId) : null;
+            if (base == null || base.replicationSequence != replication.getBaseSequence())
+            {
+                LOGGER.log(Level.WARNING, "Missed a replication of session [" + sessionId + "] from [" + jvmId
+                        + "], the beans can't be restored until the next full snapshot.");
+
+                // the last complete replication stays the base for the next delta
+                items = new HashMap<String, Object>();
+                incomplete = true;
+                return;
+            }
+
+            items = new HashMap<String, Object>(base.items);
+            applyChanges((FailOverDelta.Changes) deserialize(replication.getPayload()));
+        }
+
+        replicationSequence = replication.getSequence();
+        if (defaultFailOverService != null)
+        {
+            defaultFailOverService.setReplica(this);
+        }
+    }
+
+    private void applyChanges(FailOverDelta.Changes changes)
+    {
+        SessionContext sessionContext = (SessionContext) items.get(DefaultOwbFailOverService.ATTRIBUTE_SESSION_CONTEXT);
+        if (sessionContext == null)
+        {
+            sessionContext = new SessionContext();
+            items.put(DefaultOwbFailOverService.ATTRIBUTE_SESSION_CONTEXT, sessionContext);
+        }
+        sessionContext.applyReplicatedChanges(changes.getChangedInstances(), changes.getRemovedInstances());
+
+        if (changes.getConversations() != null)
+        {
+            items.put(DefaultOwbFailOverService.ATTRIBUTE_CONVERSATION_CONTEXT_MAP, changes.getConversations());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Conversation, ConversationContext> getConversations(Map<String, Object> items)
+    {
+        Map<Conversation, ConversationContext> conversations =
+                (Map<Conversation, ConversationContext>) items.get(DefaultOwbFailOverService.ATTRIBUTE_CONVERSATION_CONTEXT_MAP);
+        if (conversations == null)
+        {
+            return Collections.emptyMap();
+        }
+        return conversations;
+    }
+
+    private DefaultOwbFailOverService getDefaultFailOverService()
+    {
+        if (failOverService instanceof DefaultOwbFailOverService)
+        {
+            return (DefaultOwbFailOverService) failOverService;
+        }
+        return null;
+    }
+
+    private byte[] serialize(Object object) throws IOException
+    {
         // In old times (< OWB-1.2.0) We could not directly use java object stream since we were using javassist.
         // Thus we had to serialize the bag by use javassist object stream.
         // this is needed anymore since owb-1.2.0!
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         ObjectOutputStream oos = failOverService.getObjectOutputStream(baos);
-        oos.writeObject(items);
+        oos.writeObject(object);
         oos.flush();
 
-        out.writeObject(baos.toByteArray());
+        byte[] bytes = baos.toByteArray();
 
         oos.close();
         baos.close();
+
+        return bytes;
+    }
+
+    private Object deserialize(byte[] buffer) throws IOException, ClassNotFoundException
+    {
+        ByteArrayInputStream bais = new ByteArrayInputStream(buffer);
+        ObjectInputStream ois = failOverService.getObjectInputStream(bais);
+
+        Object object = ois.readObject();
+
+        ois.close();
+
+        return object;
+    }
+
+    /**
+     * @return <code>true</code> if this replica missed a previous replication and
+     *         does not contain all beans of the session
+     */
+    public boolean isIncomplete()
+    {
+        return incomplete;
     }
 
     public boolean isSessionInUse()
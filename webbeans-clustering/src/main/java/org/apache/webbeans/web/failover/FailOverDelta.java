@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.web.failover;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.context.Conversation;
+
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+
+/**
+ * <p>One replication of a {@link FailOverBag} if the delta replication is enabled.</p>
+ *
+ * <p>Either a full snapshot of the bag or only the changes since the replication
+ * with the {@link #getBaseSequence() base sequence}. The payload gets serialized via
+ * the streams of the {@link org.apache.webbeans.spi.FailOverService} like the full bag.</p>
+ */
+public class FailOverDelta implements Serializable
+{
+    private static final long serialVersionUID = 3283437232962512364L;
+
+    private final long sequence;
+    private final long baseSequence;
+    private final boolean fullSnapshot;
+    private final byte[] payload;
+
+    private FailOverDelta(long sequence, long baseSequence, boolean fullSnapshot, byte[] payload)
+    {
+        this.sequence = sequence;
+        this.baseSequence = baseSequence;
+        this.fullSnapshot = fullSnapshot;
+        this.payload = payload;
+    }
+
+    /**
+     * @param sequence number of this replication
+     * @param items the serialized items of the bag
+     */
+    public static FailOverDelta fullSnapshot(long sequence, byte[] items)
+    {
+        return new FailOverDelta(sequence, -1L, true, items);
+    }
+
+    /**
+     * @param sequence number of this replication
+     * @param baseSequence number of the replication these changes apply to
+     * @param changes the serialized {@link Changes}
+     */
+    public static FailOverDelta changes(long sequence, long baseSequence, byte[] changes)
+    {
+        return new FailOverDelta(sequence, baseSequence, false, changes);
+    }
+
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    public long getBaseSequence()
+    {
+        return baseSequence;
+    }
+
+    public boolean isFullSnapshot()
+    {
+        return fullSnapshot;
+    }
+
+    public byte[] getPayload()
+    {
+        return payload;
+    }
+
+    /**
+     * The changes of a session since the last replication.
+     */
+    public static class Changes implements Serializable
+    {
+        private static final long serialVersionUID = -2170165123290771581L;
+
+        private final Map<String, BeanInstanceBag<?>> changedInstances;
+        private final Set<String> removedInstances;
+        private final Map<Conversation, ConversationContext> conversations;
+
+        /**
+         * @param changedInstances the created or used session scoped instances by passivation id
+         * @param removedInstances the passivation ids of the destroyed session scoped instances
+         * @param conversations all conversations of the session or <code>null</code> if none of them changed
+         */
+        public Changes(Map<String, BeanInstanceBag<?>> changedInstances, Set<String> removedInstances,
+                       Map<Conversation, ConversationContext> conversations)
+        {
+            this.changedInstances = changedInstances;
+            this.removedInstances = removedInstances;
+            this.conversations = conversations;
+        }
+
+        public Map<String, BeanInstanceBag<?>> getChangedInstances()
+        {
+            return changedInstances;
+        }
+
+        public Set<String> getRemovedInstances()
+        {
+            return removedInstances;
+        }
+
+        public Map<Conversation, ConversationContext> getConversations()
+        {
+            return conversations;
+        }
+    }
+}
@@ -40,6 +40,7 @@ import javax.servlet.http.HttpSession;
 import org.apache.webbeans.context.ConversationContext;
 import org.apache.webbeans.conversation.ConversationImpl;
 import org.apache.webbeans.conversation.ConversationManager;
+import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.spi.ConversationService;
 import org.apache.webbeans.spi.FailOverService;
 import org.apache.webbeans.web.failover.DefaultOwbFailOverService;
@@ -300,6 +301,126 @@ public class DefaultOwbFailOverServiceTest extends AbstractUnitTest
         Assert.assertTrue(beanInstance.isBeanManagerNotNull());
     }
 
+    /**
+     * Tests that a delta replication only contains the changed beans and
+     * gets applied on top of the previous replication.
+     *
+     * @throws Exception When store/restore the session context fails.
+     */
+    @Test
+    public void deltaReplication() throws Exception
+    {
+        // ----- setup
+        HttpSession session = new MockHttpSession();
+
+        DefaultOwbFailOverService failoverService =
+                (DefaultOwbFailOverService) getWebBeansContext().getService(FailOverService.class);
+
+        failoverService.enableFailOverSupport(true);
+        failoverService.enablePassivationSupport(true);
+        failoverService.enableDeltaReplication(true);
+
+
+
+        // ----- execute
+        getWebBeansContext().getContextsService().startContext(SessionScoped.class, session);
+
+        getInstance(SessionScopedBean.class).setText("first");
+        failoverService.sessionIsIdle(session);
+        FailOverBag senderBag = (FailOverBag) session.getAttribute(FailOverBag.SESSION_ATTRIBUTE_NAME);
+
+        // the first replication is a full snapshot
+        byte[] fullSnapshot = toBytes(senderBag);
+        FailOverBag replica = (FailOverBag) fromBytes(fullSnapshot);
+
+        // the second one only contains the changed bean
+        getInstance(SessionScopedBean.class).setText(SESSION_SCOPED_SAMPLE_TEXT);
+        failoverService.sessionIsIdle(session);
+        replica = (FailOverBag) fromBytes(toBytes(senderBag));
+
+        // and the third one nothing at all
+        failoverService.sessionIsIdle(session);
+        byte[] emptyDelta = toBytes(senderBag);
+        replica = (FailOverBag) fromBytes(emptyDelta);
+
+        session.setAttribute(FailOverBag.SESSION_ATTRIBUTE_NAME, replica);
+
+        getInstance(SessionScopedBean.class).setText(null);
+
+        getWebBeansContext().getContextsService().endContext(SessionScoped.class, session);
+
+        // restore beans from session
+        failoverService.sessionDidActivate(session);
+
+        getWebBeansContext().getContextsService().startContext(SessionScoped.class, session);
+
+
+
+        // ----- assert
+        Assert.assertTrue(emptyDelta.length < fullSnapshot.length);
+        Assert.assertEquals(SESSION_SCOPED_SAMPLE_TEXT, getInstance(SessionScopedBean.class).getText());
+    }
+
+    /**
+     * Tests that a delta which does not fit to the previous replication
+     * doesn't get applied and the session does not get restored.
+     *
+     * @throws Exception When store/restore the session context fails.
+     */
+    @Test
+    public void missedDeltaReplication() throws Exception
+    {
+        // ----- setup
+        HttpSession session = new MockHttpSession();
+
+        DefaultOwbFailOverService failoverService =
+                (DefaultOwbFailOverService) getWebBeansContext().getService(FailOverService.class);
+
+        failoverService.enableFailOverSupport(true);
+        failoverService.enablePassivationSupport(true);
+        failoverService.enableDeltaReplication(true);
+
+
+
+        // ----- execute
+        getWebBeansContext().getContextsService().startContext(SessionScoped.class, session);
+
+        getInstance(SessionScopedBean.class).setText("first");
+        failoverService.sessionIsIdle(session);
+        FailOverBag senderBag = (FailOverBag) session.getAttribute(FailOverBag.SESSION_ATTRIBUTE_NAME);
+        FailOverBag replica = (FailOverBag) fromBytes(toBytes(senderBag));
+
+        // the second replication never arrives
+        getInstance(SessionScopedBean.class).setText(SESSION_SCOPED_SAMPLE_TEXT);
+        failoverService.sessionIsIdle(session);
+        toBytes(senderBag);
+
+        failoverService.sessionIsIdle(session);
+        FailOverBag incompleteReplica = (FailOverBag) fromBytes(toBytes(senderBag));
+
+        session.setAttribute(FailOverBag.SESSION_ATTRIBUTE_NAME, incompleteReplica);
+
+        getWebBeansContext().getContextsService().endContext(SessionScoped.class, session);
+
+        WebBeansException restoreException = null;
+        try
+        {
+            failoverService.sessionDidActivate(session);
+        }
+        catch (WebBeansException e)
+        {
+            restoreException = e;
+        }
+
+
+
+        // ----- assert
+        Assert.assertFalse(replica.isIncomplete());
+        Assert.assertTrue(incompleteReplica.isIncomplete());
+        Assert.assertNull(incompleteReplica.get(DefaultOwbFailOverService.ATTRIBUTE_SESSION_CONTEXT));
+        Assert.assertNotNull(restoreException);
+    }
+
     /**
      * Tests that the {@link FailOverSessionActivationListener} is serializable.
      *
@@ -311,6 +432,28 @@ public class DefaultOwbFailOverServiceTest extends AbstractUnitTest
         serialize(new FailOverSessionActivationListener());
     }
 
+    private byte[] toBytes(Serializable serializable) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(serializable);
+        oos.close();
+
+        return baos.toByteArray();
+    }
+
+    private Object fromBytes(byte[] bytes) throws IOException, ClassNotFoundException
+    {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+
+        Object deserializedObject = ois.readObject();
+
+        ois.close();
+
+        return deserializedObject;
+    }
+
     private Serializable serialize(Serializable serializable) throws IOException, ClassNotFoundException
     {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
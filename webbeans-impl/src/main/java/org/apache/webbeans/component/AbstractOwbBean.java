@@ -77,6 +77,13 @@ public abstract class AbstractOwbBean<T>
      * @see #getId()
      */
     protected String passivatingId = null;
+
+    /**
+     * Dense index of this bean within its scope.
+     * It gets assigned when the bean gets added to the BeanManager.
+     * @see #getBeanSlot()
+     */
+    private int beanSlot = -1;
     
     protected final WebBeansContext webBeansContext;
 
@@ -108,6 +115,23 @@ public abstract class AbstractOwbBean<T>
     {
         return beanClass;
     }
+
+    /**
+     * The bean slot is a dense index of this bean among all beans of the same scope.
+     * Contexts may use it for addressing their contextual instances.
+     *
+     * @return the bean slot or -1 if the bean didn't get added to the BeanManager
+     * @see org.apache.webbeans.context.BeanSlotInstanceMap
+     */
+    public int getBeanSlot()
+    {
+        return beanSlot;
+    }
+
+    public void setBeanSlot(int beanSlot)
+    {
+        this.beanSlot = beanSlot;
+    }
     
     /**
      * {@inheritDoc}
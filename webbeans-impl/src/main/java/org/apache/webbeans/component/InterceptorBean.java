@@ -34,6 +34,7 @@ import javax.enterprise.inject.spi.BeanAttributes;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.InjectionTargetFactoryImpl;
 import org.apache.webbeans.container.InterceptorInjectionTargetFactory;
+import org.apache.webbeans.proxy.MethodInvoker;
 import org.apache.webbeans.util.ExceptionUtil;
 
 /**
@@ -57,6 +58,11 @@ public abstract class InterceptorBean<T> extends InjectionTargetBean<T> implemen
      */
     protected Method aroundInvokeMethod = null;
 
+    /**
+     * Calls the {@link #aroundInvokeMethod} without reflection if possible
+     */
+    protected MethodInvoker aroundInvokeInvoker = null;
+
     protected InterceptorBean(WebBeansContext webBeansContext,
                                   AnnotatedType<T> annotatedType,
                                   BeanAttributes<T> beanAttributes,
@@ -87,6 +93,7 @@ public abstract class InterceptorBean<T> extends InjectionTargetBean<T> implemen
         if (aroundInvokeMethods != null && aroundInvokeMethods.length == 1)
         {
             aroundInvokeMethod = aroundInvokeMethods[0];
+            aroundInvokeInvoker = webBeansContext.getMethodInvokerFactory().getMethodInvoker(aroundInvokeMethod);
         }
     }
 
@@ -131,9 +138,9 @@ public abstract class InterceptorBean<T> extends InjectionTargetBean<T> implemen
     {
         try
         {
-            if (InterceptionType.AROUND_INVOKE == interceptionType && aroundInvokeMethod != null)
+            if (InterceptionType.AROUND_INVOKE == interceptionType && aroundInvokeInvoker != null)
             {
-                return aroundInvokeMethod.invoke(instance, invocationContext);
+                return aroundInvokeInvoker.invoke(instance, new Object[]{invocationContext});
             }
 
             Method[] interceptorMethods = getInterceptorMethods(interceptionType);
@@ -39,6 +39,7 @@ import org.apache.webbeans.component.creation.ProducerMethodBeansBuilder;
 import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.container.InjectableBeanManager;
 import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
 import org.apache.webbeans.corespi.se.DefaultJndiService;
 import org.apache.webbeans.decorator.DecoratorsManager;
 import org.apache.webbeans.deployment.StereoTypeManager;
@@ -115,6 +116,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -160,7 +163,7 @@ public class BeansDeployer
     private final DecoratorsManager decoratorsManager;
     private final InterceptorsManager interceptorsManager;
 
-    private final Map<String, Boolean> packageVetoCache = new HashMap<String, Boolean>();
+    private final Map<String, Boolean> packageVetoCache = new ConcurrentHashMap<String, Boolean>();
 
     /**
      * Creates a new deployer with given xml configurator.
@@ -193,7 +196,9 @@ public class BeansDeployer
         try
         {
             if (!deployed)
-            {                
+            {
+                long phaseStart = System.nanoTime();
+
                 //Load Extensions
                 webBeansContext.getExtensionLoader().loadExtensionServices();
 
@@ -214,8 +219,11 @@ public class BeansDeployer
                 // Register Manager built-in component
                 webBeansContext.getBeanManagerImpl().addInternalBean(webBeansContext.getWebBeansUtil().getManagerBean());
 
+                phaseStart = phaseFinished("Extensions", phaseStart);
+
                 //Fire Event
                 fireBeforeBeanDiscoveryEvent();
+                phaseStart = phaseFinished("BeforeBeanDiscovery", phaseStart);
                 
                 //Deploy bean from XML. Also configures deployments, interceptors, decorators.
                 deployFromXML(scanner);
@@ -225,15 +233,18 @@ public class BeansDeployer
                 
                 //Configure Default Beans
                 configureDefaultBeans();
+                phaseStart = phaseFinished("BeansXml", phaseStart);
 
                 List<AnnotatedType<?>> annotatedTypes = annotatedTypesFromClassPath(scanner);
 
                 //Deploy additional Annotated Types
                 addAdditionalAnnotatedTypes(webBeansContext.getBeanManagerImpl().getAdditionalAnnotatedTypes(), annotatedTypes);
+                phaseStart = phaseFinished("ProcessAnnotatedType", phaseStart);
 
                 registerAlternativesDecoratorsAndInterceptorsWithPriority(annotatedTypes);
 
                 addAdditionalAnnotatedTypes(fireAfterTypeDiscoveryEvent(), annotatedTypes);
+                phaseStart = phaseFinished("AfterTypeDiscovery", phaseStart);
 
                 // Handle Specialization
                 removeSpecializedTypes(annotatedTypes);
@@ -247,19 +258,45 @@ public class BeansDeployer
 
                 // all beans which got 'overridden' by a Specialized version can be removed now
                 removeDisabledBeans();
+                phaseStart = phaseFinished("BeanCreation", phaseStart);
                 
                 // We are finally done with our bean discovery
                 fireAfterBeanDiscoveryEvent();
-                
-                // Validate injection Points
-                validateInjectionPoints();
-                validateDisposeParameters();
+                phaseStart = phaseFinished("AfterBeanDiscovery", phaseStart);
 
-                validateDecoratorDecoratedTypes();
-                validateDecoratorGenericTypes();
+                DeploymentSnapshot deploymentSnapshot = getDeploymentSnapshot(scanner);
+                String beansFingerprint = null;
+                if (deploymentSnapshot != null)
+                {
+                    beansFingerprint = DeploymentSnapshot.fingerprint(webBeansContext);
+                }
+
+                internQualifiers();
+
+                if (deploymentSnapshot != null && deploymentSnapshot.isValidated(beansFingerprint))
+                {
+                    // the same beans got validated successfully by a previous deployment
+                    logger.info("Skipping the validation of the unchanged deployment");
+                }
+                else
+                {
+                    // Validate injection Points
+                    validateInjectionPoints();
+                    validateDisposeParameters();
+
+                    validateDecoratorDecoratedTypes();
+                    validateDecoratorGenericTypes();
+                }
+                phaseStart = phaseFinished("Validation", phaseStart);
 
                 // fire event
                 fireAfterDeploymentValidationEvent();
+                phaseFinished("AfterDeploymentValidation", phaseStart);
+
+                if (deploymentSnapshot != null && !deploymentSnapshot.isValidated(beansFingerprint))
+                {
+                    deploymentSnapshot.store(beansFingerprint);
+                }
 
 
                 // do some cleanup after the deployment
@@ -300,6 +337,31 @@ public class BeansDeployer
         }
     }
 
+    /**
+     * Reports the duration of a deployment phase to the {@link org.apache.webbeans.spi.MetricsService}.
+     * @return the start time of the next phase
+     */
+    private long phaseFinished(String phase, long phaseStart)
+    {
+        long now = System.nanoTime();
+        webBeansContext.getMetricsService().deploymentPhaseFinished(phase, now - phaseStart);
+        return now;
+    }
+
+    /**
+     * @return the {@link DeploymentSnapshot} of the scanner or <code>null</code> if it is disabled
+     * @see DeploymentSnapshot#open(WebBeansContext, java.util.Collection)
+     */
+    private DeploymentSnapshot getDeploymentSnapshot(ScannerService scanner)
+    {
+        if (!(scanner instanceof AbstractMetaDataDiscovery))
+        {
+            return null;
+        }
+
+        return ((AbstractMetaDataDiscovery) scanner).getDeploymentSnapshot();
+    }
+
     private void validateDisposeParameters()
     {
         final WebBeansUtil webBeansUtil = webBeansContext.getWebBeansUtil();
@@ -620,6 +682,18 @@ public class BeansDeployer
         packageVetoCache.clear(); // no more needed, free the memory
     }
     
+    /**
+     * Intern the qualifiers of all beans, decorators and interceptors,
+     * so the runtime lookups do not need to evaluate them reflectively again.
+     */
+    private void internQualifiers()
+    {
+        InjectionResolver injectionResolver = webBeansContext.getBeanManagerImpl().getInjectionResolver();
+        injectionResolver.internQualifiers(webBeansContext.getDecoratorsManager().getDecorators());
+        injectionResolver.internQualifiers(webBeansContext.getInterceptorsManager().getCdiInterceptors());
+        injectionResolver.internQualifiers(webBeansContext.getBeanManagerImpl().getBeans());
+    }
+
     /**
      * Validate all injection points.
      */
@@ -829,30 +903,23 @@ public class BeansDeployer
         //Iterating over each class
         if (classIndex != null)
         {
-            AnnotatedElementFactory annotatedElementFactory = webBeansContext.getAnnotatedElementFactory();
-
+            // the veto checks and the creation of the AnnotatedTypes are independent of each other
+            List<Callable<AnnotatedType<?>>> tasks = new ArrayList<Callable<AnnotatedType<?>>>(classIndex.size());
             for (Class<?> implClass : classIndex)
             {
-                if (isVetoed(implClass))
+                tasks.add(new CreateAnnotatedTypeTask(implClass));
+            }
+
+            // but the ProcessAnnotatedType events get fired in the order of the classes
+            for (AnnotatedType<?> annotatedType : ParallelBootstrap.invokeAll(webBeansContext, tasks))
+            {
+                if (annotatedType == null)
                 {
                     continue;
                 }
 
                 try
                 {
-                    //Define annotation type
-                    AnnotatedType<?> annotatedType = annotatedElementFactory.getAnnotatedType(implClass);
-                    if (annotatedType == null) // mean no annotation created it (normal case)
-                    {
-                        annotatedType = annotatedElementFactory.newAnnotatedType(implClass);
-                    }
-
-                    if (annotatedType == null)
-                    {
-                        logger.info("Could not create AnnotatedType for class " + implClass);
-                        continue;
-                    }
-
                     // Fires ProcessAnnotatedType
                     if (!annotatedType.getJavaClass().isAnnotation())
                     {
@@ -869,7 +936,7 @@ public class BeansDeployer
                 }
                 catch (NoClassDefFoundError ncdfe)
                 {
-                    logger.info("Skipping deployment of Class " + implClass + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
+                    logger.info("Skipping deployment of Class " + annotatedType.getJavaClass() + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
                 }
             }
         }
@@ -877,6 +944,52 @@ public class BeansDeployer
         return annotatedTypes;
     }
 
+    /**
+     * Checks whether the class is vetoed and creates its AnnotatedType otherwise.
+     * Returns <code>null</code> if the class must not get deployed.
+     */
+    private final class CreateAnnotatedTypeTask implements Callable<AnnotatedType<?>>
+    {
+        private final Class<?> implClass;
+
+        private CreateAnnotatedTypeTask(Class<?> implClass)
+        {
+            this.implClass = implClass;
+        }
+
+        @Override
+        public AnnotatedType<?> call()
+        {
+            if (isVetoed(implClass))
+            {
+                return null;
+            }
+
+            try
+            {
+                AnnotatedElementFactory annotatedElementFactory = webBeansContext.getAnnotatedElementFactory();
+
+                //Define annotation type
+                AnnotatedType<?> annotatedType = annotatedElementFactory.getAnnotatedType(implClass);
+                if (annotatedType == null) // mean no annotation created it (normal case)
+                {
+                    annotatedType = annotatedElementFactory.newAnnotatedType(implClass);
+                }
+
+                if (annotatedType == null)
+                {
+                    logger.info("Could not create AnnotatedType for class " + implClass);
+                }
+                return annotatedType;
+            }
+            catch (NoClassDefFoundError ncdfe)
+            {
+                logger.info("Skipping deployment of Class " + implClass + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
+                return null;
+            }
+        }
+    }
+
     private boolean isVetoed(final Class<?> implClass)
     {
         if (implClass.getAnnotation(Vetoed.class) != null)
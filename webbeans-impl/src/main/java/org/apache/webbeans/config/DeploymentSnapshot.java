@@ -0,0 +1,505 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.config;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.AnnotatedParameter;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.ObserverMethod;
+
+import org.apache.webbeans.component.OwbBean;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.portable.events.ExtensionLoader;
+
+/**
+ * <p>Snapshot of a deployment which lets a restart with unchanged bean archives
+ * skip the class scanning and the validation of the injection points.</p>
+ *
+ * <p>The snapshot is keyed by the locations, sizes and modification times of all
+ * files in the bean archives, which includes their beans.xml files. It stores the
+ * names of the discovered bean classes and a fingerprint of the enabled beans,
+ * interceptors, decorators and observer methods after a successful validation.
+ * A restart with the same key takes the bean classes from the snapshot. The validation
+ * only gets skipped if the resulting beans, including all their injection points,
+ * have the same fingerprint again.</p>
+ *
+ * <p>Extensions can add, veto or modify beans, so the snapshot only gets used if all
+ * Extensions are declared to be safe. OpenWebBeans itself doesn't register any.</p>
+ *
+ * @see OpenWebBeansConfiguration#DEPLOYMENT_SNAPSHOT_DIRECTORY
+ */
+public class DeploymentSnapshot
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(DeploymentSnapshot.class);
+
+    public static final String FILE_NAME = "owb-deployment.snapshot";
+
+    public static final int VERSION = 2;
+
+    private static final String HEADER = "OWB-DEPLOYMENT-SNAPSHOT";
+    private static final String KEY = "key ";
+    private static final String BEANS = "beans ";
+    private static final String CLASS = "class ";
+    private static final String ENCODING = "UTF-8";
+
+    private final File file;
+    private final String key;
+    private final boolean restored;
+    private List<String> classNames;
+    private String beansFingerprint;
+
+    private DeploymentSnapshot(File file, String key, List<String> classNames, String beansFingerprint)
+    {
+        this.file = file;
+        this.key = key;
+        this.restored = classNames != null;
+        this.classNames = classNames;
+        this.beansFingerprint = beansFingerprint;
+    }
+
+    /**
+     * Opens the snapshot of the given bean archives.
+     *
+     * @param webBeansContext the current context
+     * @param deploymentUrls the roots of all bean archives
+     * @return the snapshot which got stored for exactly those archives, an empty snapshot which
+     *         still needs to get stored or <code>null</code> if the snapshot is disabled,
+     *         an Extension which is not declared to be safe could alter the deployment
+     *         or the archives cannot be checked for changes
+     */
+    public static DeploymentSnapshot open(WebBeansContext webBeansContext, Collection<URL> deploymentUrls)
+    {
+        String directory = webBeansContext.getOpenWebBeansConfiguration().getDeploymentSnapshotDirectory();
+        if (directory == null)
+        {
+            return null;
+        }
+
+        if (!hasOnlySafeExtensions(webBeansContext))
+        {
+            return null;
+        }
+
+        String key = computeKey(deploymentUrls);
+        if (key == null)
+        {
+            logger.fine("Deployment snapshot disabled, the bean archives are not located in the file system");
+            return null;
+        }
+
+        File file = new File(directory, FILE_NAME);
+        DeploymentSnapshot snapshot = read(file);
+        if (snapshot != null && key.equals(snapshot.key))
+        {
+            logger.info("Using the deployment snapshot " + file);
+            return snapshot;
+        }
+
+        return new DeploymentSnapshot(file, key, null, null);
+    }
+
+    /**
+     * Loads the Extensions before anything gets restored from the snapshot.
+     * This doesn't change the deployment, the BeansDeployer just finds them already loaded.
+     */
+    private static boolean hasOnlySafeExtensions(WebBeansContext webBeansContext)
+    {
+        ExtensionLoader extensionLoader = webBeansContext.getExtensionLoader();
+        extensionLoader.loadExtensionServices();
+
+        Set<String> safeExtensions = webBeansContext.getOpenWebBeansConfiguration().getDeploymentSnapshotSafeExtensions();
+        for (Class<?> extensionClass : extensionLoader.getExtensionClasses())
+        {
+            if (!safeExtensions.contains(extensionClass.getName()))
+            {
+                logger.info("Deployment snapshot disabled because of the Extension " + extensionClass.getName());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the snapshot got stored by a previous deployment of the same archives
+     */
+    public boolean isRestored()
+    {
+        return restored;
+    }
+
+    public String getKey()
+    {
+        return key;
+    }
+
+    /**
+     * @return the names of the bean classes or <code>null</code> if the snapshot didn't get restored
+     */
+    public List<String> getClassNames()
+    {
+        return classNames;
+    }
+
+    /**
+     * @param classNames the names of the scanned bean classes to store
+     */
+    public void setClassNames(List<String> classNames)
+    {
+        this.classNames = classNames;
+    }
+
+    /**
+     * @return true if the snapshot got restored and has the given fingerprint of the beans
+     */
+    public boolean isValidated(String beansFingerprint)
+    {
+        return restored && beansFingerprint.equals(this.beansFingerprint);
+    }
+
+    /**
+     * Stores the snapshot after a successful validation of the deployment.
+     * A failure to write the file only gets logged.
+     */
+    public void store(String beansFingerprint)
+    {
+        if (classNames == null)
+        {
+            // the classes didn't get scanned by us
+            return;
+        }
+
+        this.beansFingerprint = beansFingerprint;
+
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+        {
+            logger.warning("Cannot create the deployment snapshot directory " + directory);
+            return;
+        }
+
+        // write to a temporary file first, a concurrently starting application must not read half a snapshot
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try
+        {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(tmpFile), ENCODING);
+            try
+            {
+                writer.write(HEADER + " " + VERSION + "\n");
+                writer.write(KEY + key + "\n");
+                writer.write(BEANS + beansFingerprint + "\n");
+                for (String className : classNames)
+                {
+                    writer.write(CLASS + className + "\n");
+                }
+            }
+            finally
+            {
+                writer.close();
+            }
+
+            if ((file.exists() && !file.delete()) || !tmpFile.renameTo(file))
+            {
+                logger.warning("Cannot replace the deployment snapshot " + file);
+                tmpFile.delete();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Cannot write the deployment snapshot " + file, e);
+            tmpFile.delete();
+        }
+    }
+
+    private static DeploymentSnapshot read(File file)
+    {
+        if (!file.isFile())
+        {
+            return null;
+        }
+
+        try
+        {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+            try
+            {
+                if (!(HEADER + " " + VERSION).equals(reader.readLine()))
+                {
+                    return null;
+                }
+
+                String keyLine = reader.readLine();
+                String beansLine = reader.readLine();
+                if (keyLine == null || !keyLine.startsWith(KEY) || beansLine == null || !beansLine.startsWith(BEANS))
+                {
+                    return null;
+                }
+
+                List<String> classNames = new ArrayList<String>();
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    if (line.startsWith(CLASS))
+                    {
+                        classNames.add(line.substring(CLASS.length()));
+                    }
+                }
+
+                return new DeploymentSnapshot(file, keyLine.substring(KEY.length()), classNames, beansLine.substring(BEANS.length()));
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Cannot read the deployment snapshot " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the hash of the locations, sizes and modification times of all files
+     *         of the given archives or <code>null</code> if an archive is not located in the file system
+     */
+    public static String computeKey(Collection<URL> deploymentUrls)
+    {
+        List<String> locations = new ArrayList<String>(deploymentUrls.size());
+        for (URL url : deploymentUrls)
+        {
+            locations.add(url.toExternalForm());
+        }
+        Collections.sort(locations);
+
+        MessageDigest digest = newDigest();
+        update(digest, HEADER + " " + VERSION);
+        for (String location : locations)
+        {
+            File archive = toFile(location);
+            if (archive == null || !archive.exists())
+            {
+                return null;
+            }
+
+            update(digest, location);
+            update(digest, archive, "");
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return a hash of the enabled beans, interceptors, decorators and observer methods
+     *         and of the injection points of those beans
+     */
+    public static String fingerprint(WebBeansContext webBeansContext)
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+
+        List<String> descriptions = new ArrayList<String>();
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (bean instanceof OwbBean && !((OwbBean<?>) bean).isEnabled())
+            {
+                continue;
+            }
+            descriptions.add(describe(bean));
+        }
+        for (Bean<?> interceptor : webBeansContext.getInterceptorsManager().getCdiInterceptors())
+        {
+            descriptions.add("interceptor " + describe(interceptor));
+        }
+        for (Bean<?> decorator : webBeansContext.getDecoratorsManager().getDecorators())
+        {
+            descriptions.add("decorator " + describe(decorator));
+        }
+        for (ObserverMethod<?> observerMethod : beanManager.getNotificationManager().getObserverMethods())
+        {
+            descriptions.add("observer " + observerMethod.getBeanClass().getName() + " " + observerMethod.getObservedType()
+                    + " " + sorted(observerMethod.getObservedQualifiers()));
+        }
+        Collections.sort(descriptions);
+
+        MessageDigest digest = newDigest();
+        for (String description : descriptions)
+        {
+            update(digest, description);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String describe(Bean<?> bean)
+    {
+        return bean.getClass().getName() + " " + bean.getBeanClass().getName() + " " + bean.getScope().getName()
+                + " " + bean.getName() + " " + bean.isAlternative()
+                + " " + sorted(bean.getTypes()) + " " + sorted(bean.getQualifiers())
+                + " " + describe(bean.getInjectionPoints());
+    }
+
+    private static List<String> describe(Set<InjectionPoint> injectionPoints)
+    {
+        List<String> descriptions = new ArrayList<String>(injectionPoints.size());
+        for (InjectionPoint injectionPoint : injectionPoints)
+        {
+            Member member = injectionPoint.getMember();
+            String location = member == null ? "" : member.getDeclaringClass().getName() + "." + member.getName();
+            if (injectionPoint.getAnnotated() instanceof AnnotatedParameter)
+            {
+                location += "#" + ((AnnotatedParameter<?>) injectionPoint.getAnnotated()).getPosition();
+            }
+
+            descriptions.add(location + " " + injectionPoint.getType() + " " + sorted(injectionPoint.getQualifiers())
+                    + " " + injectionPoint.isDelegate());
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    private static List<String> sorted(Collection<?> elements)
+    {
+        List<String> strings = new ArrayList<String>(elements.size());
+        for (Object element : elements)
+        {
+            if (element instanceof Class)
+            {
+                strings.add(((Class<?>) element).getName());
+            }
+            else if (element instanceof Type || element instanceof Annotation)
+            {
+                strings.add(element.toString());
+            }
+            else
+            {
+                strings.add(String.valueOf(element));
+            }
+        }
+        Collections.sort(strings);
+        return strings;
+    }
+
+    private static void update(MessageDigest digest, File file, String path)
+    {
+        if (file.isDirectory())
+        {
+            String[] children = file.list();
+            if (children == null)
+            {
+                return;
+            }
+
+            Arrays.sort(children);
+            for (String child : children)
+            {
+                update(digest, new File(file, child), path + "/" + child);
+            }
+        }
+        else
+        {
+            update(digest, path + " " + file.length() + " " + file.lastModified());
+        }
+    }
+
+    private static void update(MessageDigest digest, String value)
+    {
+        try
+        {
+            digest.update(value.getBytes(ENCODING));
+            digest.update((byte) '\n');
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static File toFile(String location)
+    {
+        String path = location;
+        if (path.startsWith("jar:"))
+        {
+            path = path.substring("jar:".length());
+            int separator = path.indexOf("!/");
+            if (separator > 0)
+            {
+                path = path.substring(0, separator);
+            }
+        }
+        if (!path.startsWith("file:"))
+        {
+            return null;
+        }
+
+        try
+        {
+            return new File(new URL(path).toURI());
+        }
+        catch (Exception e)
+        {
+            // e.g. an URL which contains spaces
+            return new File(path.substring("file:".length()));
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes)
+        {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
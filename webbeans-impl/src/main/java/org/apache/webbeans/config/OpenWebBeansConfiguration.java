@@ -102,6 +102,36 @@ public class OpenWebBeansConfiguration
     /**Supports conversations*/
     public static final String APPLICATION_SUPPORTS_CONVERSATION = "org.apache.webbeans.application.supportsConversation";
 
+    /**Create the RequestContext of a web request only when it gets used the first time*/
+    public static final String LAZY_REQUEST_CONTEXT = "org.apache.webbeans.web.lazyRequestContext";
+
+    /**Load classes and create AnnotatedTypes with multiple threads during deployment*/
+    public static final String PARALLEL_BOOTSTRAP = "org.apache.webbeans.bootstrap.parallel";
+
+    /**Number of threads used for the parallel bootstrap, defaults to the number of available processors*/
+    public static final String PARALLEL_BOOTSTRAP_THREADS = "org.apache.webbeans.bootstrap.parallel.threads";
+
+    /**Directory of the deployment snapshot which lets a restart with unchanged archives skip scanning and validation*/
+    public static final String DEPLOYMENT_SNAPSHOT_DIRECTORY = "org.apache.webbeans.deployment.snapshot.directory";
+
+    /**Comma separated list of Extension classes which don't prevent the usage of the deployment snapshot*/
+    public static final String DEPLOYMENT_SNAPSHOT_SAFE_EXTENSIONS = "org.apache.webbeans.deployment.snapshot.safeExtensions";
+
+    /**Deliver the events fired via fireEventAsync on a separate thread pool*/
+    public static final String ASYNC_EVENT_DELIVERY = "org.apache.webbeans.event.async";
+
+    /**Number of threads used for the asynchronous event delivery, defaults to the number of available processors*/
+    public static final String ASYNC_EVENT_THREADS = "org.apache.webbeans.event.async.threads";
+
+    /**Maximum number of InjectionTargets cached for the injection into non-contextual instances, 0 disables the cache*/
+    public static final String INJECTION_TARGET_CACHE_SIZE = "org.apache.webbeans.inject.injectionTargetCache.size";
+
+    /**Default of {@link #INJECTION_TARGET_CACHE_SIZE}, the same as in openwebbeans.properties*/
+    private static final int DEFAULT_INJECTION_TARGET_CACHE_SIZE = 1000;
+
+    /**Call intercepted methods and AroundInvoke methods via generated classes instead of reflection, defaults to true*/
+    public static final String GENERATED_METHOD_INVOKERS = "org.apache.webbeans.intercept.generatedInvokers";
+
     /** @Produces with interceptor/decorator support */
     public static final String PRODUCER_INTERCEPTION_SUPPORT = "org.apache.webbeans.application.supportsProducerInterception";
 
@@ -204,6 +234,27 @@ public class OpenWebBeansConfiguration
 
         value = properties.getProperty(JNDI_SERVICE);
         setPropertyFromSystemProperty(JNDI_SERVICE, value);
+
+        value = properties.getProperty(PARALLEL_BOOTSTRAP);
+        setPropertyFromSystemProperty(PARALLEL_BOOTSTRAP, value);
+
+        value = properties.getProperty(PARALLEL_BOOTSTRAP_THREADS);
+        setPropertyFromSystemProperty(PARALLEL_BOOTSTRAP_THREADS, value);
+
+        value = properties.getProperty(DEPLOYMENT_SNAPSHOT_DIRECTORY);
+        setPropertyFromSystemProperty(DEPLOYMENT_SNAPSHOT_DIRECTORY, value);
+
+        value = properties.getProperty(ASYNC_EVENT_DELIVERY);
+        setPropertyFromSystemProperty(ASYNC_EVENT_DELIVERY, value);
+
+        value = properties.getProperty(ASYNC_EVENT_THREADS);
+        setPropertyFromSystemProperty(ASYNC_EVENT_THREADS, value);
+
+        value = properties.getProperty(INJECTION_TARGET_CACHE_SIZE);
+        setPropertyFromSystemProperty(INJECTION_TARGET_CACHE_SIZE, value);
+
+        value = properties.getProperty(GENERATED_METHOD_INVOKERS);
+        setPropertyFromSystemProperty(GENERATED_METHOD_INVOKERS, value);
         
         value = properties.getProperty(EL_ADAPTOR_CLASS);
         setPropertyFromSystemProperty(EL_ADAPTOR_CLASS, value);
@@ -310,6 +361,124 @@ public class OpenWebBeansConfiguration
         return Boolean.valueOf(value);
     }
 
+    /**
+     * Gets the parallel bootstrap property.
+     * @return true if the deployment should use multiple threads
+     * @see ParallelBootstrap
+     */
+    public boolean isParallelBootstrap()
+    {
+        String value = getProperty(PARALLEL_BOOTSTRAP);
+
+        return Boolean.valueOf(value);
+    }
+
+    /**
+     * @return the number of threads for the parallel bootstrap
+     */
+    public int getParallelBootstrapThreads()
+    {
+        String value = getProperty(PARALLEL_BOOTSTRAP_THREADS);
+        if (value == null || value.trim().length() == 0)
+        {
+            return Runtime.getRuntime().availableProcessors();
+        }
+
+        return Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Gets the lazy request context property.
+     * @return true if the RequestContext should only be created when it gets used
+     */
+    public boolean isLazyRequestContext()
+    {
+        String value = getProperty(LAZY_REQUEST_CONTEXT);
+
+        return Boolean.valueOf(value);
+    }
+
+    /**
+     * @return the directory of the deployment snapshot or <code>null</code> if it is disabled
+     * @see DeploymentSnapshot
+     */
+    public String getDeploymentSnapshotDirectory()
+    {
+        String value = getProperty(DEPLOYMENT_SNAPSHOT_DIRECTORY);
+        if (value == null || value.trim().length() == 0)
+        {
+            return null;
+        }
+
+        return value.trim();
+    }
+
+    /**
+     * @return the names of the Extension classes which are declared to be safe for the deployment snapshot
+     */
+    public Set<String> getDeploymentSnapshotSafeExtensions()
+    {
+        String value = getProperty(DEPLOYMENT_SNAPSHOT_SAFE_EXTENSIONS);
+        if (value == null || value.trim().length() == 0)
+        {
+            return Collections.emptySet();
+        }
+
+        return new HashSet<String>(Arrays.asList(value.trim().split("[,\\p{javaWhitespace}]+")));
+    }
+
+    /**
+     * Gets the asynchronous event delivery property.
+     * @return true if events fired via fireEventAsync should get delivered on a separate thread
+     * @see org.apache.webbeans.event.NotificationManager#fireEventAsync(Object, org.apache.webbeans.event.EventMetadataImpl)
+     */
+    public boolean isAsyncEventDelivery()
+    {
+        String value = getProperty(ASYNC_EVENT_DELIVERY);
+
+        return Boolean.valueOf(value);
+    }
+
+    /**
+     * @return the number of threads for the asynchronous event delivery
+     */
+    public int getAsyncEventThreads()
+    {
+        String value = getProperty(ASYNC_EVENT_THREADS);
+        if (value == null || value.trim().length() == 0)
+        {
+            return Runtime.getRuntime().availableProcessors();
+        }
+
+        return Integer.parseInt(value.trim());
+    }
+
+    /**
+     * @return the maximum number of cached InjectionTargets for non-contextual instances, 0 if the cache is disabled
+     * @see org.apache.webbeans.inject.InjectionTargetCache
+     */
+    public int getInjectionTargetCacheSize()
+    {
+        String value = getProperty(INJECTION_TARGET_CACHE_SIZE);
+        if (value == null || value.trim().length() == 0)
+        {
+            return DEFAULT_INJECTION_TARGET_CACHE_SIZE;
+        }
+
+        return Integer.parseInt(value.trim());
+    }
+
+    /**
+     * @return false if intercepted methods and AroundInvoke methods should get called via reflection
+     * @see org.apache.webbeans.proxy.MethodInvokerFactory
+     */
+    public boolean isGeneratedMethodInvokers()
+    {
+        String value = getProperty(GENERATED_METHOD_INVOKERS);
+
+        return value == null || Boolean.valueOf(value.trim());
+    }
+
     public synchronized Set<String> getIgnoredInterfaces()
     {
         if (ignoredInterfaces == null)
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.webbeans.exception.WebBeansException;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * Executes independent bootstrap tasks like class loading and
+ * AnnotatedType creation in parallel if
+ * {@link OpenWebBeansConfiguration#PARALLEL_BOOTSTRAP} is enabled.
+ *
+ * The worker threads use the context ClassLoader of the deploying thread,
+ * so {@link WebBeansContext#getInstance()} and class loading behave
+ * the same as on the deploying thread.
+ */
+public final class ParallelBootstrap
+{
+    private ParallelBootstrap()
+    {
+        // utility class
+    }
+
+    /**
+     * Executes all given tasks and returns their results in the order of the tasks.
+     * If parallel bootstrap is disabled the tasks simply get executed on the current thread.
+     *
+     * @param webBeansContext the WebBeansContext which gets deployed
+     * @param tasks the tasks to execute
+     * @return the results in the order of the given tasks
+     */
+    public static <T> List<T> invokeAll(WebBeansContext webBeansContext, List<? extends Callable<T>> tasks)
+    {
+        OpenWebBeansConfiguration configuration = webBeansContext.getOpenWebBeansConfiguration();
+        int threads = configuration.getParallelBootstrapThreads();
+        if (!configuration.isParallelBootstrap() || threads <= 1 || tasks.size() <= 1)
+        {
+            return invokeSequential(tasks);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()),
+                new BootstrapThreadFactory(WebBeansUtil.getCurrentClassLoader()));
+        try
+        {
+            List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+            for (Callable<T> task : tasks)
+            {
+                futures.add(executor.submit(task));
+            }
+
+            List<T> results = new ArrayList<T>(tasks.size());
+            for (Future<T> future : futures)
+            {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebBeansException("Interrupted during parallel bootstrap", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new WebBeansException(cause);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> List<T> invokeSequential(List<? extends Callable<T>> tasks)
+    {
+        List<T> results = new ArrayList<T>(tasks.size());
+        for (Callable<T> task : tasks)
+        {
+            try
+            {
+                results.add(task.call());
+            }
+            catch (RuntimeException e)
+            {
+                throw e;
+            }
+            catch (Exception e)
+            {
+                throw new WebBeansException(e);
+            }
+        }
+        return results;
+    }
+
+    private static final class BootstrapThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+        private final ClassLoader classLoader;
+
+        private BootstrapThreadFactory(ClassLoader classLoader)
+        {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, "OWB-bootstrap-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Properties;
 import org.apache.webbeans.annotation.AnnotationManager;
 import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.container.SerializableBeanVault;
+import org.apache.webbeans.corespi.metrics.NoopMetricsService;
 import org.apache.webbeans.context.ContextFactory;
 import org.apache.webbeans.context.creational.CreationalContextFactory;
 import org.apache.webbeans.conversation.ConversationManager;
@@ -35,6 +36,7 @@ import org.apache.webbeans.decorator.DecoratorsManager;
 import org.apache.webbeans.deployment.StereoTypeManager;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.inject.AlternativesManager;
+import org.apache.webbeans.inject.InjectionTargetCache;
 import org.apache.webbeans.inject.impl.InjectionPointFactory;
 import org.apache.webbeans.intercept.InterceptorResolutionService;
 import org.apache.webbeans.intercept.InterceptorUtil;
@@ -44,12 +46,14 @@ import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.portable.events.ExtensionLoader;
 import org.apache.webbeans.proxy.SubclassProxyFactory;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
 import org.apache.webbeans.proxy.NormalScopeProxyFactory;
 import org.apache.webbeans.service.DefaultLoaderService;
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.ApplicationBoundaryService;
 import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.LoaderService;
+import org.apache.webbeans.spi.MetricsService;
 import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.spi.SecurityService;
 import org.apache.webbeans.spi.plugins.OpenWebBeansPlugin;
@@ -81,6 +85,8 @@ public class WebBeansContext
     private final InterceptorDecoratorProxyFactory interceptorDecoratorProxyFactory = new InterceptorDecoratorProxyFactory(this);
     private final NormalScopeProxyFactory normalScopeProxyFactory = new NormalScopeProxyFactory(this);
     private final SubclassProxyFactory subclassProxyFactory = new SubclassProxyFactory(this);
+    private final MethodInvokerFactory methodInvokerFactory = new MethodInvokerFactory(this);
+    private final InjectionTargetCache injectionTargetCache = new InjectionTargetCache(this);
     private final OpenWebBeansConfiguration openWebBeansConfiguration;
     private final PluginLoader pluginLoader = new PluginLoader();
     private final SerializableBeanVault serializableBeanVault = new SerializableBeanVault();
@@ -95,6 +101,7 @@ public class WebBeansContext
     private final DeploymentValidationService deploymentValidationService = new DeploymentValidationService(this);
     private ScannerService scannerService;
     private ContextsService contextsService;
+    private MetricsService metricsService;
     private final ApplicationBoundaryService applicationBoundaryService;
 
 
@@ -158,6 +165,7 @@ public class WebBeansContext
         managerMap.put(InterceptorDecoratorProxyFactory.class, interceptorDecoratorProxyFactory);
         managerMap.put(NormalScopeProxyFactory.class, normalScopeProxyFactory);
         managerMap.put(SubclassProxyFactory.class, subclassProxyFactory);
+        managerMap.put(MethodInvokerFactory.class, methodInvokerFactory);
         managerMap.put(OpenWebBeansConfiguration.class, openWebBeansConfiguration);
         managerMap.put(PluginLoader.class, pluginLoader);
         managerMap.put(SerializableBeanVault.class, serializableBeanVault);
@@ -335,6 +343,16 @@ public class WebBeansContext
         return subclassProxyFactory;
     }
 
+    public MethodInvokerFactory getMethodInvokerFactory()
+    {
+        return methodInvokerFactory;
+    }
+
+    public InjectionTargetCache getInjectionTargetCache()
+    {
+        return injectionTargetCache;
+    }
+
     public ScannerService getScannerService()
     {
         if (scannerService == null)
@@ -354,6 +372,19 @@ public class WebBeansContext
         return contextsService;
     }
 
+    /**
+     * @return the configured {@link MetricsService}, never <code>null</code>
+     */
+    public MetricsService getMetricsService()
+    {
+        if (metricsService == null)
+        {
+            MetricsService service = getService(MetricsService.class);
+            metricsService = service != null ? service : new NoopMetricsService();
+        }
+        return metricsService;
+    }
+
     public SecurityService getSecurityService()
     {
         return securityService;
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -46,6 +47,7 @@ import javax.enterprise.inject.InjectionException;
 import javax.enterprise.inject.Stereotype;
 import javax.enterprise.inject.Vetoed;
 import javax.enterprise.inject.spi.*;
+import javax.inject.Provider;
 import javax.inject.Scope;
 import javax.interceptor.InterceptorBinding;
 import javax.naming.NamingException;
@@ -73,6 +75,7 @@ import org.apache.webbeans.component.creation.MethodProducerFactory;
 import org.apache.webbeans.component.third.PassivationCapableThirdpartyBeanImpl;
 import org.apache.webbeans.component.third.ThirdpartyBeanImpl;
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.AbstractContextsService;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.decorator.DecoratorComparator;
 import org.apache.webbeans.event.EventMetadataImpl;
@@ -86,6 +89,7 @@ import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.portable.InjectionTargetImpl;
 import org.apache.webbeans.portable.LazyInterceptorDefinedInjectionTarget;
 import org.apache.webbeans.portable.events.discovery.ErrorStack;
+import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.adaptor.ELAdaptor;
 import org.apache.webbeans.spi.plugins.OpenWebBeansEjbPlugin;
 import org.apache.webbeans.util.AnnotationUtil;
@@ -179,6 +183,13 @@ public class BeanManagerImpl implements BeanManager, Referenceable
      */
     private ConcurrentMap<String, Bean<?>> passivationBeans = new ConcurrentHashMap<String, Bean<?>>();
 
+    /**
+     * Next free bean slot per scope type.
+     * @see AbstractOwbBean#getBeanSlot()
+     */
+    private ConcurrentMap<Class<? extends Annotation>, AtomicInteger> beanSlotCounters =
+        new ConcurrentHashMap<Class<? extends Annotation>, AtomicInteger>();
+
     /**InjectionTargets for Java EE component instances that supports injections*/
     private Map<Class<?>, Producer<?>> producersForJavaEeComponents =
         new ConcurrentHashMap<Class<?>, Producer<?>>();
@@ -273,6 +284,26 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         return injectionResolver;
     }
 
+    /**
+     * Returns a {@link Provider} for the current context of the given scope type
+     * if the configured {@link org.apache.webbeans.spi.ContextsService} offers one.
+     * The provided context might be <code>null</code> or inactive, callers then
+     * have to fall back to {@link #getContext(Class)}.
+     *
+     * @param scopeType the scope type
+     * @return the context provider or <code>null</code>
+     * @see AbstractContextsService#getContextProvider(Class)
+     */
+    public Provider<Context> getContextProvider(Class<? extends Annotation> scopeType)
+    {
+        ContextsService contextsService = webBeansContext.getContextsService();
+        if (contextsService instanceof AbstractContextsService)
+        {
+            return ((AbstractContextsService) contextsService).getContextProvider(scopeType);
+        }
+        return null;
+    }
+
     /**
      * Gets the active context for the given scope type.
      *
@@ -360,6 +391,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         if(newBean instanceof AbstractOwbBean)
         {
             addPassivationInfo(newBean);
+            assignBeanSlot((AbstractOwbBean<T>) newBean);
             deploymentBeans.add(newBean);
         }
         else
@@ -374,12 +406,47 @@ public class BeanManagerImpl implements BeanManager, Referenceable
                 bean = new PassivationCapableThirdpartyBeanImpl<T>(webBeansContext, newBean);
             }
             addPassivationInfo(bean);
+            assignBeanSlot(bean);
             deploymentBeans.add(bean);
         }
 
+        injectionResolver.clearCaches();
+
         return this;
     }
 
+    private void assignBeanSlot(AbstractOwbBean<?> bean)
+    {
+        if (bean.getBeanSlot() >= 0)
+        {
+            return;
+        }
+
+        Class<? extends Annotation> scopeType = bean.getScope();
+        AtomicInteger counter = beanSlotCounters.get(scopeType);
+        if (counter == null)
+        {
+            AtomicInteger newCounter = new AtomicInteger();
+            counter = beanSlotCounters.putIfAbsent(scopeType, newCounter);
+            if (counter == null)
+            {
+                counter = newCounter;
+            }
+        }
+        bean.setBeanSlot(counter.getAndIncrement());
+    }
+
+    /**
+     * @param scopeType the scope type
+     * @return the number of bean slots assigned to beans of the given scope so far
+     * @see AbstractOwbBean#getBeanSlot()
+     */
+    public int getBeanSlotCount(Class<? extends Annotation> scopeType)
+    {
+        AtomicInteger counter = beanSlotCounters.get(scopeType);
+        return counter != null ? counter.get() : 0;
+    }
+
 
     /**
      * Check if the bean is has a passivation id and add it to the id store.
@@ -438,6 +505,26 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         fireEvent(event, new EventMetadataImpl(null, type, null, bindings, webBeansContext), containerEvent);
     }
 
+    /**
+     * Fires all the given events, which must be of the same class, with the given qualifiers.
+     * The observers get resolved only once for the whole batch.
+     *
+     * @see NotificationManager#fireEvents(Collection, EventMetadataImpl)
+     */
+    public void fireEvents(Collection<?> events, Annotation... bindings)
+    {
+        if (events.isEmpty())
+        {
+            return;
+        }
+        Type type = events.iterator().next().getClass();
+        if (GenericsUtil.hasTypeParameters(type))
+        {
+            type = GenericsUtil.getParameterizedType(type);
+        }
+        notificationManager.fireEvents(events, new EventMetadataImpl(null, type, null, bindings, webBeansContext));
+    }
+
     /**
      * Like {@link #fireEvent(Object, java.lang.annotation.Annotation...)} but intended for
      * internal CDI Container lifecycle events. The difference is that those
@@ -1358,6 +1445,8 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         singleContextMap.clear();
         contextMap.clear();
         deploymentBeans.clear();
+        beanSlotCounters.clear();
+        injectionResolver.clearCaches();
         errorStack.clear();
         producersForJavaEeComponents.clear();
         passivationBeans.clear();
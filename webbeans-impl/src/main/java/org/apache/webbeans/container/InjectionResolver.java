@@ -53,7 +53,10 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -99,6 +102,32 @@ public class InjectionResolver
      */
     private Map<String, Set<Bean<?>>> resolvedBeansByName = new ConcurrentHashMap<String, Set<Bean<?>>>();
 
+    /**
+     * Index of all enabled beans by the raw class of their bean types.
+     * It gets lazily built once the {@link javax.enterprise.inject.spi.AfterBeanDiscovery}
+     * event got fired and is dropped whenever the set of deployed beans changes.
+     * @see #getBeanTypeIndex()
+     */
+    private volatile BeanTypeIndex beanTypeIndex;
+
+    /**
+     * Guards replacing the {@link #resolutionGeneration} together with dropping
+     * the {@link #beanTypeIndex} and the resolution caches and installing new entries.
+     */
+    private final Object resolutionLock = new Object();
+
+    /**
+     * Token for the current set of deployed beans. Beans which got remembered
+     * on an injection point are only valid as long as this token did not change.
+     * @see #getInjectionPointBean(InjectionPoint)
+     */
+    private volatile Object resolutionGeneration = new Object();
+
+    /**
+     * Canonical qualifiers of all beans and injection points, see {@link #internQualifiers(Collection)}.
+     */
+    private final QualifierInterner qualifierInterner = new QualifierInterner();
+
     /**
      * Creates a new injection resolve for given bean manager.
      *
@@ -115,8 +144,56 @@ public class InjectionResolver
      */
     public void clearCaches()
     {
-        resolvedBeansByName.clear();
-        resolvedBeansByType.clear();
+        synchronized (resolutionLock)
+        {
+            resolvedBeansByName.clear();
+            resolvedBeansByType.clear();
+            beanTypeIndex = null;
+            resolutionGeneration = new Object();
+        }
+    }
+
+    /**
+     * Intern the qualifiers of the given beans and their injection points.
+     * This allows to create the cache keys for those qualifier instances without
+     * reflectively evaluating the annotation members again.
+     * It is invoked once the set of beans is known, before the deployment gets validated.
+     *
+     * @param beans the deployed beans
+     */
+    public void internQualifiers(Collection<? extends Bean<?>> beans)
+    {
+        List<Annotation> qualifiers = new ArrayList<Annotation>();
+        for (Bean<?> bean : beans)
+        {
+            // 3rd party beans might return null
+            if (bean.getQualifiers() != null)
+            {
+                qualifiers.addAll(bean.getQualifiers());
+            }
+            if (bean.getInjectionPoints() != null)
+            {
+                for (InjectionPoint injectionPoint : bean.getInjectionPoints())
+                {
+                    qualifiers.addAll(injectionPoint.getQualifiers());
+                }
+            }
+        }
+        qualifierInterner.intern(qualifiers);
+    }
+
+    /**
+     * Drop the bean type index, e.g. once the enabled beans changed. If beans got added to
+     * or removed from the {@link BeanManagerImpl} the resolution caches must get dropped
+     * as well via {@link #clearCaches()}.
+     */
+    public void clearBeanTypeIndex()
+    {
+        synchronized (resolutionLock)
+        {
+            beanTypeIndex = null;
+            resolutionGeneration = new Object();
+        }
     }
 
     /**
@@ -232,6 +309,32 @@ public class InjectionResolver
      * @return bean for injection point
      */
     public Bean<?> getInjectionPointBean(InjectionPoint injectionPoint)
+    {
+        if (injectionPoint instanceof ResolvedBeanHolder)
+        {
+            ResolvedBeanHolder holder = (ResolvedBeanHolder) injectionPoint;
+            Object generation = resolutionGeneration;
+            ResolvedBean resolvedBean = holder.getResolvedBean();
+            if (resolvedBean != null && resolvedBean.generation == generation)
+            {
+                webBeansContext.getMetricsService().resolutionCacheHit();
+                return resolvedBean.bean;
+            }
+
+            Bean<?> bean = resolveInjectionPointBean(injectionPoint);
+
+            // the set of beans is only stable once the deployment got validated
+            if (webBeansContext.getBeanManagerImpl().isAfterDeploymentValidationFired())
+            {
+                holder.setResolvedBean(new ResolvedBean(generation, bean));
+            }
+            return bean;
+        }
+
+        return resolveInjectionPointBean(injectionPoint);
+    }
+
+    private Bean<?> resolveInjectionPointBean(InjectionPoint injectionPoint)
     {
 
         Type type = injectionPoint.getType();
@@ -271,6 +374,35 @@ public class InjectionResolver
         return resolve(beanSet, injectionPoint);
     }
 
+    /**
+     * Implemented by injection points which are able to remember the bean they
+     * got resolved to. This allows to skip the resolution completely when
+     * the same injection point gets injected again, e.g. for each new
+     * instance of a &#064;Dependent bean.
+     */
+    public interface ResolvedBeanHolder
+    {
+        ResolvedBean getResolvedBean();
+
+        void setResolvedBean(ResolvedBean resolvedBean);
+    }
+
+    /**
+     * A bean resolved for an injection point together with the
+     * resolution generation it is valid for.
+     */
+    public static final class ResolvedBean
+    {
+        private final Object generation;
+        private final Bean<?> bean;
+
+        private ResolvedBean(Object generation, Bean<?> bean)
+        {
+            this.generation = generation;
+            this.bean = bean;
+        }
+    }
+
     private void createNewBean(InjectionPoint injectionPoint, Type type, Annotation[] qualifiers, Set<Bean<?>> beanSet)
     {
         New newQualifier = (New) qualifiers[0];
@@ -342,9 +474,12 @@ public class InjectionResolver
         Set<Bean<?>> resolvedComponents = resolvedBeansByName.get(cacheKey);
         if (resolvedComponents != null)
         {
+            webBeansContext.getMetricsService().resolutionCacheHit();
             return resolvedComponents;
         }
+        webBeansContext.getMetricsService().resolutionCacheMiss();
 
+        Object generation = resolutionGeneration;
         resolvedComponents = new HashSet<Bean<?>>();
         Set<Bean<?>> deployedComponents = webBeansContext.getBeanManagerImpl().getBeans();
 
@@ -365,11 +500,11 @@ public class InjectionResolver
         if (resolvedComponents.isEmpty())
         {
             // maintain negative cache but use standard empty set so we can garbage collect
-            resolvedBeansByName.put(cacheKey, Collections.EMPTY_SET);
+            cacheResolution(resolvedBeansByName, cacheKey, Collections.EMPTY_SET, generation);
         }
         else
         {
-            resolvedBeansByName.put(cacheKey, resolvedComponents);
+            cacheResolution(resolvedBeansByName, cacheKey, resolvedComponents, generation);
         }
         if (logger.isLoggable(Level.FINE))
         {
@@ -440,14 +575,17 @@ public class InjectionResolver
 
         validateInjectionPointType(injectionPointType);
 
-        BeanCacheKey cacheKey = new BeanCacheKey(isDelegate, injectionPointType, bdaBeansXMLFilePath, qualifiers);
+        BeanCacheKey cacheKey = new BeanCacheKey(isDelegate, injectionPointType, bdaBeansXMLFilePath, qualifierInterner, qualifiers);
 
         Set<Bean<?>> resolvedComponents = resolvedBeansByType.get(cacheKey);
         if (resolvedComponents != null)
         {
+            webBeansContext.getMetricsService().resolutionCacheHit();
             return resolvedComponents;
         }
+        webBeansContext.getMetricsService().resolutionCacheMiss();
 
+        Object generation = resolutionGeneration;
         resolvedComponents = new HashSet<Bean<?>>();
 
         boolean returnAll = false;
@@ -457,7 +595,18 @@ public class InjectionResolver
             returnAll = true;
         }
 
-        for (Bean<?> component : webBeansContext.getBeanManagerImpl().getBeans())
+        Iterable<Bean<?>> candidates;
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        if (!returnAll && beanManager.isAfterBeanDiscoveryFired())
+        {
+            candidates = getBeanTypeIndex().getCandidates(injectionPointType);
+        }
+        else
+        {
+            candidates = beanManager.getBeans();
+        }
+
+        for (Bean<?> component : candidates)
         {
             // no need to check instanceof OwbBean as we always wrap in a
             // ThirdpartyBeanImpl at least
@@ -488,7 +637,7 @@ public class InjectionResolver
         // Look for qualifiers
         resolvedComponents = findByQualifier(resolvedComponents, injectionPointType, qualifiers);
 
-        resolvedBeansByType.put(cacheKey, resolvedComponents);
+        cacheResolution(resolvedBeansByType, cacheKey, resolvedComponents, generation);
         if (logger.isLoggable(Level.FINE))
         {
             logger.log(Level.FINE, "DEBUG_ADD_BYTYPE_CACHE_BEANS", cacheKey);
@@ -498,6 +647,46 @@ public class InjectionResolver
     }
 
 
+    /**
+     * Caches the result of a resolution unless the deployed beans changed since it got started.
+     * Such a result might miss a new bean and the cache already got cleared.
+     */
+    private <K> void cacheResolution(Map<K, Set<Bean<?>>> cache, K cacheKey, Set<Bean<?>> resolvedComponents, Object generation)
+    {
+        synchronized (resolutionLock)
+        {
+            if (generation == resolutionGeneration)
+            {
+                cache.put(cacheKey, resolvedComponents);
+            }
+        }
+    }
+
+    /**
+     * @return the index of all deployed beans by their raw bean types, creating it if needed
+     */
+    private BeanTypeIndex getBeanTypeIndex()
+    {
+        BeanTypeIndex index = beanTypeIndex;
+        while (index == null)
+        {
+            // the generation must get read before the beans, see BeanManagerImpl#addInternalBean
+            Object generation = resolutionGeneration;
+            BeanTypeIndex newIndex = new BeanTypeIndex(webBeansContext.getBeanManagerImpl().getBeans());
+
+            synchronized (resolutionLock)
+            {
+                // an index built from the beans before the last clear is stale and must not get used
+                if (generation == resolutionGeneration)
+                {
+                    beanTypeIndex = newIndex;
+                    index = newIndex;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * Verify that we have a legal Type at the injection point.
      * CDI can basically only handle Class and ParameterizedType injection points atm.
@@ -687,4 +876,102 @@ public class InjectionResolver
 
         return result;
     }
+
+    /**
+     * Maps the raw class of each bean type to the beans having this type.
+     * Bean types which have no distinct raw class (TypeVariables, WildcardTypes
+     * and GenericArrayTypes) cannot get indexed. Beans having such types
+     * are candidates for every lookup. The other way round all beans are
+     * candidates for such an injection point type, e.g. a generic array is
+     * assignable from a raw array bean type.
+     * The index only gets used to narrow down the beans which need to get checked via
+     * {@link GenericsUtil#satisfiesDependency(boolean, boolean, Type, Type)}.
+     */
+    private static final class BeanTypeIndex
+    {
+        private final Map<Class<?>, List<Bean<?>>> beansByRawType = new HashMap<Class<?>, List<Bean<?>>>();
+        private final List<Bean<?>> beansWithGenericTypes = new ArrayList<Bean<?>>();
+        private final Set<Bean<?>> allBeans;
+
+        private BeanTypeIndex(Set<Bean<?>> beans)
+        {
+            allBeans = beans;
+            for (Bean<?> bean : beans)
+            {
+                boolean genericType = false;
+                for (Type beanType : bean.getTypes())
+                {
+                    Class<?> rawType = getIndexKey(beanType);
+                    if (rawType == null)
+                    {
+                        genericType = true;
+                        continue;
+                    }
+
+                    List<Bean<?>> beansOfType = beansByRawType.get(rawType);
+                    if (beansOfType == null)
+                    {
+                        beansOfType = new ArrayList<Bean<?>>();
+                        beansByRawType.put(rawType, beansOfType);
+                    }
+                    if (beansOfType.isEmpty() || beansOfType.get(beansOfType.size() - 1) != bean)
+                    {
+                        beansOfType.add(bean);
+                    }
+                }
+
+                if (genericType)
+                {
+                    beansWithGenericTypes.add(bean);
+                }
+            }
+        }
+
+        private Iterable<Bean<?>> getCandidates(Type injectionPointType)
+        {
+            Class<?> indexKey = getIndexKey(injectionPointType);
+            if (indexKey == null)
+            {
+                return allBeans;
+            }
+
+            List<Bean<?>> beansOfType = beansByRawType.get(indexKey);
+            if (beansWithGenericTypes.isEmpty())
+            {
+                return beansOfType != null ? beansOfType : Collections.<Bean<?>>emptyList();
+            }
+            if (beansOfType == null)
+            {
+                return beansWithGenericTypes;
+            }
+
+            List<Bean<?>> candidates = new ArrayList<Bean<?>>(beansOfType.size() + beansWithGenericTypes.size());
+            candidates.addAll(beansOfType);
+            candidates.addAll(beansWithGenericTypes);
+            return candidates;
+        }
+
+        /**
+         * @return the raw class of the given type with primitives replaced by their wrappers
+         *         or <code>null</code> if the type has no distinct raw class
+         */
+        private static Class<?> getIndexKey(Type type)
+        {
+            if (type instanceof ParameterizedType)
+            {
+                type = ((ParameterizedType) type).getRawType();
+            }
+            if (!(type instanceof Class))
+            {
+                return null;
+            }
+
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isPrimitive())
+            {
+                return ClassUtil.getPrimitiveWrapper(clazz);
+            }
+            return clazz;
+        }
+    }
 }
@@ -0,0 +1,487 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.annotation.DefaultLiteral;
+import org.apache.webbeans.util.AnnotationUtil;
+
+import javax.enterprise.util.Nonbinding;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Interns the qualifier annotations which are known at deployment time.
+ *
+ * <p>Each distinct qualifier value gets a canonical {@link InternedQualifier} with an id
+ * and a precomputed hashCode which ignores {@link Nonbinding} members.
+ * The annotation instances itself are indexed by identity, so a {@link BeanCacheKey}
+ * for a known annotation instance gets created without any reflective member access.
+ * Unknown annotation instances, e.g. literals created for a programmatic lookup,
+ * get resolved to the canonical qualifier with the same value. This only needs
+ * reflection if the qualifier type has binding members.</p>
+ */
+final class QualifierInterner
+{
+    private static final Comparator<Annotation> ANNOTATION_COMPARATOR = new AnnotationComparator();
+
+    /**
+     * canonical qualifier for each distinct qualifier value.
+     * This map is never modified once published, so it can get read without any lock.
+     */
+    private volatile Map<InternedQualifier, InternedQualifier> canonicalQualifiers;
+
+    /**
+     * all interned annotation instances by identity.
+     * This map is never modified once published, so it can get read without any lock.
+     */
+    private volatile Map<Annotation, InternedQualifier> knownQualifiers;
+
+    /**
+     * canonical qualifier of each qualifier type without binding members,
+     * as all instances of such a type have the same value.
+     * This map is never modified once published, so it can get read without any lock.
+     */
+    private volatile Map<Class<? extends Annotation>, InternedQualifier> memberlessQualifiers;
+
+    QualifierInterner()
+    {
+        clear();
+    }
+
+    /**
+     * Get the interned qualifier for the given annotation instance or the canonical one with the same value.
+     * A temporary one only gets created if no qualifier with this value is known.
+     */
+    InternedQualifier get(Annotation annotation)
+    {
+        InternedQualifier qualifier = knownQualifiers.get(annotation);
+        if (qualifier != null)
+        {
+            return qualifier;
+        }
+
+        qualifier = memberlessQualifiers.get(annotation.annotationType());
+        if (qualifier != null)
+        {
+            return qualifier;
+        }
+
+        InternedQualifier temporary = new InternedQualifier(annotation, null, -1);
+        qualifier = canonicalQualifiers.get(temporary);
+        return qualifier != null ? qualifier : temporary;
+    }
+
+    /**
+     * Intern all the given qualifier annotations.
+     * The known qualifiers get published only once per invocation.
+     */
+    synchronized void intern(Collection<Annotation> annotations)
+    {
+        Map<Annotation, InternedQualifier> qualifiers = new IdentityHashMap<Annotation, InternedQualifier>(knownQualifiers);
+        Map<InternedQualifier, InternedQualifier> canonicals = null;
+        Map<Class<? extends Annotation>, InternedQualifier> memberless = null;
+        for (Annotation annotation : annotations)
+        {
+            if (annotation == null || qualifiers.containsKey(annotation))
+            {
+                continue;
+            }
+
+            if (canonicals == null)
+            {
+                canonicals = new HashMap<InternedQualifier, InternedQualifier>(canonicalQualifiers);
+                memberless = new HashMap<Class<? extends Annotation>, InternedQualifier>(memberlessQualifiers);
+            }
+
+            InternedQualifier qualifier = new InternedQualifier(annotation, this, canonicals.size());
+            InternedQualifier canonical = canonicals.get(qualifier);
+            if (canonical == null)
+            {
+                canonicals.put(qualifier, qualifier);
+                canonical = qualifier;
+
+                if (!hasBindingMembers(annotation.annotationType()))
+                {
+                    memberless.put(annotation.annotationType(), canonical);
+                }
+            }
+            qualifiers.put(annotation, canonical);
+        }
+
+        if (canonicals != null)
+        {
+            canonicalQualifiers = canonicals;
+            memberlessQualifiers = memberless;
+            knownQualifiers = qualifiers;
+        }
+    }
+
+    /**
+     * Drop all interned qualifiers except the built-in ones.
+     */
+    synchronized void clear()
+    {
+        canonicalQualifiers = new HashMap<InternedQualifier, InternedQualifier>();
+        knownQualifiers = new IdentityHashMap<Annotation, InternedQualifier>();
+        memberlessQualifiers = new HashMap<Class<? extends Annotation>, InternedQualifier>();
+        intern(Arrays.<Annotation>asList(DefaultLiteral.INSTANCE, AnyLiteral.INSTANCE));
+    }
+
+    /**
+     * A qualifier together with its precomputed hashCode.
+     * Qualifiers interned by the same {@link QualifierInterner} have the same id
+     * if and only if they have the same qualifier value.
+     */
+    static final class InternedQualifier
+    {
+        private final Annotation annotation;
+        private final QualifierInterner interner;
+        private final int id;
+        private final int hashCode;
+
+        private InternedQualifier(Annotation annotation, QualifierInterner interner, int id)
+        {
+            this.annotation = annotation;
+            this.interner = interner;
+            this.id = id;
+            hashCode = getQualifierHashCode(annotation);
+        }
+
+        /**
+         * Two qualifiers of the same interner are only equal if they are the very same canonical qualifier.
+         * All others need to get compared via their members.
+         */
+        boolean matches(InternedQualifier other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (other == null || interner != null && interner == other.interner || hashCode != other.hashCode)
+            {
+                return false;
+            }
+            return ANNOTATION_COMPARATOR.compare(annotation, other.annotation) == 0;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof InternedQualifier))
+            {
+                return false;
+            }
+            InternedQualifier other = (InternedQualifier) o;
+            return hashCode == other.hashCode && ANNOTATION_COMPARATOR.compare(annotation, other.annotation) == 0;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public String toString()
+        {
+            return annotation + (interner != null ? "#" + id : "");
+        }
+    }
+
+    /**
+     * We need this method as some weird JVMs return 0 as hashCode for classes.
+     * In that case we return the hashCode of the String.
+     */
+    static int getTypeHashCode(Type type)
+    {
+        int typeHash = type.hashCode();
+        if (typeHash == 0 && type instanceof Class)
+        {
+            return ((Class)type).getName().hashCode();
+            // the type.toString() is always the same: "java.lang.Class@<hexid>"
+            // was: return type.toString().hashCode();
+        }
+
+        return typeHash;
+    }
+
+    /**
+     * Calculate the hashCode() of a qualifier, which ignores {@link Nonbinding} members.
+     */
+    private static int getQualifierHashCode(Annotation a)
+    {
+        Class annotationClass = getAnnotationClass(a.getClass());
+
+        if (annotationClass == null)
+        {
+            return getTypeHashCode(a.getClass());
+        }
+
+        // the hashCode of an Annotation is calculated solely via the hashCodes
+        // of it's members. If there are no members, it is 0.
+        // thus we first need to get the annotation-class hashCode
+        int hashCode = getTypeHashCode(annotationClass);
+
+        // and now add the hashCode of all it's Nonbinding members
+        // the following algorithm is defined by the Annotation class definition
+        // see the JavaDoc for Annotation!
+        // we only change it so far that we skip evaluating @Nonbinding members
+        final Method[] members = annotationClass.getDeclaredMethods();
+
+        for (Method member : members)
+        {
+            if (member.isAnnotationPresent(Nonbinding.class))
+            {
+                // ignore the non binding
+                continue;
+            }
+
+            // Member value
+            final Object object = callMethod(a, member);
+            final int value;
+            if(object.getClass().isArray())
+            {
+                Class<?> type = object.getClass().getComponentType();
+                if(type.isPrimitive())
+                {
+                    if(Long.TYPE == type)
+                    {
+                        value = Arrays.hashCode((long[]) object);
+                    }
+                    else if(Integer.TYPE == type)
+                    {
+                        value = Arrays.hashCode((int[])object);
+                    }
+                    else if(Short.TYPE == type)
+                    {
+                        value = Arrays.hashCode((short[])object);
+                    }
+                    else if(Double.TYPE == type)
+                    {
+                        value = Arrays.hashCode((double[])object);
+                    }
+                    else if(Float.TYPE == type)
+                    {
+                        value = Arrays.hashCode((float[])object);
+                    }
+                    else if(Boolean.TYPE == type)
+                    {
+                        value = Arrays.hashCode((boolean[])object);
+                    }
+                    else if(Byte.TYPE == type)
+                    {
+                        value = Arrays.hashCode((byte[])object);
+                    }
+                    else if(Character.TYPE == type)
+                    {
+                        value = Arrays.hashCode((char[])object);
+                    }
+                    else
+                    {
+                        value = 0;
+                    }
+                }
+                else
+                {
+                    value = Arrays.hashCode((Object[])object);
+                }
+            }
+            else
+            {
+                value = object.hashCode();
+            }
+
+            hashCode = 29 * hashCode + value;
+            hashCode = 29 * hashCode + member.getName().hashCode();
+        }
+
+        return hashCode;
+    }
+
+    private static boolean hasBindingMembers(Class<? extends Annotation> annotationType)
+    {
+        for (Method member : annotationType.getDeclaredMethods())
+        {
+            if (!member.isAnnotationPresent(Nonbinding.class))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class getAnnotationClass(Class a)
+    {
+        for (Class i : a.getInterfaces())
+        {
+            if (i.isAnnotation())
+            {
+                return i;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Helper method for calculating the hashCode of an annotation.
+     */
+    private static Object callMethod(Object instance, Method method)
+    {
+        try
+        {
+            if (!method.isAccessible())
+            {
+                method.setAccessible(true);
+            }
+
+            return method.invoke(instance, AnnotationUtil.EMPTY_OBJECT_ARRAY);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException("Exception in method call : " + method.getName(), e);
+        }
+
+    }
+
+    /**
+     * to compare qualifiers while ignoring {@link Nonbinding} members.
+     */
+    private static class AnnotationComparator implements Comparator<Annotation>
+    {
+
+        // Notice: Sorting is a bit costly, but the use of this code is very rar.
+        @Override
+        public int compare(Annotation annotation1, Annotation annotation2)
+        {
+            final Class<? extends Annotation> type1 = annotation1.annotationType();
+            final Class<? extends Annotation> type2 = annotation2.annotationType();
+            final int temp = type1.getName().compareTo(type2.getName());
+            if (temp != 0)
+            {
+                return temp;
+            }
+            final Method[] member1 = type1.getDeclaredMethods();
+            final Method[] member2 = type2.getDeclaredMethods();
+
+            // TBD: the order of the list of members seems to be deterministic
+
+            int i = 0;
+            int j = 0;
+            final int length1 = member1.length;
+            final int length2 = member2.length;
+
+            // find next nonbinding
+            for (;; i++, j++)
+            {
+                while (i < length1 && member1[i].isAnnotationPresent(Nonbinding.class))
+                {
+                    i++;
+                }
+                while (j < length2 && member2[j].isAnnotationPresent(Nonbinding.class))
+                {
+                    j++;
+                }
+                if (i >= length1 && j >= length2)
+                { // both ended
+                    return 0;
+                }
+                else if (i >= length1)
+                { // #1 ended
+                    return 1;
+                }
+                else if (j >= length2)
+                { // #2 ended
+                    return -1;
+                }
+                else
+                { // not ended
+                    int c = member1[i].getName().compareTo(member2[j].getName());
+                    if (c != 0)
+                    {
+                        return c;
+                    }
+                    final Object value1 = callMethod(annotation1, member1[i]);
+                    final Object value2 = callMethod(annotation2, member2[j]);
+                    assert value1.getClass().equals(value2.getClass());
+
+                    if (value1 instanceof Comparable)
+                    {
+                        c = ((Comparable)value1).compareTo(value2);
+                        if (c != 0)
+                        {
+                            return c;
+                        }
+                    }
+                    else if (value1.getClass().isArray())
+                    {
+                        c = value1.getClass().getComponentType().getName()
+                                .compareTo(value2.getClass().getComponentType().getName());
+                        if (c != 0)
+                        {
+                            return c;
+                        }
+
+                        final int length = Array.getLength(value1);
+                        c = length - Array.getLength(value2);
+                        if (c != 0)
+                        {
+                            return c;
+                        }
+                        for (int k = 0; k < length; k++)
+                        {
+                            c = ((Comparable)Array.get(value1, k)).compareTo(Array.get(value2, k));
+                            if (c != 0)
+                            {
+                                return c;
+                            }
+                        }
+
+                    }
+                    else if (value1 instanceof Class)
+                    {
+
+                        c = ((Class)value1).getName().compareTo(((Class) value2).getName());
+                        if (c != 0)
+                        {
+                            return c;
+                        }
+                    }
+                    else
+                    {
+                        // valid types for members are only Comparable, Arrays, or Class
+                        assert false;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -94,6 +94,19 @@ public abstract class AbstractContext implements AlterableContext, Serializable
 
     }
 
+    /**
+     * Creates a new context with given scope type which
+     * uses the given map for storing its contextual instances.
+     *
+     * @param scopeType context scope type
+     * @param componentInstanceMap storage of the contextual instances
+     */
+    protected AbstractContext(Class<? extends Annotation> scopeType, Map<Contextual<?>, BeanInstanceBag<?>> componentInstanceMap)
+    {
+        this.scopeType = scopeType;
+        this.componentInstanceMap = componentInstanceMap;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -107,7 +120,12 @@ public abstract class AbstractContext implements AlterableContext, Serializable
         
         if(bag != null)
         {
-            return (T) bag.getBeanInstance();
+            T instance = (T) bag.getBeanInstance();
+            if (instance != null)
+            {
+                instanceAccessed(bag);
+            }
+            return instance;
         }
         
         return null;
@@ -144,6 +162,7 @@ public abstract class AbstractContext implements AlterableContext, Serializable
         instance = bag.getBeanInstance();
         if (instance != null)
         {
+            instanceAccessed(bag);
             return instance;
         }
 
@@ -157,12 +176,24 @@ public abstract class AbstractContext implements AlterableContext, Serializable
             else
             {                
                 instance = bag.create(contextual);    
+                instanceAccessed(bag);
             }
         }
 
         return  instance;
     }
 
+    /**
+     * Gets called whenever this context hands out an existing or a newly created contextual instance.
+     * Contexts which get replicated use this to track the instances which might have changed.
+     *
+     * @param bag the bag of the contextual instance
+     */
+    protected void instanceAccessed(BeanInstanceBag<?> bag)
+    {
+        // nothing to track by default
+    }
+
     @Override
     public void destroy(Contextual<?> contextual)
     {
@@ -19,14 +19,23 @@
 package org.apache.webbeans.context;
 
 import java.lang.annotation.Annotation;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.enterprise.context.ContextException;
 import javax.enterprise.context.spi.Context;
+import javax.inject.Provider;
 
 import org.apache.webbeans.spi.ContextsService;
 
 public abstract class AbstractContextsService implements ContextsService
 {
+    /**
+     * Per thread instance caches of the scopes this ContextsService opted in for.
+     * @see #enableInstanceCache(Class)
+     */
+    private final ConcurrentMap<Class<? extends Annotation>, ThreadLocalInstanceCache> instanceCaches
+        = new ConcurrentHashMap<Class<? extends Annotation>, ThreadLocalInstanceCache>();
 
     @Override
     public void destroy(Object destroyObject)
@@ -47,6 +56,71 @@ public abstract class AbstractContextsService implements ContextsService
         return null;
     }
 
+    /**
+     * Returns a {@link Provider} which directly hands out the current context
+     * of the given scope type without going through the scope type dispatch
+     * of {@link #getCurrentContext(Class)}.
+     * The returned provider might get cached by the normal scoped proxies, so
+     * it must always return the context which is current at the time
+     * {@link Provider#get()} gets invoked. It may return <code>null</code> or
+     * an inactive context, in which case the caller falls back to
+     * {@link javax.enterprise.inject.spi.BeanManager#getContext(Class)}.
+     *
+     * @param scopeType the scope type
+     * @return the context provider or <code>null</code> if this ContextsService
+     *         offers no fast path for the given scope type
+     */
+    public Provider<Context> getContextProvider(Class<? extends Annotation> scopeType)
+    {
+        return null;
+    }
+
+    /**
+     * Enables the per thread caching of contextual instances for the given scope.
+     * This must only be used for scopes whose contexts are bound to the current thread.
+     * The ContextsService has to invoke {@link #clearInstanceCache(Class)} whenever
+     * the context of the current thread ends or gets replaced.
+     *
+     * @param scopeType the thread bound scope type
+     * @see org.apache.webbeans.intercept.ThreadLocalCachingBeanInterceptorHandler
+     */
+    protected void enableInstanceCache(Class<? extends Annotation> scopeType)
+    {
+        instanceCaches.putIfAbsent(scopeType, new ThreadLocalInstanceCache());
+    }
+
+    /**
+     * @param scopeType the scope type
+     * @return the per thread instance cache or <code>null</code> if caching is not enabled for the given scope
+     */
+    public ThreadLocalInstanceCache getInstanceCache(Class<? extends Annotation> scopeType)
+    {
+        return instanceCaches.get(scopeType);
+    }
+
+    /**
+     * Removes all cached instances of the given scope for the current thread.
+     */
+    protected void clearInstanceCache(Class<? extends Annotation> scopeType)
+    {
+        ThreadLocalInstanceCache instanceCache = instanceCaches.get(scopeType);
+        if (instanceCache != null)
+        {
+            instanceCache.clear();
+        }
+    }
+
+    /**
+     * Removes all cached instances of all scopes for the current thread.
+     */
+    protected void clearInstanceCaches()
+    {
+        for (ThreadLocalInstanceCache instanceCache : instanceCaches.values())
+        {
+            instanceCache.clear();
+        }
+    }
+
     @Override
     public void init(Object initializeObject)
     {
@@ -68,6 +142,7 @@ public abstract class AbstractContextsService implements ContextsService
     @Override
     public void activateContext(Class<? extends Annotation> scopeType)
     {
+        clearInstanceCache(scopeType);
         if(supportsContext(scopeType))
         {
             Context context = getCurrentContext(scopeType);
@@ -81,6 +156,7 @@ public abstract class AbstractContextsService implements ContextsService
     @Override
     public void deActivateContext(Class<? extends Annotation> scopeType)
     {
+        clearInstanceCache(scopeType);
         if(supportsContext(scopeType))
         {
             Context context = getCurrentContext(scopeType);
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.enterprise.context.spi.Contextual;
+
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+
+/**
+ * <p>Storage for the {@link BeanInstanceBag}s of a context which addresses
+ * the bags by the bean slot of the {@link AbstractOwbBean}s instead of
+ * hashing the beans.</p>
+ *
+ * <p>Bean slots get assigned densely per scope when the beans get added to the
+ * {@link org.apache.webbeans.container.BeanManagerImpl}. Contextuals without a slot
+ * or with a slot exceeding the size of this map (e.g. beans added after the context
+ * got created) are stored in a lazily created {@link ConcurrentHashMap}.</p>
+ *
+ * @see org.apache.webbeans.container.BeanManagerImpl#getBeanSlotCount(Class)
+ */
+public class BeanSlotInstanceMap extends AbstractMap<Contextual<?>, BeanInstanceBag<?>>
+        implements ConcurrentMap<Contextual<?>, BeanInstanceBag<?>>
+{
+    private final AtomicReferenceArray<Entry<Contextual<?>, BeanInstanceBag<?>>> slots;
+
+    private volatile ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> others;
+
+    /**
+     * @param size the number of bean slots of the scope
+     */
+    public BeanSlotInstanceMap(int size)
+    {
+        slots = new AtomicReferenceArray<Entry<Contextual<?>, BeanInstanceBag<?>>>(size);
+    }
+
+    private int getSlot(Object key)
+    {
+        if (key instanceof AbstractOwbBean)
+        {
+            int slot = ((AbstractOwbBean<?>) key).getBeanSlot();
+            if (slot < slots.length())
+            {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSlotOf(Entry<Contextual<?>, BeanInstanceBag<?>> entry, Object key)
+    {
+        return entry != null && (entry.getKey() == key || entry.getKey().equals(key));
+    }
+
+    private ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> getOthers()
+    {
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        if (map == null)
+        {
+            synchronized (this)
+            {
+                map = others;
+                if (map == null)
+                {
+                    map = new ConcurrentHashMap<Contextual<?>, BeanInstanceBag<?>>();
+                    others = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public BeanInstanceBag<?> get(Object key)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (isSlotOf(entry, key))
+            {
+                return entry.getValue();
+            }
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        return map != null ? map.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    @Override
+    public BeanInstanceBag<?> put(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (entry == null || isSlotOf(entry, key))
+            {
+                Entry<Contextual<?>, BeanInstanceBag<?>> newEntry = newEntry(key, value);
+                if (slots.compareAndSet(slot, entry, newEntry))
+                {
+                    return entry != null ? entry.getValue() : null;
+                }
+                // concurrently modified, retry
+                return put(key, value);
+            }
+        }
+        return getOthers().put(key, value);
+    }
+
+    @Override
+    public BeanInstanceBag<?> putIfAbsent(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (isSlotOf(entry, key))
+            {
+                return entry.getValue();
+            }
+            if (entry == null)
+            {
+                if (slots.compareAndSet(slot, null, newEntry(key, value)))
+                {
+                    return null;
+                }
+                // concurrently modified, retry
+                return putIfAbsent(key, value);
+            }
+        }
+        return getOthers().putIfAbsent(key, value);
+    }
+
+    @Override
+    public BeanInstanceBag<?> remove(Object key)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (isSlotOf(entry, key))
+            {
+                if (slots.compareAndSet(slot, entry, null))
+                {
+                    return entry.getValue();
+                }
+                // concurrently modified, retry
+                return remove(key);
+            }
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        return map != null ? map.remove(key) : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (isSlotOf(entry, key))
+            {
+                return entry.getValue().equals(value) && slots.compareAndSet(slot, entry, null);
+            }
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        return map != null && map.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(Contextual<?> key, BeanInstanceBag<?> oldValue, BeanInstanceBag<?> newValue)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (isSlotOf(entry, key))
+            {
+                return entry.getValue().equals(oldValue) && slots.compareAndSet(slot, entry, newEntry(key, newValue));
+            }
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        return map != null && map.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public BeanInstanceBag<?> replace(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        int slot = getSlot(key);
+        if (slot >= 0)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(slot);
+            if (isSlotOf(entry, key))
+            {
+                if (slots.compareAndSet(slot, entry, newEntry(key, value)))
+                {
+                    return entry.getValue();
+                }
+                // concurrently modified, retry
+                return replace(key, value);
+            }
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        return map != null ? map.replace(key, value) : null;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (int i = 0; i < slots.length(); i++)
+        {
+            slots.set(i, null);
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        if (map != null)
+        {
+            map.clear();
+        }
+    }
+
+    /**
+     * The returned set is a snapshot of the current entries.
+     * Removing entries via its iterator removes them from this map.
+     */
+    @Override
+    public Set<Entry<Contextual<?>, BeanInstanceBag<?>>> entrySet()
+    {
+        final List<Entry<Contextual<?>, BeanInstanceBag<?>>> entries = new ArrayList<Entry<Contextual<?>, BeanInstanceBag<?>>>();
+        for (int i = 0; i < slots.length(); i++)
+        {
+            Entry<Contextual<?>, BeanInstanceBag<?>> entry = slots.get(i);
+            if (entry != null)
+            {
+                entries.add(entry);
+            }
+        }
+
+        ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> map = others;
+        if (map != null)
+        {
+            for (Entry<Contextual<?>, BeanInstanceBag<?>> entry : map.entrySet())
+            {
+                entries.add(newEntry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        return new AbstractSet<Entry<Contextual<?>, BeanInstanceBag<?>>>()
+        {
+            @Override
+            public Iterator<Entry<Contextual<?>, BeanInstanceBag<?>>> iterator()
+            {
+                final Iterator<Entry<Contextual<?>, BeanInstanceBag<?>>> it = entries.iterator();
+                return new Iterator<Entry<Contextual<?>, BeanInstanceBag<?>>>()
+                {
+                    private Entry<Contextual<?>, BeanInstanceBag<?>> current;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Contextual<?>, BeanInstanceBag<?>> next()
+                    {
+                        current = it.next();
+                        return current;
+                    }
+
+                    @Override
+                    public void remove()
+                    {
+                        it.remove();
+                        BeanSlotInstanceMap.this.remove(current.getKey(), current.getValue());
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return entries.size();
+            }
+        };
+    }
+
+    private static Entry<Contextual<?>, BeanInstanceBag<?>> newEntry(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        return new SimpleImmutableEntry<Contextual<?>, BeanInstanceBag<?>>(key, value);
+    }
+}
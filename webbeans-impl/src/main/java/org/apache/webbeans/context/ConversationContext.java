@@ -50,12 +50,34 @@ public class ConversationContext extends AbstractContext implements Externalizab
         super(ConversationScoped.class);
     }
 
+    /**Whether an instance of this conversation got used since the last replication*/
+    private transient volatile boolean dirty;
+
     @Override
     public void setComponentInstanceMap()
     {
         componentInstanceMap = new ConcurrentHashMap<Contextual<?>, BeanInstanceBag<?>>();
     }
 
+    @Override
+    protected void instanceAccessed(BeanInstanceBag<?> bag)
+    {
+        dirty = true;
+    }
+
+    /**
+     * @return whether an instance of this conversation got used since the last call
+     */
+    public boolean getAndClearDirty()
+    {
+        if (!dirty)
+        {
+            return false;
+        }
+        dirty = false;
+        return true;
+    }
+
     @Override
     public void readExternal(ObjectInput in) throws IOException,
             ClassNotFoundException 
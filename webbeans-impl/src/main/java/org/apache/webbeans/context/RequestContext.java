@@ -43,6 +43,17 @@ public class RequestContext extends AbstractContext
         super(RequestScoped.class);
     }
 
+    /**
+     * Creates a RequestContext which addresses its contextual instances by bean slot.
+     *
+     * @param beanSlotCount number of bean slots of the RequestScoped beans
+     * @see BeanSlotInstanceMap
+     */
+    public RequestContext(int beanSlotCount)
+    {
+        super(RequestScoped.class, new BeanSlotInstanceMap(beanSlotCount));
+    }
+
     @Override
     public void setComponentInstanceMap()
     {
@@ -25,15 +25,19 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.context.spi.Contextual;
 
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.context.creational.BeanInstanceBag;
 import org.apache.webbeans.util.WebBeansUtil;
 
@@ -49,12 +53,104 @@ public class SessionContext extends AbstractContext implements Serializable, Ext
         super(SessionScoped.class);
     }
 
+    /**Passivation ids of the instances which got destroyed since the last replication*/
+    private final transient Set<String> removedInstances = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     @Override
     public void setComponentInstanceMap()
     {
         componentInstanceMap = new ConcurrentHashMap<Contextual<?>, BeanInstanceBag<?>>();
     }
 
+    @Override
+    protected void instanceAccessed(BeanInstanceBag<?> bag)
+    {
+        bag.markDirty();
+    }
+
+    @Override
+    public void destroy(Contextual<?> contextual)
+    {
+        super.destroy(contextual);
+
+        if (!componentInstanceMap.containsKey(contextual))
+        {
+            String id = WebBeansUtil.getPassivationId(contextual);
+            if (id != null)
+            {
+                removedInstances.add(id);
+            }
+        }
+    }
+
+    /**
+     * Collects the instances which got created or used since the last call.
+     * This is used for the delta replication of the session.
+     *
+     * @return the possibly changed instances by the passivation id of their beans
+     * @throws NotSerializableException if a changed instance doesn't belong to a passivation capable bean
+     */
+    public Map<String, BeanInstanceBag<?>> getAndClearDirtyInstances() throws NotSerializableException
+    {
+        Map<String, BeanInstanceBag<?>> dirtyInstances = new HashMap<String, BeanInstanceBag<?>>();
+        for (Map.Entry<Contextual<?>, BeanInstanceBag<?>> entry : componentInstanceMap.entrySet())
+        {
+            if (entry.getValue().getAndClearDirty())
+            {
+                String id = WebBeansUtil.getPassivationId(entry.getKey());
+                if (id == null)
+                {
+                    throw new NotSerializableException("cannot serialize " + entry.getKey().toString());
+                }
+                dirtyInstances.put(id, entry.getValue());
+            }
+        }
+        return dirtyInstances;
+    }
+
+    /**
+     * @return the passivation ids of the instances which got destroyed since the last call
+     */
+    public Set<String> getAndClearRemovedInstances()
+    {
+        Set<String> removed = new HashSet<String>();
+        Iterator<String> it = removedInstances.iterator();
+        while (it.hasNext())
+        {
+            removed.add(it.next());
+            it.remove();
+        }
+        return removed;
+    }
+
+    /**
+     * Applies the changes collected via {@link #getAndClearDirtyInstances()} and
+     * {@link #getAndClearRemovedInstances()} on another node to this replica.
+     *
+     * @param changedInstances the changed instances by passivation id
+     * @param removedIds the passivation ids of the destroyed instances
+     */
+    public void applyReplicatedChanges(Map<String, BeanInstanceBag<?>> changedInstances, Set<String> removedIds)
+    {
+        BeanManagerImpl beanManager = WebBeansContext.currentInstance().getBeanManagerImpl();
+        for (String id : removedIds)
+        {
+            Contextual<?> contextual = beanManager.getPassivationCapableBean(id);
+            if (contextual != null)
+            {
+                componentInstanceMap.remove(contextual);
+            }
+        }
+        for (Map.Entry<String, BeanInstanceBag<?>> changed : changedInstances.entrySet())
+        {
+            Contextual<?> contextual = beanManager.getPassivationCapableBean(changed.getKey());
+            if (contextual != null)
+            {
+                componentInstanceMap.put(contextual, changed.getValue());
+            }
+        }
+    }
+
     @Override
     public void readExternal(ObjectInput in) throws IOException,
             ClassNotFoundException 
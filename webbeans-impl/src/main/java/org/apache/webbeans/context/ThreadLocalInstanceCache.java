@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.inject.spi.Bean;
+
+/**
+ * <p>Caches the contextual instances of a thread bound scope for the current thread.</p>
+ *
+ * <p>Each bean gets a fixed slot assigned once via {@link #getSlot(Bean)}.
+ * The instances of the current thread are stored in a plain array
+ * which gets addressed by this slot, so a lookup doesn't need to hash the bean.</p>
+ *
+ * <p>The owning {@link AbstractContextsService} must {@link #clear()} the cache
+ * whenever the context of the current thread ends or changes. Code which only has
+ * static access, e.g. the cleanup of a pooled thread, can use {@link #removeThreadLocals()}.</p>
+ *
+ * @see AbstractContextsService#enableInstanceCache(Class)
+ * @see org.apache.webbeans.intercept.ThreadLocalCachingBeanInterceptorHandler
+ */
+public class ThreadLocalInstanceCache
+{
+    private static final int INITIAL_SIZE = 16;
+
+    /**
+     * All caches, weakly referenced so they go away together with their ContextsService.
+     * @see #removeThreadLocals()
+     */
+    private static final Set<ThreadLocalInstanceCache> CACHES
+        = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<ThreadLocalInstanceCache, Boolean>()));
+
+    private final ConcurrentMap<Bean<?>, Integer> slots = new ConcurrentHashMap<Bean<?>, Integer>();
+
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private final ThreadLocal<Object[]> instances = new ThreadLocal<Object[]>();
+
+    public ThreadLocalInstanceCache()
+    {
+        CACHES.add(this);
+    }
+
+    /**
+     * Removes the cached instances of all caches for the current thread,
+     * e.g. before the thread gets returned to a pool.
+     * This only costs a cache miss for other applications which use the same thread later.
+     */
+    public static void removeThreadLocals()
+    {
+        ThreadLocalInstanceCache[] caches;
+        synchronized (CACHES)
+        {
+            caches = CACHES.toArray(new ThreadLocalInstanceCache[CACHES.size()]);
+        }
+        for (ThreadLocalInstanceCache cache : caches)
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the slot of the given bean, always the same for the same bean
+     */
+    public int getSlot(Bean<?> bean)
+    {
+        Integer slot = slots.get(bean);
+        if (slot == null)
+        {
+            Integer newSlot = nextSlot.getAndIncrement();
+            slot = slots.putIfAbsent(bean, newSlot);
+            if (slot == null)
+            {
+                slot = newSlot;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * @return the cached instance of the current thread or <code>null</code>
+     */
+    public Object get(int slot)
+    {
+        Object[] cachedInstances = instances.get();
+        if (cachedInstances == null || slot >= cachedInstances.length)
+        {
+            return null;
+        }
+        return cachedInstances[slot];
+    }
+
+    /**
+     * Caches the given instance for the current thread.
+     */
+    public void put(int slot, Object instance)
+    {
+        Object[] cachedInstances = instances.get();
+        if (cachedInstances == null || slot >= cachedInstances.length)
+        {
+            int size = Math.max(INITIAL_SIZE, nextSlot.get());
+            Object[] newInstances = new Object[Math.max(size, slot + 1)];
+            if (cachedInstances != null)
+            {
+                System.arraycopy(cachedInstances, 0, newInstances, 0, cachedInstances.length);
+            }
+            cachedInstances = newInstances;
+            instances.set(cachedInstances);
+        }
+        cachedInstances[slot] = instance;
+    }
+
+    /**
+     * Removes all cached instances of the current thread.
+     */
+    public void clear()
+    {
+        instances.remove();
+    }
+}
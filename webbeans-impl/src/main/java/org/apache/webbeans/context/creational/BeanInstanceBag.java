@@ -37,6 +37,12 @@ public class BeanInstanceBag<T> implements Serializable
     private T beanInstance;
     
     private final Lock lock = new ReentrantLock();
+
+    /**
+     * Whether the instance got used since the context got replicated the last time.
+     * Only tracked by contexts which get replicated.
+     */
+    private transient volatile boolean dirty;
     
     public BeanInstanceBag(CreationalContext<T> beanCreationalContext)
     {
@@ -85,6 +91,27 @@ public class BeanInstanceBag<T> implements Serializable
         return beanInstance; 
     }
 
+    /**
+     * Marks the instance as possibly changed.
+     */
+    public void markDirty()
+    {
+        dirty = true;
+    }
+
+    /**
+     * @return whether the instance got marked as possibly changed since the last call
+     */
+    public boolean getAndClearDirty()
+    {
+        if (!dirty)
+        {
+            return false;
+        }
+        dirty = false;
+        return true;
+    }
+
     @Override
     public String toString()
     {
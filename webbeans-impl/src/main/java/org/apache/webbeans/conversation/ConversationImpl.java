@@ -58,13 +58,13 @@ public class ConversationImpl implements Conversation, Serializable
     private boolean isTransient = true;
 
     /**Default timeout is 30mins*/
-    private long timeout;
+    private volatile long timeout;
 
     /**Id of the session that this conversation is created*/
     private String sessionId;
 
     /**Active duration of the conversation*/
-    private long activeTime = 0L;
+    private volatile long activeTime = 0L;
     
     /**Generating ids*/
     private static AtomicInteger conversationIdGenerator = new AtomicInteger(0);
@@ -74,6 +74,9 @@ public class ConversationImpl implements Conversation, Serializable
 
     private transient WebBeansContext webBeansContext;
 
+    /**The scheduled expiry, maintained by the ConversationManager*/
+    private transient volatile ConversationManager.ConversationExpiry expiry;
+
     /**
      * Default constructor. Used for proxies.
      */
@@ -251,6 +254,11 @@ public class ConversationImpl implements Conversation, Serializable
     public void setTimeout(long milliseconds)
     {
         timeout = milliseconds;
+
+        if (!isTransient && webBeansContext != null)
+        {
+            webBeansContext.getConversationManager().scheduleExpiry(this);
+        }
     }
 
     /**
@@ -273,12 +281,24 @@ public class ConversationImpl implements Conversation, Serializable
 
     /**
      * Update conversation timeout value.
+     * This doesn't reschedule the expiry, the ConversationManager
+     * checks the active time once the old deadline is reached.
      */
     public void updateTimeOut()
     {
         activeTime = System.currentTimeMillis();
     }
 
+    ConversationManager.ConversationExpiry getExpiry()
+    {
+        return expiry;
+    }
+
+    void setExpiry(ConversationManager.ConversationExpiry expiry)
+    {
+        this.expiry = expiry;
+    }
+
     /*
      * (non-Javadoc)
      * @see java.lang.Object#hashCode()
@@ -18,12 +18,17 @@
  */
 package org.apache.webbeans.conversation;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -49,6 +54,23 @@ public class ConversationManager
 {
     /**Current conversations*/
     private final ConcurrentMap<Conversation, ConversationContext> conversations = new ConcurrentHashMap<Conversation, ConversationContext>();
+
+    /**
+     * Scheduled expiries of the conversations, the earliest deadline first.
+     * See {@link #destroyWithRespectToTimout()}
+     */
+    private final ConcurrentSkipListSet<ConversationExpiry> expiries = new ConcurrentSkipListSet<ConversationExpiry>();
+
+    /**
+     * Index of the conversations by their session id.
+     * Modifications of a set synchronize on it, reads don't.
+     * Empty sets get removed, see {@link #indexConversation(Conversation)}.
+     */
+    private final ConcurrentMap<String, Set<Conversation>> sessionConversations = new ConcurrentHashMap<String, Set<Conversation>>();
+
+    /**Orders expiries with the same deadline*/
+    private final AtomicLong expirySequence = new AtomicLong();
+
     private final WebBeansContext webBeansContext;
     private final static Logger logger = WebBeansLoggerFacade.getLogger(ConversationManager.class);
 
@@ -68,6 +90,143 @@ public class ConversationManager
     public void addConversationContext(Conversation conversation, ConversationContext context)
     {
         conversations.put(conversation, context);
+        indexConversation(conversation);
+
+        if (conversation instanceof ConversationImpl)
+        {
+            scheduleExpiry((ConversationImpl) conversation);
+        }
+    }
+
+    /**
+     * Schedules the expiry of the given conversation for its current
+     * active time plus timeout. This only needs to be called if the timeout changes:
+     * {@link ConversationImpl#updateTimeOut()} doesn't touch the schedule, a newer active
+     * time gets picked up when the old deadline is reached.
+     * @param conversation the conversation
+     */
+    public void scheduleExpiry(ConversationImpl conversation)
+    {
+        ConversationExpiry expiry = null;
+        long timeout = conversation.getTimeout();
+        if (timeout != 0L)
+        {
+            expiry = new ConversationExpiry(conversation, conversation.getActiveTime() + timeout, expirySequence.incrementAndGet());
+        }
+
+        ConversationExpiry oldExpiry = conversation.getExpiry();
+        conversation.setExpiry(expiry);
+        if (oldExpiry != null)
+        {
+            expiries.remove(oldExpiry);
+        }
+        if (expiry != null)
+        {
+            expiries.add(expiry);
+        }
+    }
+
+    /**
+     * Removes the conversation from the conversations, the session index and the expiry schedule.
+     * @return the context of the conversation or <code>null</code> if it wasn't registered
+     */
+    private ConversationContext removeConversationEntry(Conversation conversation)
+    {
+        ConversationContext ctx = conversations.remove(conversation);
+        unindexConversation(conversation);
+        unscheduleExpiry(conversation);
+        return ctx;
+    }
+
+    /**
+     * @return a snapshot of the conversations of the given session
+     */
+    private Collection<Conversation> getConversationsWithSessionId(String sessionId)
+    {
+        Set<Conversation> sessionSet = sessionConversations.get(sessionId);
+        if (sessionSet == null)
+        {
+            return Collections.emptyList();
+        }
+        return new ArrayList<Conversation>(sessionSet);
+    }
+
+    private void indexConversation(Conversation conversation)
+    {
+        String sessionId = getSessionId(conversation);
+        if (sessionId == null)
+        {
+            return;
+        }
+
+        while (true)
+        {
+            Set<Conversation> sessionSet = sessionConversations.get(sessionId);
+            if (sessionSet == null)
+            {
+                Set<Conversation> newSet = Collections.newSetFromMap(new ConcurrentHashMap<Conversation, Boolean>());
+                sessionSet = sessionConversations.putIfAbsent(sessionId, newSet);
+                if (sessionSet == null)
+                {
+                    sessionSet = newSet;
+                }
+            }
+
+            synchronized (sessionSet)
+            {
+                // retry if the set got removed as empty by unindexConversation in the meantime
+                if (sessionConversations.get(sessionId) == sessionSet)
+                {
+                    sessionSet.add(conversation);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void unindexConversation(Conversation conversation)
+    {
+        String sessionId = getSessionId(conversation);
+        if (sessionId == null)
+        {
+            return;
+        }
+
+        Set<Conversation> sessionSet = sessionConversations.get(sessionId);
+        if (sessionSet != null)
+        {
+            synchronized (sessionSet)
+            {
+                sessionSet.remove(conversation);
+                if (sessionSet.isEmpty())
+                {
+                    sessionConversations.remove(sessionId, sessionSet);
+                }
+            }
+        }
+    }
+
+    private static String getSessionId(Conversation conversation)
+    {
+        if (conversation instanceof ConversationImpl)
+        {
+            return ((ConversationImpl) conversation).getSessionId();
+        }
+        return null;
+    }
+
+    private void unscheduleExpiry(Conversation conversation)
+    {
+        if (conversation instanceof ConversationImpl)
+        {
+            ConversationImpl conv = (ConversationImpl) conversation;
+            ConversationExpiry expiry = conv.getExpiry();
+            conv.setExpiry(null);
+            if (expiry != null)
+            {
+                expiries.remove(expiry);
+            }
+        }
     }
     
     /**
@@ -102,16 +261,13 @@ public class ConversationManager
     public Map<Conversation, ConversationContext> getConversationMapWithSessionId(String sessionId) 
     {
         Asserts.assertNotNull(sessionId,"sessionId parameter can not be null");
-        Set<Conversation> set = conversations.keySet();
-        Iterator<Conversation> it = set.iterator();
-        ConversationImpl conv = null;
         Map<Conversation, ConversationContext> map = new HashMap<Conversation, ConversationContext>();
-        while (it.hasNext())
+        for (Conversation conv : getConversationsWithSessionId(sessionId))
         {
-            conv = (ConversationImpl) it.next();
-            if (conv.getSessionId().equals(sessionId))
+            ConversationContext ctx = conversations.get(conv);
+            if (ctx != null)
             {
-                map.put(conv, conversations.get(conv));
+                map.put(conv, ctx);
             }
         }
         return map;
@@ -126,16 +282,13 @@ public class ConversationManager
     public Map<Conversation, ConversationContext> getAndRemoveConversationMapWithSessionId(String sessionId) 
     {
         Asserts.assertNotNull(sessionId,"sessionId parameter can not be null");
-        Set<Conversation> set = conversations.keySet();
-        Iterator<Conversation> it = set.iterator();
-        ConversationImpl conv = null;
         Map<Conversation, ConversationContext> map = new HashMap<Conversation, ConversationContext>();
-        while (it.hasNext())
+        for (Conversation conv : getConversationsWithSessionId(sessionId))
         {
-            conv = (ConversationImpl) it.next();
-            if (conv.getSessionId().equals(sessionId))
+            ConversationContext ctx = removeConversationEntry(conv);
+            if (ctx != null)
             {
-                map.put(conv, conversations.remove(conv));
+                map.put(conv, ctx);
             }
         }
         return map;
@@ -150,7 +303,7 @@ public class ConversationManager
     {
         Asserts.assertNotNull(conversation, "conversation can not be null");
 
-        return conversations.remove(conversation);
+        return removeConversationEntry(conversation);
     }
 
     /**
@@ -176,14 +329,10 @@ public class ConversationManager
         Asserts.assertNotNull(conversationId, "conversationId parameter can not be null");
         Asserts.assertNotNull(sessionId,"sessionId parameter can not be null");
 
-        ConversationImpl conv;
-        Set<Conversation> set = conversations.keySet();
-        Iterator<Conversation> it = set.iterator();
-
-        while (it.hasNext())
+        for (Conversation conversation : getConversationsWithSessionId(sessionId))
         {
-            conv = (ConversationImpl) it.next();
-            if (conv.getId().equals(conversationId) && conv.getSessionId().equals(sessionId))
+            ConversationImpl conv = (ConversationImpl) conversation;
+            if (conversationId.equals(conv.getId()) && conversations.containsKey(conv))
             {
                 return conv;
             }
@@ -201,21 +350,12 @@ public class ConversationManager
     {
         Asserts.assertNotNull(sessionId, "sessionId parameter can not be null");
 
-        ConversationImpl conv;
-        Set<Conversation> set = conversations.keySet();
-        Iterator<Conversation> it = set.iterator();
-
-        while (it.hasNext())
+        for (Conversation conv : getConversationsWithSessionId(sessionId))
         {
-            conv = (ConversationImpl) it.next();
-            if (conv.getSessionId().equals(sessionId))
+            ConversationContext ctx = removeConversationEntry(conv);
+            if (ctx != null) 
             {
-                ConversationContext ctx = getConversationContext(conv);
-                if (ctx != null) 
-                {
-                    ctx.destroy();
-                }
-                it.remove();
+                ctx.destroy();
             }
         }
     }
@@ -236,40 +376,116 @@ public class ConversationManager
 
     /**
      * Destroy unactive conversations.
+     * Only the conversations whose scheduled deadline passed get looked at.
      */
     public void destroyWithRespectToTimout()
     {
-        ConversationImpl conv = null;
-        Set<Conversation> set = conversations.keySet();
-        Iterator<Conversation> it = set.iterator();
+        destroyWithRespectToTimout(System.currentTimeMillis());
+    }
 
-        while (it.hasNext())
+    void destroyWithRespectToTimout(long now)
+    {
+        ConversationExpiry expiry;
+        while ((expiry = expiries.pollFirst()) != null)
         {
-            conv = (ConversationImpl) it.next();
+            if (expiry.deadline >= now)
+            {
+                // not yet due, neither are all the others
+                expiries.add(expiry);
+                break;
+            }
+
+            ConversationImpl conv = expiry.conversation;
+            if (conv.getExpiry() != expiry)
+            {
+                // got rescheduled or removed in the meantime
+                continue;
+            }
+
             long timeout = conv.getTimeout();
+            long deadline = conv.getActiveTime() + timeout;
+            if (timeout != 0L && deadline >= now)
+            {
+                // the conversation got used since it was scheduled
+                ConversationExpiry newExpiry = new ConversationExpiry(conv, deadline, expirySequence.incrementAndGet());
+                conv.setExpiry(newExpiry);
+                expiries.add(newExpiry);
+                continue;
+            }
 
-            if (timeout != 0L)
+            conv.setExpiry(null);
+            if (timeout == 0L)
             {
-                if ((System.currentTimeMillis() - conv.getActiveTime()) > timeout)
+                continue;
+            }
+
+            ConversationContext ctx = removeConversationEntry(conv);
+            if (ctx != null)
+            {
+                if(logger.isLoggable(Level.INFO))
                 {
-                    ConversationContext ctx = getConversationContext(conv);
-                    if (ctx != null) 
-                    {
-                        if(logger.isLoggable(Level.INFO))
-                        {
-                            logger.log(Level.INFO, OWBLogConst.INFO_0011, conv.getId());
-                        }
-                        ctx.destroy();
-                    }
-
-                    it.remove();
+                    logger.log(Level.INFO, OWBLogConst.INFO_0011, conv.getId());
                 }
+                ctx.destroy();
             }
         }
     }
-    
+
+    /**
+     * @return a read-only view of all conversations and their contexts
+     */
     public Map<Conversation, ConversationContext> getAllConversationContexts()
     {
-        return conversations;
+        return Collections.unmodifiableMap(conversations);
+    }
+
+    /**
+     * Removes all conversations, e.g. when the application gets shut down.
+     * The caller has to destroy the returned contexts.
+     * @return the removed conversations with their contexts
+     */
+    public Map<Conversation, ConversationContext> getAndRemoveAllConversationContexts()
+    {
+        Map<Conversation, ConversationContext> map = new HashMap<Conversation, ConversationContext>();
+        for (Conversation conv : new ArrayList<Conversation>(conversations.keySet()))
+        {
+            ConversationContext ctx = removeConversationEntry(conv);
+            if (ctx != null)
+            {
+                map.put(conv, ctx);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * The point in time at which a conversation expires at the earliest.
+     */
+    static final class ConversationExpiry implements Comparable<ConversationExpiry>
+    {
+        private final ConversationImpl conversation;
+        private final long deadline;
+        private final long sequence;
+
+        private ConversationExpiry(ConversationImpl conversation, long deadline, long sequence)
+        {
+            this.conversation = conversation;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(ConversationExpiry other)
+        {
+            if (deadline != other.deadline)
+            {
+                return deadline < other.deadline ? -1 : 1;
+            }
+            if (sequence != other.sequence)
+            {
+                return sequence < other.sequence ? -1 : 1;
+            }
+            return 0;
+        }
     }
 }
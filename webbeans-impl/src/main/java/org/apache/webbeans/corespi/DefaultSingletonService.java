@@ -18,21 +18,45 @@
  */
 package org.apache.webbeans.corespi;
 
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.spi.SingletonService;
 import org.apache.webbeans.util.Asserts;
 
+/**
+ * Default {@link SingletonService} which keeps one {@link WebBeansContext} per ClassLoader.
+ *
+ * <p>{@link #get(Object)} is called for every {@link WebBeansContext#getInstance()}, which
+ * happens a lot at request time. Looking up an existing WebBeansContext therefore takes no lock.
+ * Only the creation of a new WebBeansContext and clearing one are synchronized.</p>
+ *
+ * <p>The ClassLoaders are only weakly referenced, like in a WeakHashMap.</p>
+ */
 public class DefaultSingletonService implements SingletonService<WebBeansContext>
 {
     /**
-     * Keys --> ClassLoaders
-     * Values --> WebBeansContext
+     * Keys --> weakly referenced ClassLoaders
+     * Values --> the same entry which also holds the WebBeansContext
+     */
+    private final ConcurrentMap<Object, ClassLoaderEntry> singletonMap = new ConcurrentHashMap<Object, ClassLoaderEntry>();
+
+    /**
+     * Entries whose ClassLoader got garbage collected.
+     * They get removed from the singletonMap the next time we modify it.
      */
-    private final Map<ClassLoader, WebBeansContext> singletonMap = new WeakHashMap<ClassLoader, WebBeansContext>();
-    
+    private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<ClassLoader>();
+
+    /**
+     * The entry which got looked up last.
+     * Most of the time there is only a single deployment, so this saves the map lookup.
+     */
+    private volatile ClassLoaderEntry lastEntry;
+
     /**
      * Gets singleton instance for deployment.
      * @return signelton instance for this deployment
@@ -42,35 +66,53 @@ public class DefaultSingletonService implements SingletonService<WebBeansContext
     {
         assertClassLoaderKey(key);
         ClassLoader classLoader = (ClassLoader) key;
-        synchronized (singletonMap)
+
+        ClassLoaderEntry entry = lastEntry;
+        if (entry != null && entry.isFor(classLoader))
         {
-            //util.Track.sync(key);
-            
-            WebBeansContext webBeansContext = singletonMap.get(classLoader);
-            //util.Track.get(key);
+            return entry.webBeansContext;
+        }
+
+        entry = singletonMap.get(new ClassLoaderLookup(classLoader));
+        if (entry == null)
+        {
+            entry = createEntry(classLoader);
+        }
 
-            if (webBeansContext == null)
-            {
-                webBeansContext = new WebBeansContext();
-                singletonMap.put(classLoader, webBeansContext);
-            }
+        lastEntry = entry;
+        return entry.webBeansContext;
+    }
 
-            return webBeansContext;
+    private synchronized ClassLoaderEntry createEntry(ClassLoader classLoader)
+    {
+        ClassLoaderEntry entry = singletonMap.get(new ClassLoaderLookup(classLoader));
+        if (entry == null)
+        {
+            expungeCollectedClassLoaders();
 
+            entry = new ClassLoaderEntry(classLoader, new WebBeansContext(), collectedClassLoaders);
+            singletonMap.put(entry, entry);
         }
+        return entry;
     }
 
     /**
      * Clear all deployment instances when the application is undeployed.
      * @param classLoader of the deployment
      */
-    public void clearInstances(ClassLoader classLoader)
+    public synchronized void clearInstances(ClassLoader classLoader)
     {
         Asserts.assertNotNull(classLoader, "classloader is null");
-        synchronized (singletonMap)
+
+        ClassLoaderEntry entry = singletonMap.remove(new ClassLoaderLookup(classLoader));
+        if (entry != null)
         {
-            singletonMap.remove(classLoader);
+            // a concurrent get() might still put it into lastEntry
+            entry.removed = true;
         }
+        lastEntry = null;
+
+        expungeCollectedClassLoaders();
     }
 
     /**
@@ -95,4 +137,115 @@ public class DefaultSingletonService implements SingletonService<WebBeansContext
         }
     }
 
+    private void expungeCollectedClassLoaders()
+    {
+        Reference<? extends ClassLoader> collected;
+        while ((collected = collectedClassLoaders.poll()) != null)
+        {
+            ClassLoaderEntry entry = (ClassLoaderEntry) collected;
+            entry.removed = true;
+            singletonMap.remove(entry);
+        }
+    }
+
+    /**
+     * Access to the ClassLoader for the keys of the singletonMap.
+     */
+    private interface ClassLoaderKey
+    {
+        ClassLoader getClassLoader();
+    }
+
+    /**
+     * Compares ClassLoaders by identity, like ClassLoader itself does.
+     */
+    private static boolean isSameClassLoader(ClassLoaderKey key, Object other)
+    {
+        if (key == other)
+        {
+            return true;
+        }
+        if (!(other instanceof ClassLoaderKey))
+        {
+            return false;
+        }
+
+        ClassLoader classLoader = key.getClassLoader();
+        return classLoader != null && classLoader == ((ClassLoaderKey) other).getClassLoader();
+    }
+
+    /**
+     * Key and value of the singletonMap.
+     */
+    private static final class ClassLoaderEntry extends WeakReference<ClassLoader> implements ClassLoaderKey
+    {
+        private final int hashCode;
+        private final WebBeansContext webBeansContext;
+
+        /**
+         * Set once the entry got removed from the singletonMap.
+         */
+        private volatile boolean removed;
+
+        private ClassLoaderEntry(ClassLoader classLoader, WebBeansContext webBeansContext, ReferenceQueue<ClassLoader> queue)
+        {
+            super(classLoader, queue);
+            this.hashCode = System.identityHashCode(classLoader);
+            this.webBeansContext = webBeansContext;
+        }
+
+        private boolean isFor(ClassLoader classLoader)
+        {
+            return get() == classLoader && !removed;
+        }
+
+        @Override
+        public ClassLoader getClassLoader()
+        {
+            return get();
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return isSameClassLoader(this, other);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Strong reference to the ClassLoader which only gets used to look up entries.
+     */
+    private static final class ClassLoaderLookup implements ClassLoaderKey
+    {
+        private final ClassLoader classLoader;
+
+        private ClassLoaderLookup(ClassLoader classLoader)
+        {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public ClassLoader getClassLoader()
+        {
+            return classLoader;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return isSameClassLoader(this, other);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(classLoader);
+        }
+    }
 }
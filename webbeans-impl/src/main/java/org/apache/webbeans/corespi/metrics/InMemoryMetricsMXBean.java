@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link InMemoryMetricsService}.
+ * All durations are in microseconds.
+ */
+public interface InMemoryMetricsMXBean
+{
+    long getResolutionCacheHits();
+
+    long getResolutionCacheMisses();
+
+    long getInjectionTargetCacheHits();
+
+    long getInjectionTargetCacheMisses();
+
+    long getInjectionTargetCacheEvictions();
+
+    long getEventsFired();
+
+    long getObserverNotifications();
+
+    long getEventMicros();
+
+    long getProxyClassesCreated();
+
+    long getProxyClassCreationMicros();
+
+    Map<String, Long> getContextsCreated();
+
+    Map<String, Long> getContextsDestroyed();
+
+    Map<String, Long> getDeploymentPhaseMicros();
+
+    /**
+     * Sets all counters back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.metrics;
+
+import java.io.Closeable;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.MetricsService;
+
+/**
+ * <p>{@link MetricsService} which sums up all measurements in memory.</p>
+ *
+ * <p>Each instance registers itself as {@link InMemoryMetricsMXBean} in the platform
+ * MBeanServer under <code>org.apache.openwebbeans:type=Metrics,id=...</code> and
+ * unregisters itself when the container gets stopped.</p>
+ *
+ * <p>Enable it with
+ * <code>org.apache.webbeans.spi.MetricsService=org.apache.webbeans.corespi.metrics.InMemoryMetricsService</code>
+ * in <code>openwebbeans.properties</code>.</p>
+ */
+public class InMemoryMetricsService implements MetricsService, InMemoryMetricsMXBean, Closeable
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(InMemoryMetricsService.class);
+
+    private final AtomicLong resolutionCacheHits = new AtomicLong();
+    private final AtomicLong resolutionCacheMisses = new AtomicLong();
+    private final AtomicLong injectionTargetCacheHits = new AtomicLong();
+    private final AtomicLong injectionTargetCacheMisses = new AtomicLong();
+    private final AtomicLong injectionTargetCacheEvictions = new AtomicLong();
+    private final AtomicLong eventsFired = new AtomicLong();
+    private final AtomicLong observerNotifications = new AtomicLong();
+    private final AtomicLong eventNanos = new AtomicLong();
+    private final AtomicLong proxyClassesCreated = new AtomicLong();
+    private final AtomicLong proxyClassCreationNanos = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> contextsCreated = new ConcurrentHashMap<String, AtomicLong>();
+    private final ConcurrentMap<String, AtomicLong> contextsDestroyed = new ConcurrentHashMap<String, AtomicLong>();
+
+    /** keeps the order of the deployment phases */
+    private final Map<String, Long> deploymentPhaseNanos = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    private ObjectName objectName;
+
+    public InMemoryMetricsService()
+    {
+        registerMBean();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return true;
+    }
+
+    @Override
+    public void resolutionCacheHit()
+    {
+        resolutionCacheHits.incrementAndGet();
+    }
+
+    @Override
+    public void resolutionCacheMiss()
+    {
+        resolutionCacheMisses.incrementAndGet();
+    }
+
+    @Override
+    public void injectionTargetCacheHit()
+    {
+        injectionTargetCacheHits.incrementAndGet();
+    }
+
+    @Override
+    public void injectionTargetCacheMiss()
+    {
+        injectionTargetCacheMisses.incrementAndGet();
+    }
+
+    @Override
+    public void injectionTargetCacheEviction()
+    {
+        injectionTargetCacheEvictions.incrementAndGet();
+    }
+
+    @Override
+    public void eventFired(Type eventType, int observerCount, long durationNanos)
+    {
+        eventsFired.incrementAndGet();
+        observerNotifications.addAndGet(observerCount);
+        eventNanos.addAndGet(durationNanos);
+    }
+
+    @Override
+    public void proxyClassCreated(Class<?> proxiedClass, long durationNanos)
+    {
+        proxyClassesCreated.incrementAndGet();
+        proxyClassCreationNanos.addAndGet(durationNanos);
+    }
+
+    @Override
+    public void contextCreated(Class<? extends Annotation> scopeType)
+    {
+        increment(contextsCreated, scopeType);
+    }
+
+    @Override
+    public void contextDestroyed(Class<? extends Annotation> scopeType)
+    {
+        increment(contextsDestroyed, scopeType);
+    }
+
+    @Override
+    public void deploymentPhaseFinished(String phase, long durationNanos)
+    {
+        deploymentPhaseNanos.put(phase, durationNanos);
+    }
+
+    @Override
+    public long getResolutionCacheHits()
+    {
+        return resolutionCacheHits.get();
+    }
+
+    @Override
+    public long getResolutionCacheMisses()
+    {
+        return resolutionCacheMisses.get();
+    }
+
+    @Override
+    public long getInjectionTargetCacheHits()
+    {
+        return injectionTargetCacheHits.get();
+    }
+
+    @Override
+    public long getInjectionTargetCacheMisses()
+    {
+        return injectionTargetCacheMisses.get();
+    }
+
+    @Override
+    public long getInjectionTargetCacheEvictions()
+    {
+        return injectionTargetCacheEvictions.get();
+    }
+
+    @Override
+    public long getEventsFired()
+    {
+        return eventsFired.get();
+    }
+
+    @Override
+    public long getObserverNotifications()
+    {
+        return observerNotifications.get();
+    }
+
+    @Override
+    public long getEventMicros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(eventNanos.get());
+    }
+
+    @Override
+    public long getProxyClassesCreated()
+    {
+        return proxyClassesCreated.get();
+    }
+
+    @Override
+    public long getProxyClassCreationMicros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(proxyClassCreationNanos.get());
+    }
+
+    @Override
+    public Map<String, Long> getContextsCreated()
+    {
+        return snapshot(contextsCreated);
+    }
+
+    @Override
+    public Map<String, Long> getContextsDestroyed()
+    {
+        return snapshot(contextsDestroyed);
+    }
+
+    @Override
+    public Map<String, Long> getDeploymentPhaseMicros()
+    {
+        Map<String, Long> micros = new LinkedHashMap<String, Long>();
+        synchronized (deploymentPhaseNanos)
+        {
+            for (Map.Entry<String, Long> phase : deploymentPhaseNanos.entrySet())
+            {
+                micros.put(phase.getKey(), TimeUnit.NANOSECONDS.toMicros(phase.getValue()));
+            }
+        }
+        return micros;
+    }
+
+    @Override
+    public void reset()
+    {
+        resolutionCacheHits.set(0);
+        resolutionCacheMisses.set(0);
+        injectionTargetCacheHits.set(0);
+        injectionTargetCacheMisses.set(0);
+        injectionTargetCacheEvictions.set(0);
+        eventsFired.set(0);
+        observerNotifications.set(0);
+        eventNanos.set(0);
+        proxyClassesCreated.set(0);
+        proxyClassCreationNanos.set(0);
+        contextsCreated.clear();
+        contextsDestroyed.clear();
+        deploymentPhaseNanos.clear();
+    }
+
+    /**
+     * Unregisters the MBean.
+     */
+    @Override
+    public void close()
+    {
+        if (objectName == null)
+        {
+            return;
+        }
+
+        try
+        {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName))
+            {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.WARNING, "Cannot unregister the metrics MBean " + objectName, e);
+        }
+        objectName = null;
+    }
+
+    private void registerMBean()
+    {
+        try
+        {
+            ObjectName name = new ObjectName("org.apache.openwebbeans:type=Metrics,id=" + Integer.toHexString(System.identityHashCode(this)));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        }
+        catch (Exception e)
+        {
+            // the metrics still get collected
+            logger.log(Level.WARNING, "Cannot register the metrics MBean", e);
+        }
+    }
+
+    private static void increment(ConcurrentMap<String, AtomicLong> counters, Class<? extends Annotation> scopeType)
+    {
+        String scope = scopeType.getName();
+        AtomicLong counter = counters.get(scope);
+        if (counter == null)
+        {
+            AtomicLong newCounter = new AtomicLong();
+            counter = counters.putIfAbsent(scope, newCounter);
+            if (counter == null)
+            {
+                counter = newCounter;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, AtomicLong> counters)
+    {
+        Map<String, Long> snapshot = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> counter : counters.entrySet())
+        {
+            snapshot.put(counter.getKey(), counter.getValue().get());
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import org.apache.webbeans.spi.MetricsService;
+
+/**
+ * Default {@link MetricsService} which ignores all measurements.
+ * As {@link #isEnabled()} returns <code>false</code> the container doesn't measure any durations.
+ */
+public class NoopMetricsService implements MetricsService
+{
+    @Override
+    public boolean isEnabled()
+    {
+        return false;
+    }
+
+    @Override
+    public void resolutionCacheHit()
+    {
+        // no-op
+    }
+
+    @Override
+    public void resolutionCacheMiss()
+    {
+        // no-op
+    }
+
+    @Override
+    public void injectionTargetCacheHit()
+    {
+        // no-op
+    }
+
+    @Override
+    public void injectionTargetCacheMiss()
+    {
+        // no-op
+    }
+
+    @Override
+    public void injectionTargetCacheEviction()
+    {
+        // no-op
+    }
+
+    @Override
+    public void eventFired(Type eventType, int observerCount, long durationNanos)
+    {
+        // no-op
+    }
+
+    @Override
+    public void proxyClassCreated(Class<?> proxiedClass, long durationNanos)
+    {
+        // no-op
+    }
+
+    @Override
+    public void contextCreated(Class<? extends Annotation> scopeType)
+    {
+        // no-op
+    }
+
+    @Override
+    public void contextDestroyed(Class<? extends Annotation> scopeType)
+    {
+        // no-op
+    }
+
+    @Override
+    public void deploymentPhaseFinished(String phase, long durationNanos)
+    {
+        // no-op
+    }
+}
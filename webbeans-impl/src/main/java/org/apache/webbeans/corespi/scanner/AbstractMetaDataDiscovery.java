@@ -20,8 +20,11 @@ package org.apache.webbeans.corespi.scanner;
 
 
 import org.apache.webbeans.config.OWBLogConst;
+import org.apache.webbeans.config.DeploymentSnapshot;
 import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.ParallelBootstrap;
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.corespi.scanner.index.BeanArchiveIndex;
 import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
 import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
 import org.apache.webbeans.exception.WebBeansDeploymentException;
@@ -39,13 +42,16 @@ import org.apache.xbean.finder.ClassLoaders;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -85,6 +91,12 @@ public abstract class AbstractMetaDataDiscovery implements ScannerService
     protected BDABeansXmlScanner bdaBeansXmlScanner;
     protected final WebBeansContext webBeansContext;
 
+    /**
+     * The snapshot of this deployment, <code>null</code> if it is disabled.
+     * If it got restored, the classes don't get scanned.
+     */
+    protected DeploymentSnapshot deploymentSnapshot;
+
 
     protected AbstractMetaDataDiscovery()
     {
@@ -137,7 +149,12 @@ public abstract class AbstractMetaDataDiscovery implements ScannerService
         try
         {
             configure();
-            initFinder();
+
+            deploymentSnapshot = DeploymentSnapshot.open(webBeansContext, getBeanDeploymentUrls().values());
+            if (deploymentSnapshot == null || !deploymentSnapshot.isRestored())
+            {
+                initFinder();
+            }
         }
         catch (Exception e)
         {
@@ -370,52 +387,128 @@ public abstract class AbstractMetaDataDiscovery implements ScannerService
     @Override
     public Set<Class<?>> getBeanClasses()
     {
-        final Set<Class<?>> classSet = new HashSet<Class<?>>();
+        final List<Callable<Class<?>>> loadTasks = new ArrayList<Callable<Class<?>>>();
+        if (deploymentSnapshot != null && deploymentSnapshot.isRestored())
+        {
+            for (String className : deploymentSnapshot.getClassNames())
+            {
+                loadTasks.add(new LoadClassTask(className));
+            }
+            return loadClasses(loadTasks);
+        }
+
         for (CdiArchive.FoundClasses foundClasses : archive.classesByUrl().values())
         {
             boolean scanModeAnnotated = BeanDiscoveryMode.ANNOTATED.equals(foundClasses.getBeanArchiveInfo().getBeanDiscoveryMode());
             for(String className : foundClasses.getClassNames())
             {
-                try
+                if (scanModeAnnotated)
                 {
-                    if (scanModeAnnotated)
+                    // in this case we need to find out whether we should keep this class in the Archive
+                    BeanArchiveIndex index = foundClasses.getIndex();
+                    if (index != null)
+                    {
+                        if (!isBeanAnnotatedClass(className, index.getAnnotations(className)))
+                        {
+                            continue;
+                        }
+                    }
+                    else
                     {
-                        // in this case we need to find out whether we should keep this class in the Archive
                         AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
                         if (classInfo == null || !isBeanAnnotatedClass(classInfo))
                         {
                             continue;
                         }
                     }
+                }
 
-                    Class<?> clazz = ClassUtil.getClassFromName(className);
-                    if (clazz != null)
-                    {
+                loadTasks.add(new LoadClassTask(className));
+            }
 
-                        // try to provoke a NoClassDefFoundError exception which is thrown
-                        // if some dependencies of the class are missing
-                        clazz.getDeclaredFields();
-                        clazz.getDeclaredMethods();
+        }
 
-                        // we can add this class cause it has been loaded completely
-                        classSet.add(clazz);
+        final Set<Class<?>> classSet = loadClasses(loadTasks);
 
-                    }
-                }
-                catch (NoClassDefFoundError e)
-                {
-                    if (logger.isLoggable(Level.WARNING))
-                    {
-                        logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[] { className, e.toString() });
-                    }
-                }
+        if (deploymentSnapshot != null)
+        {
+            final List<String> classNames = new ArrayList<String>(classSet.size());
+            for (Class<?> clazz : classSet)
+            {
+                classNames.add(clazz.getName());
             }
+            deploymentSnapshot.setClassNames(classNames);
+        }
+
+        return classSet;
+    }
 
+    private Set<Class<?>> loadClasses(final List<Callable<Class<?>>> loadTasks)
+    {
+        // keep the order of the scanned classes
+        final Set<Class<?>> classSet = new LinkedHashSet<Class<?>>();
+        for (Class<?> clazz : ParallelBootstrap.invokeAll(webBeansContext, loadTasks))
+        {
+            if (clazz != null)
+            {
+                classSet.add(clazz);
+            }
         }
 
         return classSet;
     }
 
+    /**
+     * @return the snapshot of this deployment or <code>null</code> if it is disabled
+     */
+    public DeploymentSnapshot getDeploymentSnapshot()
+    {
+        return deploymentSnapshot;
+    }
+
+    /**
+     * Loads a single class of a bean archive.
+     * Returns <code>null</code> if the class or some of its dependencies cannot be loaded.
+     */
+    private static final class LoadClassTask implements Callable<Class<?>>
+    {
+        private final String className;
+
+        private LoadClassTask(String className)
+        {
+            this.className = className;
+        }
+
+        @Override
+        public Class<?> call()
+        {
+            try
+            {
+                Class<?> clazz = ClassUtil.getClassFromName(className);
+                if (clazz != null)
+                {
+
+                    // try to provoke a NoClassDefFoundError exception which is thrown
+                    // if some dependencies of the class are missing
+                    clazz.getDeclaredFields();
+                    clazz.getDeclaredMethods();
+
+                    // we can add this class cause it has been loaded completely
+                    return clazz;
+
+                }
+            }
+            catch (NoClassDefFoundError e)
+            {
+                if (logger.isLoggable(Level.WARNING))
+                {
+                    logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[] { className, e.toString() });
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * This method is called for classes from bean archives with
      * bean-discovery-mode 'annotated'.
@@ -439,10 +532,38 @@ public abstract class AbstractMetaDataDiscovery implements ScannerService
         return false;
     }
 
+    /**
+     * Same as {@link #isBeanAnnotatedClass(AnnotationFinder.ClassInfo)} but for classes
+     * of archives which didn't get scanned because of their {@link BeanArchiveIndex}.
+     *
+     * @param className the name of the class
+     * @param annotationNames the class level annotations of the class
+     * @return true if this class should be kept and further get picked up as CDI Bean
+     */
+    protected boolean isBeanAnnotatedClass(String className, List<String> annotationNames)
+    {
+        if (annotationNames == null)
+        {
+            return false;
+        }
+
+        for (String annotationName : annotationNames)
+        {
+            if (isBeanAnnotation(annotationName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected boolean isBeanAnnotation(AnnotationFinder.AnnotationInfo annotationInfo)
     {
-        String annotationName = annotationInfo.getName();
+        return isBeanAnnotation(annotationInfo.getName());
+    }
 
+    protected boolean isBeanAnnotation(String annotationName)
+    {
         // TODO add caches
 
         try
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.index;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Build-time index of a bean archive. It gets written by the
+ * {@link BeanArchiveIndexProcessor} to {@link #INDEX_LOCATION} and allows the
+ * scanner to skip reading all class files of the archive.</p>
+ *
+ * <p>The index is a UTF-8 text file:</p>
+ * <pre>
+ * OWB-BEAN-ARCHIVE-INDEX 1
+ * beans.xml &lt;SHA-1 of META-INF/beans.xml or - if there is none&gt;
+ * &lt;class name&gt;[ &lt;class level annotation&gt;]*
+ * </pre>
+ *
+ * <p>The class level annotations are needed for bean archives with
+ * bean-discovery-mode 'annotated'.</p>
+ */
+public class BeanArchiveIndex
+{
+    public static final String INDEX_LOCATION = "META-INF/openwebbeans/bean-archive.idx";
+
+    public static final String BEANS_XML_LOCATION = "META-INF/beans.xml";
+
+    public static final int VERSION = 1;
+
+    private static final String HEADER = "OWB-BEAN-ARCHIVE-INDEX";
+    private static final String BEANS_XML = "beans.xml";
+    private static final String NO_DIGEST = "-";
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * SHA-1 of the beans.xml of the archive or <code>null</code> if there is none
+     */
+    private final String beansXmlDigest;
+
+    /**
+     * key: class name, value: names of the class level annotations
+     */
+    private final Map<String, List<String>> classes;
+
+
+    public BeanArchiveIndex(String beansXmlDigest, Map<String, List<String>> classes)
+    {
+        this.beansXmlDigest = beansXmlDigest;
+        this.classes = classes;
+    }
+
+    public String getBeansXmlDigest()
+    {
+        return beansXmlDigest;
+    }
+
+    public Set<String> getClassNames()
+    {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /**
+     * @return the class level annotations of the given class or <code>null</code> if the class is not indexed
+     */
+    public List<String> getAnnotations(String className)
+    {
+        return classes.get(className);
+    }
+
+    public void write(Writer writer) throws IOException
+    {
+        writer.write(HEADER + " " + VERSION + "\n");
+        writer.write(BEANS_XML + " " + (beansXmlDigest != null ? beansXmlDigest : NO_DIGEST) + "\n");
+        for (Map.Entry<String, List<String>> clazz : classes.entrySet())
+        {
+            writer.write(clazz.getKey());
+            for (String annotation : clazz.getValue())
+            {
+                writer.write(' ');
+                writer.write(annotation);
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * @return the parsed index or <code>null</code> if the given content is no index of the current {@link #VERSION}
+     */
+    public static BeanArchiveIndex read(InputStream in) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, ENCODING));
+
+        if (!(HEADER + " " + VERSION).equals(reader.readLine()))
+        {
+            return null;
+        }
+
+        String beansXmlLine = reader.readLine();
+        if (beansXmlLine == null || !beansXmlLine.startsWith(BEANS_XML + " "))
+        {
+            return null;
+        }
+        String beansXmlDigest = beansXmlLine.substring(BEANS_XML.length() + 1).trim();
+        if (NO_DIGEST.equals(beansXmlDigest))
+        {
+            beansXmlDigest = null;
+        }
+
+        Map<String, List<String>> classes = new LinkedHashMap<String, List<String>>();
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            line = line.trim();
+            if (line.length() == 0)
+            {
+                continue;
+            }
+
+            String[] parts = line.split(" ");
+            List<String> annotations = new ArrayList<String>(parts.length - 1);
+            for (int i = 1; i < parts.length; i++)
+            {
+                annotations.add(parts[i]);
+            }
+            classes.put(parts[0], annotations);
+        }
+
+        return new BeanArchiveIndex(beansXmlDigest, classes);
+    }
+
+    /**
+     * Reads the index of the bean archive with the given root URL.
+     *
+     * @param archiveUrl the root of the classpath entry, either a directory or a jar
+     * @return the index or <code>null</code> if the archive contains no valid index
+     */
+    public static BeanArchiveIndex read(URL archiveUrl)
+    {
+        InputStream in = openResource(archiveUrl, INDEX_LOCATION);
+        if (in == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return read(in);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+        finally
+        {
+            close(in);
+        }
+    }
+
+    /**
+     * @return the SHA-1 of the beans.xml of the archive with the given root URL
+     *         or <code>null</code> if it has none
+     */
+    public static String digestBeansXml(URL archiveUrl) throws IOException
+    {
+        InputStream in = openResource(archiveUrl, BEANS_XML_LOCATION);
+        if (in == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return digest(in);
+        }
+        finally
+        {
+            close(in);
+        }
+    }
+
+    /**
+     * @return the hex encoded SHA-1 of the given content
+     */
+    public static String digest(InputStream in) throws IOException
+    {
+        MessageDigest messageDigest;
+        try
+        {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0)
+        {
+            messageDigest.update(buffer, 0, read);
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : messageDigest.digest())
+        {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static InputStream openResource(URL archiveUrl, String resource)
+    {
+        try
+        {
+            URLConnection connection = getResourceUrl(archiveUrl, resource).openConnection();
+            // do not keep jar files open
+            connection.setUseCaches(false);
+            return connection.getInputStream();
+        }
+        catch (FileNotFoundException e)
+        {
+            return null;
+        }
+        catch (IOException e)
+        {
+            // e.g. a ZipException for a missing jar entry
+            return null;
+        }
+    }
+
+    private static URL getResourceUrl(URL archiveUrl, String resource) throws MalformedURLException
+    {
+        String externalForm = archiveUrl.toExternalForm();
+        if ("jar".equals(archiveUrl.getProtocol()))
+        {
+            int separator = externalForm.indexOf("!/");
+            if (separator > 0)
+            {
+                externalForm = externalForm.substring(0, separator);
+            }
+            return new URL(externalForm + "!/" + resource);
+        }
+        if (externalForm.endsWith(".jar"))
+        {
+            return new URL("jar:" + externalForm + "!/" + resource);
+        }
+        if (!externalForm.endsWith("/"))
+        {
+            externalForm += "/";
+        }
+        return new URL(externalForm + resource);
+    }
+
+    private static void close(InputStream in)
+    {
+        try
+        {
+            in.close();
+        }
+        catch (IOException e)
+        {
+            // ignore
+        }
+    }
+}
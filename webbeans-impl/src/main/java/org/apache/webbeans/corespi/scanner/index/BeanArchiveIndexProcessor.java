@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.index;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * <p>Annotation processor which writes the {@link BeanArchiveIndex} of the
+ * compiled classes to {@link BeanArchiveIndex#INDEX_LOCATION}.</p>
+ *
+ * <p>The processor is not registered automatically. It must be enabled explicitly,
+ * e.g. via <code>javac -processor org.apache.webbeans.corespi.scanner.index.BeanArchiveIndexProcessor</code>
+ * or the <code>annotationProcessors</code> setting of the maven-compiler-plugin.
+ * The META-INF/beans.xml must already be in the class output directory, which is
+ * the case for Maven builds as resources get copied before compiling.</p>
+ *
+ * <p>The index must contain all classes of the archive. It is ignored at runtime
+ * if the classes of the archive or its beans.xml don't match it anymore, e.g. after an
+ * incremental compilation.</p>
+ */
+@SupportedAnnotationTypes("*")
+public class BeanArchiveIndexProcessor extends AbstractProcessor
+{
+    private final Map<String, List<String>> classes = new TreeMap<String, List<String>>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver())
+        {
+            writeIndex();
+        }
+        else
+        {
+            addTypes(ElementFilter.typesIn(roundEnv.getRootElements()));
+        }
+
+        // we only observe, other processors may still claim the annotations
+        return false;
+    }
+
+    private void addTypes(Iterable<TypeElement> types)
+    {
+        for (TypeElement type : types)
+        {
+            List<String> annotations = new ArrayList<String>();
+            for (AnnotationMirror annotation : type.getAnnotationMirrors())
+            {
+                Element annotationType = annotation.getAnnotationType().asElement();
+                annotations.add(processingEnv.getElementUtils().getBinaryName((TypeElement) annotationType).toString());
+            }
+            classes.put(processingEnv.getElementUtils().getBinaryName(type).toString(), annotations);
+
+            // nested classes also end up as own class files
+            addTypes(ElementFilter.typesIn(type.getEnclosedElements()));
+        }
+    }
+
+    private void writeIndex()
+    {
+        try
+        {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    BeanArchiveIndex.INDEX_LOCATION);
+            Writer writer = new OutputStreamWriter(index.openOutputStream(), "UTF-8");
+            try
+            {
+                new BeanArchiveIndex(digestBeansXml(), classes).write(writer);
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + BeanArchiveIndex.INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private String digestBeansXml() throws IOException
+    {
+        InputStream in;
+        try
+        {
+            in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    BeanArchiveIndex.BEANS_XML_LOCATION).openInputStream();
+        }
+        catch (FileNotFoundException e)
+        {
+            return null;
+        }
+        catch (IOException e)
+        {
+            // some compilers report a missing resource with a plain IOException
+            return null;
+        }
+
+        try
+        {
+            return BeanArchiveIndex.digest(in);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+}
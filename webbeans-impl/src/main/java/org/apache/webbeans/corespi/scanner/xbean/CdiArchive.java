@@ -18,6 +18,8 @@
  */
 package org.apache.webbeans.corespi.scanner.xbean;
 
+import org.apache.webbeans.corespi.scanner.index.BeanArchiveIndex;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.BeanArchiveService.BeanArchiveInformation;
 import org.apache.xbean.finder.archive.Archive;
@@ -31,9 +33,12 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
 
 /**
  * this delegate pattern is interesting
@@ -43,6 +48,8 @@ import java.util.Map;
  */
 public class CdiArchive implements Archive
 {
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(CdiArchive.class);
+
     /**
      * key: URL#toExternalForm of the scanned classpath entry
      * value: small data container with URL and class names
@@ -59,6 +66,20 @@ public class CdiArchive implements Archive
             final List<String> urlClasses = new ArrayList<String>();
 
             BeanArchiveInformation beanArchiveInfo = beanArchiveService.getBeanArchiveInformation(url);
+
+            BeanArchiveIndex index = getUpToDateIndex(loader, url);
+            if (index != null)
+            {
+                // no need to scan the class files of this archive
+                BeanArchiveFilter filter = new BeanArchiveFilter(beanArchiveInfo, urlClasses);
+                for (String className : index.getClassNames())
+                {
+                    filter.accept(className);
+                }
+                classesByUrl.put(url.toExternalForm(), new FoundClasses(url, urlClasses, beanArchiveInfo, index));
+                continue;
+            }
+
             final Archive archive = new FilteredArchive(ClasspathArchive.archive(loader, url),
                     new BeanArchiveFilter(beanArchiveInfo, urlClasses));
 
@@ -74,6 +95,69 @@ public class CdiArchive implements Archive
         return classesByUrl;
     }
 
+    /**
+     * @return the {@link BeanArchiveIndex} of the given archive if it exists and
+     *         still matches the classes and the beans.xml of the archive, <code>null</code> otherwise
+     */
+    private static BeanArchiveIndex getUpToDateIndex(final ClassLoader loader, final URL url)
+    {
+        BeanArchiveIndex index = BeanArchiveIndex.read(url);
+        if (index == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            String beansXmlDigest = BeanArchiveIndex.digestBeansXml(url);
+            if (beansXmlDigest == null ? index.getBeansXmlDigest() != null : !beansXmlDigest.equals(index.getBeansXmlDigest()))
+            {
+                logger.fine("Ignoring outdated bean archive index of " + url + ", beans.xml changed");
+                return null;
+            }
+
+            // only list the class names, this doesn't need to read the class files
+            Set<String> classNames = new HashSet<String>();
+            for (Archive.Entry entry : ClasspathArchive.archive(loader, url))
+            {
+                if (!isAnonymousOrLocalClass(entry.getName()) && !entry.getName().endsWith("package-info"))
+                {
+                    classNames.add(entry.getName());
+                }
+            }
+
+            if (!classNames.equals(index.getClassNames()))
+            {
+                logger.fine("Ignoring outdated bean archive index of " + url + ", classes changed");
+                return null;
+            }
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+
+        logger.fine("Using bean archive index of " + url);
+        return index;
+    }
+
+    /**
+     * Anonymous and local classes are no beans and the {@link BeanArchiveIndex} doesn't list them.
+     */
+    private static boolean isAnonymousOrLocalClass(String className)
+    {
+        int pos = className.indexOf('$');
+        while (pos >= 0 && pos < className.length() - 1)
+        {
+            if (Character.isDigit(className.charAt(pos + 1)))
+            {
+                return true;
+            }
+            pos = className.indexOf('$', pos + 1);
+        }
+        return false;
+    }
+
     @Override
     public InputStream getBytecode(final String className) throws IOException, ClassNotFoundException
     {
@@ -97,12 +181,19 @@ public class CdiArchive implements Archive
         private URL url;
         private Collection<String> classNames;
         private BeanArchiveInformation beanArchiveInfo;
+        private BeanArchiveIndex index;
 
         public FoundClasses(URL url, Collection<String> classNames, BeanArchiveInformation beanArchiveInfo)
+        {
+            this(url, classNames, beanArchiveInfo, null);
+        }
+
+        public FoundClasses(URL url, Collection<String> classNames, BeanArchiveInformation beanArchiveInfo, BeanArchiveIndex index)
         {
             this.url = url;
             this.classNames = classNames;
             this.beanArchiveInfo = beanArchiveInfo;
+            this.index = index;
         }
 
         public URL getUrl()
@@ -119,5 +210,13 @@ public class CdiArchive implements Archive
         {
             return classNames;
         }
+
+        /**
+         * @return the index the classes got taken from or <code>null</code> if the archive got scanned
+         */
+        public BeanArchiveIndex getIndex()
+        {
+            return index;
+        }
     }
 }
@@ -27,6 +27,7 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.context.spi.Context;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.webbeans.config.WebBeansContext;
@@ -63,13 +64,33 @@ public class DefaultContextsService extends AbstractContextsService
     }
     
     
+    private final WebBeansContext webBeansContext;
+
+
+    public DefaultContextsService()
+    {
+        this(null);
+    }
+
+    public DefaultContextsService(WebBeansContext webBeansContext)
+    {
+        this.webBeansContext = webBeansContext;
+
+        // all those contexts are bound to the current thread
+        enableInstanceCache(RequestScoped.class);
+        enableInstanceCache(SessionScoped.class);
+        enableInstanceCache(ConversationScoped.class);
+    }
+
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void endContext(Class<? extends Annotation> scopeType, Object endParameters)
     {
-        
+        clearInstanceCache(scopeType);
+
         if(supportsContext(scopeType))
         {
             if(scopeType.equals(RequestScoped.class))
@@ -137,12 +158,52 @@ public class DefaultContextsService extends AbstractContextsService
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Provider<Context> getContextProvider(Class<? extends Annotation> scopeType)
+    {
+        if(scopeType.equals(RequestScoped.class))
+        {
+            return new ThreadLocalContextProvider(requestContext);
+        }
+        else if(scopeType.equals(SessionScoped.class))
+        {
+            return new ThreadLocalContextProvider(sessionContext);
+        }
+        else if(scopeType.equals(ApplicationScoped.class))
+        {
+            return new Provider<Context>()
+            {
+                @Override
+                public Context get()
+                {
+                    return applicationContext;
+                }
+            };
+        }
+        else if(scopeType.equals(ConversationScoped.class))
+        {
+            return new ThreadLocalContextProvider(conversationContext);
+        }
+        else if(scopeType.equals(Singleton.class))
+        {
+            return new ThreadLocalContextProvider(singletonContext);
+        }
+
+        return null;
+    }
+
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void startContext(Class<? extends Annotation> scopeType, Object startParameter) throws ContextException
     {
+        clearInstanceCache(scopeType);
+
         try
         {
             if(scopeType.equals(RequestScoped.class))
@@ -212,6 +273,8 @@ public class DefaultContextsService extends AbstractContextsService
         conversationContext.remove();
         dependentContext.remove();
         singletonContext.remove();
+
+        clearInstanceCaches();
     }
     
     
@@ -262,6 +325,7 @@ public class DefaultContextsService extends AbstractContextsService
         ctx.setActive(true);
         
         applicationContext = ctx;
+        contextCreated(ApplicationScoped.class);
     }
 
     
@@ -271,17 +335,26 @@ public class DefaultContextsService extends AbstractContextsService
         ctx.setActive(true);
         
         conversationContext.set(ctx);
-        
+        contextCreated(ConversationScoped.class);
     }
 
     
     private void startRequestContext(Object instance)
     {
         
-        RequestContext ctx = new RequestContext();
+        RequestContext ctx;
+        if (webBeansContext != null)
+        {
+            ctx = new RequestContext(webBeansContext.getBeanManagerImpl().getBeanSlotCount(RequestScoped.class));
+        }
+        else
+        {
+            ctx = new RequestContext();
+        }
         ctx.setActive(true);
         
         requestContext.set(ctx);
+        contextCreated(RequestScoped.class);
     }
 
     
@@ -291,6 +364,7 @@ public class DefaultContextsService extends AbstractContextsService
         ctx.setActive(true);
         
         sessionContext.set(ctx);
+        contextCreated(SessionScoped.class);
     }
 
     
@@ -301,6 +375,7 @@ public class DefaultContextsService extends AbstractContextsService
         ctx.setActive(true);
         
         singletonContext.set(ctx);
+        contextCreated(Singleton.class);
     }
 
     
@@ -310,6 +385,7 @@ public class DefaultContextsService extends AbstractContextsService
         {
             applicationContext.destroy();
             applicationContext = null;
+            contextDestroyed(ApplicationScoped.class);
 
             // this is needed to get rid of ApplicationScoped beans which are cached inside the proxies...
             WebBeansContext.currentInstance().getBeanManagerImpl().clearCacheProxies();
@@ -321,7 +397,8 @@ public class DefaultContextsService extends AbstractContextsService
     {
         if(conversationContext.get() != null)
         {
-            conversationContext.get().destroy();   
+            conversationContext.get().destroy();
+            contextDestroyed(ConversationScoped.class);
         }
 
         conversationContext.set(null);
@@ -333,7 +410,8 @@ public class DefaultContextsService extends AbstractContextsService
     {        
         if(requestContext.get() != null)
         {
-            requestContext.get().destroy();   
+            requestContext.get().destroy();
+            contextDestroyed(RequestScoped.class);
         }
 
         requestContext.set(null);
@@ -345,7 +423,8 @@ public class DefaultContextsService extends AbstractContextsService
     {
         if(sessionContext.get() != null)
         {
-            sessionContext.get().destroy();   
+            sessionContext.get().destroy();
+            contextDestroyed(SessionScoped.class);
         }
 
         sessionContext.set(null);
@@ -357,11 +436,44 @@ public class DefaultContextsService extends AbstractContextsService
     {
         if(singletonContext.get() != null)
         {
-            singletonContext.get().destroy();   
+            singletonContext.get().destroy();
+            contextDestroyed(Singleton.class);
         }
 
         singletonContext.set(null);
         singletonContext.remove();
     }
 
+
+    private void contextCreated(Class<? extends Annotation> scopeType)
+    {
+        if (webBeansContext != null)
+        {
+            webBeansContext.getMetricsService().contextCreated(scopeType);
+        }
+    }
+
+    private void contextDestroyed(Class<? extends Annotation> scopeType)
+    {
+        if (webBeansContext != null)
+        {
+            webBeansContext.getMetricsService().contextDestroyed(scopeType);
+        }
+    }
+
+    private static final class ThreadLocalContextProvider implements Provider<Context>
+    {
+        private final ThreadLocal<? extends Context> contexts;
+
+        private ThreadLocalContextProvider(ThreadLocal<? extends Context> contexts)
+        {
+            this.contexts = contexts;
+        }
+
+        @Override
+        public Context get()
+        {
+            return contexts.get();
+        }
+    }
 }
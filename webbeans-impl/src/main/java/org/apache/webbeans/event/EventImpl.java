@@ -22,7 +22,9 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import javax.enterprise.event.Event;
 import javax.enterprise.inject.spi.EventMetadata;
@@ -83,6 +85,37 @@ public class EventImpl<T> implements Event<T>, Serializable
         webBeansContext.getBeanManagerImpl().fireEvent(event, metadata.select(eventType), false);
     }
 
+    /**
+     * Fires all the given events, which must be of the same class.
+     * The observers get resolved only once for the whole batch.
+     *
+     * @see org.apache.webbeans.event.NotificationManager#fireEvents(Collection, EventMetadataImpl)
+     */
+    public void fireAll(Collection<? extends T> events)
+    {
+        if (events.isEmpty())
+        {
+            return;
+        }
+        Type eventType = events.iterator().next().getClass();
+        webBeansContext.getWebBeansUtil().validEventType(eventType.getClass(), metadata.getType());
+        webBeansContext.getBeanManagerImpl().getNotificationManager().fireEvents(events, metadata.select(eventType));
+    }
+
+    /**
+     * Fires the event without waiting for the observers if the asynchronous
+     * event delivery is enabled.
+     *
+     * @return the future which completes once all observers got notified
+     * @see org.apache.webbeans.event.NotificationManager#fireEventAsync(Object, EventMetadataImpl)
+     */
+    public Future<T> fireAsync(T event)
+    {
+        Type eventType = event.getClass();
+        webBeansContext.getWebBeansUtil().validEventType(eventType.getClass(), metadata.getType());
+        return webBeansContext.getBeanManagerImpl().getNotificationManager().fireEventAsync(event, metadata.select(eventType));
+    }
+
     /**
      * {@inheritDoc}
      */
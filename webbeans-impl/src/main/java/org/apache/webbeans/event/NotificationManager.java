@@ -25,12 +25,26 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
 import javax.enterprise.event.ObserverException;
 import javax.enterprise.event.TransactionPhase;
 import javax.enterprise.inject.spi.AfterBeanDiscovery;
@@ -61,6 +75,7 @@ import javax.enterprise.util.TypeLiteral;
 
 import org.apache.webbeans.component.AbstractOwbBean;
 import org.apache.webbeans.config.OWBLogConst;
+import org.apache.webbeans.config.OwbParametrizedTypeImpl;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.exception.WebBeansException;
@@ -68,6 +83,8 @@ import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.portable.events.ProcessSessionBeanImpl;
 import org.apache.webbeans.portable.events.generics.GenericBeanEvent;
 import org.apache.webbeans.portable.events.generics.GenericProducerObserverEvent;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.spi.MetricsService;
 import org.apache.webbeans.spi.TransactionService;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
@@ -78,9 +95,46 @@ import org.apache.webbeans.util.WebBeansUtil;
 @SuppressWarnings("unchecked")
 public final class NotificationManager
 {
+    /**
+     * Upper bound for the number of cached observer resolutions.
+     * Events with qualifiers carrying dynamic member values might otherwise
+     * let the cache grow without limit.
+     */
+    private static final int MAX_RESOLVED_OBSERVERS_CACHE_SIZE = 1000;
+
     private final Map<Type, Set<ObserverMethod<?>>> observers = new ConcurrentHashMap<Type, Set<ObserverMethod<?>>>();
     private final WebBeansContext webBeansContext;
 
+    /**
+     * Cache for the observer resolution of non-lifecycle events.
+     * It gets cleared whenever a new observer method gets added.
+     */
+    private final ConcurrentMap<ObserverCacheKey, ResolvedObservers> resolvedObservers
+        = new ConcurrentHashMap<ObserverCacheKey, ResolvedObservers>();
+
+    /**
+     * Token for the current set of observer methods. It gets replaced whenever
+     * the {@link #resolvedObservers} get cleared because of a new observer method.
+     */
+    private Object resolvedObserversGeneration = new Object();
+
+    /**
+     * Guards the {@link #resolvedObserversGeneration} and adding to the {@link #resolvedObservers}.
+     */
+    private final Object resolvedObserversLock = new Object();
+
+    /**
+     * Executor for the asynchronous event delivery, lazily created
+     * or set by the integrating container.
+     * @see #fireEventAsync(Object, EventMetadataImpl)
+     */
+    private volatile Executor asyncExecutor;
+
+    /**
+     * The executor we created ourself and thus need to shut down.
+     */
+    private ExecutorService ownedAsyncExecutor;
+
     public static final Set<Class> CONTAINER_EVENT_CLASSES = new HashSet<Class>();
     static {
         CONTAINER_EVENT_CLASSES.add(AfterBeanDiscovery.class);
@@ -132,6 +186,12 @@ public final class NotificationManager
         }
 
         set.add(observer);
+
+        synchronized (resolvedObserversLock)
+        {
+            resolvedObserversGeneration = new Object();
+            resolvedObservers.clear();
+        }
     }
 
     public <T> void addObserver(ObserverMethod<T> observer, TypeLiteral<T> typeLiteral)
@@ -559,84 +619,359 @@ public final class NotificationManager
             throw new IllegalArgumentException("Firing container events is forbidden");
         }
 
-        Set<ObserverMethod<? super Object>> observerMethods = resolveObservers(event, metadata, isLifecycleEvent);
-
-        for (ObserverMethod<? super Object> observer : observerMethods)
+        if (isLifecycleEvent)
         {
-            try
+            // the observers of lifecycle events also depend on the content of the event, so we cannot cache them
+            Set<ObserverMethod<? super Object>> observerMethods = resolveObservers(event, metadata, true);
+
+            for (ObserverMethod<? super Object> observer : observerMethods)
             {
-                if (isLifecycleEvent && !Extension.class.isAssignableFrom(observer.getBeanClass()))
+                if (!Extension.class.isAssignableFrom(observer.getBeanClass()))
                 {
                     // we must not fire Extension Lifecycle events to beans which are no Extensions
                     continue;
                 }
 
                 TransactionPhase phase = observer.getTransactionPhase();
-                
-                if(phase != null && !phase.equals(TransactionPhase.IN_PROGRESS))
+                notifyObserver(observer, event, metadata, true, phase != null && !phase.equals(TransactionPhase.IN_PROGRESS));
+            }
+            return;
+        }
+
+        MetricsService metricsService = webBeansContext.getMetricsService();
+        long start = metricsService.isEnabled() ? System.nanoTime() : 0L;
+
+        ResolvedObservers resolved = getResolvedObservers(event, metadata);
+
+        for (ObserverMethod<? super Object> observer : resolved.getImmediateObservers())
+        {
+            notifyObserver(observer, event, metadata, false, false);
+        }
+        for (ObserverMethod<? super Object> observer : resolved.getTransactionalObservers())
+        {
+            notifyObserver(observer, event, metadata, false, true);
+        }
+
+        if (metricsService.isEnabled())
+        {
+            metricsService.eventFired(metadata.validatedType(),
+                    resolved.getImmediateObservers().size() + resolved.getTransactionalObservers().size(),
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Fires all the given events, which must be of the same class.
+     *
+     * <p>The qualifiers get validated and the observers get resolved only once for the whole batch.
+     * Each observer then gets notified about all events before the next observer gets notified.</p>
+     *
+     * <p>An observer can opt into receiving the whole batch at once by observing exactly
+     * <code>List&lt;T&gt;</code>, where T is the class of the events, with matching qualifiers.
+     * Such an observer gets notified once per batch with an unmodifiable list of the events.
+     * Observers of other types which would accept a list, like <code>Object</code>,
+     * <code>Collection&lt;?&gt;</code> or the raw <code>List</code>, don't get notified about the batch.
+     * The batch observers get resolved once together with the observers of the single events.</p>
+     *
+     * @param events the events of the same class
+     * @param metadata the metadata of the events
+     */
+    public void fireEvents(Collection<?> events, EventMetadataImpl metadata)
+    {
+        if (events.isEmpty())
+        {
+            return;
+        }
+
+        Object firstEvent = events.iterator().next();
+        Class<?> eventClass = firstEvent.getClass();
+        for (Object event : events)
+        {
+            if (event.getClass() != eventClass)
+            {
+                throw new IllegalArgumentException("All events of a batch must be of the same class " + eventClass.getName()
+                                                   + " but found " + event.getClass().getName());
+            }
+        }
+        if (webBeansContext.getWebBeansUtil().isContainerEventType(firstEvent))
+        {
+            throw new IllegalArgumentException("Firing container events is forbidden");
+        }
+
+        MetricsService metricsService = webBeansContext.getMetricsService();
+        long start = metricsService.isEnabled() ? System.nanoTime() : 0L;
+
+        ResolvedObservers resolved = getResolvedObservers(firstEvent, metadata);
+
+        for (ObserverMethod<? super Object> observer : resolved.getImmediateObservers())
+        {
+            for (Object event : events)
+            {
+                notifyObserver(observer, event, metadata, false, false);
+            }
+        }
+        for (ObserverMethod<? super Object> observer : resolved.getTransactionalObservers())
+        {
+            for (Object event : events)
+            {
+                notifyObserver(observer, event, metadata, false, true);
+            }
+        }
+
+        int notifiedObservers = resolved.getImmediateObservers().size() + resolved.getTransactionalObservers().size();
+
+        ResolvedObservers batchObservers = resolved.getBatchObservers();
+        EventMetadataImpl batchMetadata = null;
+        if (batchObservers == null)
+        {
+            batchMetadata = createBatchMetadata(metadata);
+            batchObservers = resolveBatchObservers(metadata.validatedType(), batchMetadata);
+            resolved.setBatchObservers(batchObservers);
+        }
+
+        if (!batchObservers.isEmpty())
+        {
+            if (batchMetadata == null)
+            {
+                batchMetadata = createBatchMetadata(metadata);
+            }
+
+            List<Object> batch = Collections.unmodifiableList(new ArrayList<Object>(events));
+            for (ObserverMethod<? super Object> observer : batchObservers.getImmediateObservers())
+            {
+                notifyObserver(observer, batch, batchMetadata, false, false);
+            }
+            for (ObserverMethod<? super Object> observer : batchObservers.getTransactionalObservers())
+            {
+                notifyObserver(observer, batch, batchMetadata, false, true);
+            }
+            notifiedObservers += batchObservers.getImmediateObservers().size() + batchObservers.getTransactionalObservers().size();
+        }
+
+        if (metricsService.isEnabled())
+        {
+            metricsService.eventFired(metadata.validatedType(), notifiedObservers, System.nanoTime() - start);
+        }
+    }
+
+    private EventMetadataImpl createBatchMetadata(EventMetadataImpl metadata)
+    {
+        Set<Annotation> qualifiers = metadata.getQualifiers();
+        return new EventMetadataImpl(null, new OwbParametrizedTypeImpl(null, List.class, metadata.validatedType()),
+                metadata.getInjectionPoint(), qualifiers.toArray(new Annotation[qualifiers.size()]), webBeansContext);
+    }
+
+    /**
+     * @return the observers which observe exactly <code>List&lt;eventType&gt;</code>
+     */
+    private ResolvedObservers resolveBatchObservers(Type eventType, EventMetadataImpl batchMetadata)
+    {
+        Set<ObserverMethod<? super Object>> batchObservers = new LinkedHashSet<ObserverMethod<? super Object>>();
+        for (ObserverMethod<? super Object> observer : resolveObservers((Object) new ArrayList<Object>(), batchMetadata, false))
+        {
+            Type observedType = observer.getObservedType();
+            if (observedType instanceof ParameterizedType
+                    && List.class.equals(((ParameterizedType) observedType).getRawType())
+                    && eventType.equals(((ParameterizedType) observedType).getActualTypeArguments()[0]))
+            {
+                batchObservers.add(observer);
+            }
+        }
+        return new ResolvedObservers(batchObservers);
+    }
+
+    /**
+     * Fires the given event and returns without waiting for the observers
+     * if {@link org.apache.webbeans.config.OpenWebBeansConfiguration#ASYNC_EVENT_DELIVERY} is enabled.
+     *
+     * <p>The observers get notified on the asynchronous executor with a RequestContext
+     * of their own. The session and conversation of the firing thread are not propagated,
+     * as they must not be accessed concurrently. Transactional observers still get
+     * registered on the firing thread, as the transaction is bound to it.
+     * If the asynchronous delivery is disabled, all observers get notified on the firing thread.</p>
+     *
+     * <p>An exception of an observer does not prevent the notification of the others.
+     * All of them get reported via an {@link ObserverNotificationException} when
+     * calling {@link Future#get()}.</p>
+     *
+     * @param event the event
+     * @param metadata the event metadata
+     * @return the future which completes with the event once all observers got notified
+     */
+    public <T> Future<T> fireEventAsync(T event, EventMetadataImpl metadata)
+    {
+        if (webBeansContext.getWebBeansUtil().isContainerEventType(event))
+        {
+            throw new IllegalArgumentException("Firing container events is forbidden");
+        }
+
+        ResolvedObservers resolved = getResolvedObservers(event, metadata);
+
+        List<Throwable> failures = new ArrayList<Throwable>();
+        for (ObserverMethod<? super Object> observer : resolved.getTransactionalObservers())
+        {
+            try
+            {
+                notifyObserver(observer, event, metadata, false, true);
+            }
+            catch (RuntimeException e)
+            {
+                failures.add(e);
+            }
+        }
+
+        FutureTask<T> delivery = new FutureTask<T>(new AsyncEventDelivery<T>(event, metadata, resolved.getImmediateObservers(), failures,
+                                                                             WebBeansUtil.getCurrentClassLoader()));
+        if (webBeansContext.getOpenWebBeansConfiguration().isAsyncEventDelivery())
+        {
+            getAsyncExecutor().execute(delivery);
+        }
+        else
+        {
+            delivery.run();
+        }
+        return delivery;
+    }
+
+    /**
+     * Lets the integrating container provide the executor for the asynchronous event delivery,
+     * e.g. a managed executor. The container stays responsible for shutting it down.
+     */
+    public synchronized void setAsyncExecutor(Executor executor)
+    {
+        shutdown();
+        asyncExecutor = executor;
+    }
+
+    /**
+     * Shuts down the executor of the asynchronous event delivery if we created it.
+     */
+    public synchronized void shutdown()
+    {
+        if (ownedAsyncExecutor != null)
+        {
+            ownedAsyncExecutor.shutdown();
+            ownedAsyncExecutor = null;
+        }
+        asyncExecutor = null;
+    }
+
+    private Executor getAsyncExecutor()
+    {
+        Executor executor = asyncExecutor;
+        if (executor == null)
+        {
+            synchronized (this)
+            {
+                executor = asyncExecutor;
+                if (executor == null)
                 {
-                    TransactionService transactionService = webBeansContext.getService(TransactionService.class);
-                    if(transactionService != null)
-                    {
-                        transactionService.registerTransactionSynchronization(phase, observer, event);
-                    }
-                    else
-                    {
-                        if (observer instanceof OwbObserverMethod)
-                        {
-                            ((OwbObserverMethod<? super Object>)observer).notify(event, metadata);
-                        }
-                        else
-                        {
-                            observer.notify(event);
-                        }
-                    }                    
+                    ownedAsyncExecutor = Executors.newFixedThreadPool(webBeansContext.getOpenWebBeansConfiguration().getAsyncEventThreads(),
+                                                                      new AsyncEventThreadFactory());
+                    executor = ownedAsyncExecutor;
+                    asyncExecutor = executor;
                 }
-                else
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Resolves the observers for a non-lifecycle event.
+     * The result only depends on the event class, the event type and the qualifiers.
+     * Thus it gets cached until the next observer method gets added.
+     */
+    private ResolvedObservers getResolvedObservers(Object event, EventMetadataImpl metadata)
+    {
+        ObserverCacheKey cacheKey = new ObserverCacheKey(event.getClass(), metadata.validatedType(), metadata.getQualifiers());
+        ResolvedObservers resolved = resolvedObservers.get(cacheKey);
+        if (resolved == null)
+        {
+            Object generation;
+            synchronized (resolvedObserversLock)
+            {
+                generation = resolvedObserversGeneration;
+            }
+
+            resolved = new ResolvedObservers(resolveObservers(event, metadata, false));
+
+            synchronized (resolvedObserversLock)
+            {
+                // an observer method got added in the meantime, thus the result might miss it
+                if (generation == resolvedObserversGeneration)
                 {
-                    if (observer instanceof OwbObserverMethod)
+                    if (resolvedObservers.size() >= MAX_RESOLVED_OBSERVERS_CACHE_SIZE)
                     {
-                        ((OwbObserverMethod<? super Object>)observer).notify(event, metadata);
-                    }
-                    else
-                    {
-                        observer.notify(event);
+                        resolvedObservers.clear();
                     }
+                    resolvedObservers.put(cacheKey, resolved);
                 }
             }
-            catch (WebBeansException e)
+        }
+        else if (resolved.isEmpty())
+        {
+            // same check as in #resolveObservers for every event which has no observer
+            EventUtil.checkQualifierImplementations(metadata.getQualifiers());
+        }
+        return resolved;
+    }
+
+    private void notifyObserver(ObserverMethod<? super Object> observer, Object event, EventMetadataImpl metadata,
+                                boolean isLifecycleEvent, boolean transactional)
+    {
+        try
+        {
+            if (transactional)
             {
-                Throwable exc = e.getCause();
-                if(exc instanceof InvocationTargetException)
+                TransactionService transactionService = webBeansContext.getService(TransactionService.class);
+                if (transactionService != null)
                 {
-                    InvocationTargetException invt = (InvocationTargetException)exc;
-                    exc = invt.getCause();
+                    transactionService.registerTransactionSynchronization(observer.getTransactionPhase(), observer, event);
+                    return;
                 }
+            }
 
-                if (isLifecycleEvent)
-                {
-                    throw new WebBeansConfigurationException("Error while sending SystemEvent to a CDI Extension! " + event.toString(), e);
-                }
-                
-                if (!RuntimeException.class.isAssignableFrom(exc.getClass()))
-                {
-                    throw new ObserverException(WebBeansLoggerFacade.getTokenString(OWBLogConst.EXCEPT_0008) + event.getClass().getName(), e);
-                }
-                else
-                {
-                    RuntimeException rte = (RuntimeException) exc;
-                    throw rte;
-                }
+            if (observer instanceof OwbObserverMethod)
+            {
+                ((OwbObserverMethod<? super Object>)observer).notify(event, metadata);
             }
-            catch (RuntimeException e)
+            else
+            {
+                observer.notify(event);
+            }
+        }
+        catch (WebBeansException e)
+        {
+            Throwable exc = e.getCause();
+            if(exc instanceof InvocationTargetException)
             {
-                throw e;
+                InvocationTargetException invt = (InvocationTargetException)exc;
+                exc = invt.getCause();
             }
 
-            catch (Exception e)
+            if (isLifecycleEvent)
             {
-                throw new WebBeansException(e);
+                throw new WebBeansConfigurationException("Error while sending SystemEvent to a CDI Extension! " + event.toString(), e);
             }
+
+            if (!RuntimeException.class.isAssignableFrom(exc.getClass()))
+            {
+                throw new ObserverException(WebBeansLoggerFacade.getTokenString(OWBLogConst.EXCEPT_0008) + event.getClass().getName(), e);
+            }
+            else
+            {
+                RuntimeException rte = (RuntimeException) exc;
+                throw rte;
+            }
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+
+        catch (Exception e)
+        {
+            throw new WebBeansException(e);
         }
     }
 
@@ -673,4 +1008,203 @@ public final class NotificationManager
         return CONTAINER_EVENT_CLASSES.contains(paramType);
     }
 
+    /**
+     * Notifies the immediate observers of an event fired via {@link #fireEventAsync(Object, EventMetadataImpl)}.
+     */
+    private final class AsyncEventDelivery<T> implements Callable<T>
+    {
+        private final T event;
+        private final EventMetadataImpl metadata;
+        private final List<ObserverMethod<? super Object>> observers;
+        private final List<Throwable> failures;
+        private final ClassLoader classLoader;
+
+        private AsyncEventDelivery(T event, EventMetadataImpl metadata, List<ObserverMethod<? super Object>> observers,
+                                   List<Throwable> failures, ClassLoader classLoader)
+        {
+            this.event = event;
+            this.metadata = metadata;
+            this.observers = observers;
+            this.failures = failures;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public T call()
+        {
+            Thread thread = Thread.currentThread();
+            ClassLoader oldClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+
+            // only activate a RequestContext if there is none, e.g. if we run on the firing thread
+            ContextsService contextsService = webBeansContext.getContextsService();
+            Context requestContext = contextsService.getCurrentContext(RequestScoped.class);
+            boolean activateRequestContext = requestContext == null || !requestContext.isActive();
+            if (activateRequestContext)
+            {
+                contextsService.startContext(RequestScoped.class, null);
+            }
+
+            try
+            {
+                MetricsService metricsService = webBeansContext.getMetricsService();
+                long start = metricsService.isEnabled() ? System.nanoTime() : 0L;
+
+                for (ObserverMethod<? super Object> observer : observers)
+                {
+                    try
+                    {
+                        notifyObserver(observer, event, metadata, false, false);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        failures.add(e);
+                    }
+                }
+
+                if (metricsService.isEnabled())
+                {
+                    metricsService.eventFired(metadata.validatedType(), observers.size(), System.nanoTime() - start);
+                }
+            }
+            finally
+            {
+                if (activateRequestContext)
+                {
+                    contextsService.endContext(RequestScoped.class, null);
+                }
+                thread.setContextClassLoader(oldClassLoader);
+            }
+
+            if (!failures.isEmpty())
+            {
+                throw new ObserverNotificationException(WebBeansLoggerFacade.getTokenString(OWBLogConst.EXCEPT_0008) + event.getClass().getName(),
+                                                        failures);
+            }
+            return event;
+        }
+    }
+
+    private static final class AsyncEventThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, "OWB-event-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Cache key for the observer resolution of an event.
+     */
+    private static final class ObserverCacheKey
+    {
+        private final Class<?> eventClass;
+        private final Type eventType;
+        private final Set<Annotation> qualifiers;
+        private final int hashCode;
+
+        private ObserverCacheKey(Class<?> eventClass, Type eventType, Set<Annotation> qualifiers)
+        {
+            this.eventClass = eventClass;
+            this.eventType = eventType;
+            this.qualifiers = qualifiers;
+
+            int result = eventClass.hashCode();
+            result = 31 * result + eventType.hashCode();
+            result = 31 * result + qualifiers.hashCode();
+            hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof ObserverCacheKey))
+            {
+                return false;
+            }
+
+            ObserverCacheKey other = (ObserverCacheKey) o;
+            return hashCode == other.hashCode
+                    && eventClass == other.eventClass
+                    && eventType.equals(other.eventType)
+                    && qualifiers.equals(other.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The resolved observers of an event, already split into the observers which
+     * get notified immediately and the ones which depend on the transaction phase.
+     */
+    private static final class ResolvedObservers
+    {
+        private final List<ObserverMethod<? super Object>> immediateObservers;
+        private final List<ObserverMethod<? super Object>> transactionalObservers;
+
+        /**
+         * The observers of <code>List&lt;T&gt;</code> for batches of these events, resolved on the first batch
+         */
+        private volatile ResolvedObservers batchObservers;
+
+        private ResolvedObservers(Set<ObserverMethod<? super Object>> observerMethods)
+        {
+            List<ObserverMethod<? super Object>> immediate = new ArrayList<ObserverMethod<? super Object>>(observerMethods.size());
+            List<ObserverMethod<? super Object>> transactional = new ArrayList<ObserverMethod<? super Object>>();
+            for (ObserverMethod<? super Object> observer : observerMethods)
+            {
+                TransactionPhase phase = observer.getTransactionPhase();
+                if (phase != null && !phase.equals(TransactionPhase.IN_PROGRESS))
+                {
+                    transactional.add(observer);
+                }
+                else
+                {
+                    immediate.add(observer);
+                }
+            }
+
+            immediateObservers = immediate;
+            transactionalObservers = transactional.isEmpty()
+                    ? Collections.<ObserverMethod<? super Object>>emptyList() : transactional;
+        }
+
+        private List<ObserverMethod<? super Object>> getImmediateObservers()
+        {
+            return immediateObservers;
+        }
+
+        private List<ObserverMethod<? super Object>> getTransactionalObservers()
+        {
+            return transactionalObservers;
+        }
+
+        private boolean isEmpty()
+        {
+            return immediateObservers.isEmpty() && transactionalObservers.isEmpty();
+        }
+
+        private ResolvedObservers getBatchObservers()
+        {
+            return batchObservers;
+        }
+
+        private void setBatchObservers(ResolvedObservers batchObservers)
+        {
+            this.batchObservers = batchObservers;
+        }
+    }
 }
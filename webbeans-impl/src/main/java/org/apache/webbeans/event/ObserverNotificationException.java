@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.enterprise.event.ObserverException;
+
+/**
+ * Reports all the exceptions thrown by the observers of an event
+ * which got fired via {@link NotificationManager#fireEventAsync(Object, EventMetadataImpl)}.
+ * Each observer gets notified even if a previous one failed.
+ */
+public class ObserverNotificationException extends ObserverException
+{
+    private static final long serialVersionUID = -2817381236464711052L;
+
+    private final List<Throwable> failures;
+
+    public ObserverNotificationException(String message, List<Throwable> failures)
+    {
+        super(message, failures.get(0));
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * @return the exceptions of all failed observers in the order of the notification
+     */
+    public List<Throwable> getFailures()
+    {
+        return failures;
+    }
+}
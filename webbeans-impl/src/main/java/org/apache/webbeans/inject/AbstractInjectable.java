@@ -73,7 +73,31 @@ public abstract class AbstractInjectable<T>
      */
     public T inject(InjectionPoint injectionPoint)
     {
-        T injected;
+        CreationalContext<?> injectionPointContext;
+        if (injectionPoint.getAnnotated().isAnnotationPresent(TransientReference.class))
+        {
+            injectionPointContext = transientCreationalContext;
+        }
+        else
+        {
+            injectionPointContext = creationalContext;
+        }
+
+        return (T) injectReference(injectionPoint, creationalContext, injectionPointContext);
+    }
+
+    /**
+     * Gets the injected bean instance in its scoped context without creating an injectable.
+     * @param injectionPoint injection point definition
+     * @param creationalContext the CreationalContext of the instance which gets injected
+     * @param injectionPointContext the CreationalContext to create the reference with,
+     *                              differs from the creationalContext for a &#064;TransientReference
+     * @return current bean instance in the resolved bean scope
+     */
+    public static Object injectReference(InjectionPoint injectionPoint, CreationalContextImpl<?> creationalContext,
+                                         CreationalContext<?> injectionPointContext)
+    {
+        Object injected;
         BeanManagerImpl beanManager = creationalContext.getWebBeansContext().getBeanManagerImpl();
 
         //Injected contextual beam
@@ -96,19 +120,9 @@ public abstract class AbstractInjectable<T>
                 }
             }
         }
-        
-        CreationalContext<?> injectionPointContext;
-        if (injectionPoint.getAnnotated().isAnnotationPresent(TransientReference.class))
-        {
-            injectionPointContext = transientCreationalContext;
-        }
-        else
-        {
-            injectionPointContext = creationalContext;
-        }
 
         //Gets injectable reference for injected bean
-        injected = (T) beanManager.getInjectableReference(injectionPoint, injectionPointContext);
+        injected = beanManager.getInjectableReference(injectionPoint, injectionPointContext);
 
         if (injected == null)
         {
@@ -119,7 +133,7 @@ public abstract class AbstractInjectable<T>
             Class<?> type = ClassUtil.getClass(injectionPoint.getType());
             if (type.isPrimitive())
             {
-                injected = (T) ClassUtil.getDefaultValue(type);
+                injected = ClassUtil.getDefaultValue(type);
             }
         }
 
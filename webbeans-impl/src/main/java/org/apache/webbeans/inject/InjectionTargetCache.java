@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.inject;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.InjectionTarget;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.spi.MetricsService;
+
+/**
+ * <p>Caches the {@link InjectionTarget}s which {@link OWBInjector} uses to inject
+ * non-contextual instances like servlets, filters and JSP tag handlers.</p>
+ *
+ * <p>The cache is keyed by the Class itself, so a class which got reloaded by a new
+ * ClassLoader never gets the InjectionTarget of its old version.
+ * It holds at most {@link org.apache.webbeans.config.OpenWebBeansConfiguration#INJECTION_TARGET_CACHE_SIZE}
+ * entries and evicts the oldest ones first.</p>
+ */
+public class InjectionTargetCache
+{
+    private final WebBeansContext webBeansContext;
+
+    private final ConcurrentMap<Class<?>, InjectionTarget<?>> injectionTargets = new ConcurrentHashMap<Class<?>, InjectionTarget<?>>();
+
+    /**
+     * The cached classes in the order they got added. Used to evict the oldest entries.
+     */
+    private final Queue<Class<?>> cachedClasses = new ConcurrentLinkedQueue<Class<?>>();
+
+    /**
+     * lazily read from the configuration, -1 if not yet initialised.
+     */
+    private volatile int maxSize = -1;
+
+    public InjectionTargetCache(WebBeansContext webBeansContext)
+    {
+        this.webBeansContext = webBeansContext;
+    }
+
+    /**
+     * @return the cached InjectionTarget for the given class or a new one if there is none yet
+     */
+    public <T> InjectionTarget<T> getInjectionTarget(Class<T> type)
+    {
+        int max = getMaxSize();
+        if (max <= 0)
+        {
+            return createInjectionTarget(type);
+        }
+
+        MetricsService metricsService = webBeansContext.getMetricsService();
+        InjectionTarget<T> injectionTarget = (InjectionTarget<T>) injectionTargets.get(type);
+        if (injectionTarget != null)
+        {
+            metricsService.injectionTargetCacheHit();
+            return injectionTarget;
+        }
+
+        metricsService.injectionTargetCacheMiss();
+        injectionTarget = createInjectionTarget(type);
+
+        InjectionTarget<T> existing = (InjectionTarget<T>) injectionTargets.putIfAbsent(type, injectionTarget);
+        if (existing != null)
+        {
+            return existing;
+        }
+
+        cachedClasses.add(type);
+        evict(max, metricsService);
+
+        return injectionTarget;
+    }
+
+    /**
+     * Removes the InjectionTargets of all classes which got loaded by the given ClassLoader
+     * or one of its children, e.g. when a web application or a JSP gets reloaded.
+     */
+    public void clear(ClassLoader classLoader)
+    {
+        Iterator<Class<?>> classes = cachedClasses.iterator();
+        while (classes.hasNext())
+        {
+            Class<?> cachedClass = classes.next();
+            if (isLoadedBy(cachedClass, classLoader))
+            {
+                classes.remove();
+                injectionTargets.remove(cachedClass);
+            }
+        }
+    }
+
+    /**
+     * Removes all cached InjectionTargets.
+     */
+    public void clear()
+    {
+        injectionTargets.clear();
+        cachedClasses.clear();
+    }
+
+    /**
+     * @return the number of cached InjectionTargets
+     */
+    public int size()
+    {
+        return injectionTargets.size();
+    }
+
+    private <T> InjectionTarget<T> createInjectionTarget(Class<T> type)
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        AnnotatedType<T> annotatedType = beanManager.createAnnotatedType(type);
+        return beanManager.createInjectionTarget(annotatedType);
+    }
+
+    private void evict(int max, MetricsService metricsService)
+    {
+        while (injectionTargets.size() > max)
+        {
+            Class<?> eldest = cachedClasses.poll();
+            if (eldest == null)
+            {
+                break;
+            }
+            if (injectionTargets.remove(eldest) != null)
+            {
+                metricsService.injectionTargetCacheEviction();
+            }
+        }
+    }
+
+    private int getMaxSize()
+    {
+        int max = maxSize;
+        if (max < 0)
+        {
+            max = webBeansContext.getOpenWebBeansConfiguration().getInjectionTargetCacheSize();
+            maxSize = max;
+        }
+        return max;
+    }
+
+    private static boolean isLoadedBy(Class<?> cachedClass, ClassLoader classLoader)
+    {
+        ClassLoader loader = cachedClass.getClassLoader();
+        while (loader != null)
+        {
+            if (loader == classLoader)
+            {
+                return true;
+            }
+            loader = loader.getParent();
+        }
+        return false;
+    }
+}
@@ -21,10 +21,15 @@ package org.apache.webbeans.inject;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionTarget;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
 
 /**
  * Injects dependencies of the given Java EE component
- * instance.
+ * instance. The InjectionTargets get cached per class,
+ * see {@link InjectionTargetCache}.
  * 
  * @version $Rev$ $Date$
  *
@@ -53,8 +58,18 @@ public final class OWBInjector
             creationalContext = beanManager.createCreationalContext(null);
         }
 
-        AnnotatedType annotatedType = beanManager.createAnnotatedType(instanceUnderInjection.getClass());
-        beanManager.createInjectionTarget(annotatedType).inject(instanceUnderInjection, creationalContext);
+        InjectionTarget injectionTarget;
+        if (beanManager instanceof BeanManagerImpl)
+        {
+            WebBeansContext webBeansContext = ((BeanManagerImpl) beanManager).getWebBeansContext();
+            injectionTarget = webBeansContext.getInjectionTargetCache().getInjectionTarget(instanceUnderInjection.getClass());
+        }
+        else
+        {
+            AnnotatedType annotatedType = beanManager.createAnnotatedType(instanceUnderInjection.getClass());
+            injectionTarget = beanManager.createInjectionTarget(annotatedType);
+        }
+        injectionTarget.inject(instanceUnderInjection, creationalContext);
     }
 
 
@@ -46,13 +46,14 @@ import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.InjectionPoint;
 
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.InjectionResolver;
 import org.apache.webbeans.event.EventUtil;
 import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.util.Asserts;
 import org.apache.webbeans.util.OwbCustomObjectInputStream;
 import org.apache.webbeans.util.WebBeansUtil;
 
-class InjectionPointImpl implements InjectionPoint, Serializable
+class InjectionPointImpl implements InjectionPoint, Serializable, InjectionResolver.ResolvedBeanHolder
 {
     private static final long serialVersionUID = 1047233127758068484L;
 
@@ -69,6 +70,9 @@ class InjectionPointImpl implements InjectionPoint, Serializable
     private boolean transientt;
     
     private boolean delegate;
+
+    /**the bean this injection point got resolved to, see InjectionResolver#getInjectionPointBean*/
+    private transient volatile InjectionResolver.ResolvedBean resolvedBean;
     
     InjectionPointImpl(Bean<?> ownerBean, Collection<Annotation> qualifiers, AnnotatedField<?> annotatedField)
     {
@@ -169,6 +173,18 @@ class InjectionPointImpl implements InjectionPoint, Serializable
         return transientt;
     }
     
+    @Override
+    public InjectionResolver.ResolvedBean getResolvedBean()
+    {
+        return resolvedBean;
+    }
+
+    @Override
+    public void setResolvedBean(InjectionResolver.ResolvedBean resolvedBean)
+    {
+        this.resolvedBean = resolvedBean;
+    }
+
     private void writeObject(java.io.ObjectOutputStream op) throws IOException
     {
         ObjectOutputStream out = new ObjectOutputStream(op);
@@ -30,6 +30,11 @@ import javax.interceptor.InvocationContext;
 
 import org.apache.webbeans.util.ExceptionUtil;
 
+/**
+ * Base class for the InvocationContexts of business methods and constructors.
+ * The given member must already be accessible. For intercepted business methods
+ * this gets done once in {@link InterceptorResolutionService}.
+ */
 public abstract class AbstractInvocationContext<T> implements InvocationContext
 {
 
@@ -44,10 +49,6 @@ public abstract class AbstractInvocationContext<T> implements InvocationContext
         this.target = target;
         this.member = member;
         this.parameters = parameters;
-        if (!member.isAccessible())
-        {
-            member.setAccessible(true);
-        }
     }
 
     public AbstractInvocationContext(Provider<T> target, Method method, Object[] parameters, Object timer)
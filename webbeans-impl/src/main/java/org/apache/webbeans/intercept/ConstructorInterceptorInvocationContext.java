@@ -38,6 +38,10 @@ public class ConstructorInterceptorInvocationContext<T> extends InterceptorInvoc
                                                    final Constructor<T> cons, final Object[] parameters)
     {
         super(provider, InterceptionType.AROUND_CONSTRUCT, aroundConstructInterceptors, interceptorInstances, cons, parameters);
+        if (!cons.isAccessible())
+        {
+            cons.setAccessible(true);
+        }
     }
 
     public Object getNewInstance()
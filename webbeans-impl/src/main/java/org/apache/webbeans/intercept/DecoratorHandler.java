@@ -89,10 +89,6 @@ public class DecoratorHandler implements InterceptorHandler, Externalizable
                 {
                     try
                     {
-                        if (!decoratingMethod.isAccessible())
-                        {
-                            decoratingMethod.setAccessible(true);
-                        }
                         return decoratingMethod.invoke(instances.get(decorator), args);
                     }
                     catch (InvocationTargetException e)
@@ -108,10 +104,6 @@ public class DecoratorHandler implements InterceptorHandler, Externalizable
         }
         try
         {
-            if (!method.isAccessible())
-            {
-                method.setAccessible(true);
-            }
             return method.invoke(target, args);
         }
         catch (InvocationTargetException e)
@@ -24,6 +24,8 @@ import org.apache.webbeans.component.WebBeansType;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.portable.InjectionTargetImpl;
 import org.apache.webbeans.proxy.InterceptorHandler;
+import org.apache.webbeans.proxy.MethodInvoker;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
 import org.apache.webbeans.util.ExceptionUtil;
 import org.apache.webbeans.util.WebBeansUtil;
 
@@ -39,9 +41,9 @@ import java.io.NotSerializableException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.ObjectStreamException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -75,6 +77,18 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
     private Map<Method, List<Interceptor<?>>> interceptors;
     private Map<Interceptor<?>, ?> instances;
 
+    /**
+     * Call the intercepted methods at the end of the chain.
+     * They get bound when the proxy class gets defined.
+     */
+    private transient Map<Method, MethodInvoker> methodInvokers;
+
+    /**
+     * Provides the {@link #delegate} to the InvocationContexts.
+     * It gets created once per handler and is shared by all invocations.
+     */
+    private transient Provider<T> delegateProvider;
+
     /**
      * InterceptorHandler wich gets used in our InjectionTargets which
      * support interceptors and decorators
@@ -89,12 +103,28 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
                                      Map<Method, List<Interceptor<?>>> interceptors,
                                      Map<Interceptor<?>, ?> instances,
                                      String beanPassivationId)
+    {
+        this(target, delegate, interceptors, null, instances, beanPassivationId);
+    }
+
+    /**
+     * @param methodInvokers the invokers of the intercepted methods, <code>null</code> to use reflection
+     * @see #DefaultInterceptorHandler(Object, Object, Map, Map, String)
+     */
+    public DefaultInterceptorHandler(T target,
+                                     T delegate,
+                                     Map<Method, List<Interceptor<?>>> interceptors,
+                                     Map<Method, MethodInvoker> methodInvokers,
+                                     Map<Interceptor<?>, ?> instances,
+                                     String beanPassivationId)
     {
         this.target = target;
         this.delegate = delegate;
         this.instances = instances;
         this.interceptors = interceptors;
+        this.methodInvokers = methodInvokers;
         this.beanPassivationId = beanPassivationId;
+        this.delegateProvider = new InstanceProvider<T>(delegate);
     }
 
     public DefaultInterceptorHandler()
@@ -128,13 +158,15 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         try
         {
             List<Interceptor<?>> methodInterceptors = interceptors.get(method);
-            if (methodInterceptors == null)
+            MethodInvoker methodInvoker = methodInvokers != null ? methodInvokers.get(method) : null;
+            if (methodInterceptors == null || methodInterceptors.isEmpty())
             {
-                methodInterceptors = Collections.emptyList();
+                // no AroundInvoke interceptor is bound to this method, e.g. if it is only decorated
+                return invokeDelegate(method, methodInvoker, parameters);
             }
 
-            InterceptorInvocationContext<T> ctx
-                = new InterceptorInvocationContext<T>(new InstanceProvider(delegate), InterceptionType.AROUND_INVOKE, methodInterceptors, instances, method, parameters);
+            InterceptorInvocationContext<T> ctx = new InterceptorInvocationContext<T>(delegateProvider, InterceptionType.AROUND_INVOKE,
+                    methodInterceptors, instances, method, methodInvoker, parameters);
 
             return ctx.proceed();
         }
@@ -144,6 +176,24 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         }
     }
 
+    private Object invokeDelegate(Method method, MethodInvoker methodInvoker, Object[] parameters) throws Exception
+    {
+        if (methodInvoker != null)
+        {
+            return methodInvoker.invoke(delegate, parameters);
+        }
+
+        try
+        {
+            return method.invoke(delegate, parameters);
+        }
+        catch (InvocationTargetException ite)
+        {
+            // unpack the reflection Exception
+            throw ExceptionUtil.throwAsRuntimeException(ite.getCause());
+        }
+    }
+
     /**
      * The following code gets generated into the proxy:
      *
@@ -225,6 +275,7 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         {
             delegate = (T) in.readObject();
         }
+        delegateProvider = new InstanceProvider<T>(delegate);
 
         final int instancesSize = in.readInt();
         final WebBeansContext webBeansContext = WebBeansContext.getInstance();
@@ -272,6 +323,13 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
             interceptors.put(method, interceptorList);
         }
 
+        MethodInvokerFactory methodInvokerFactory = webBeansContext.getMethodInvokerFactory();
+        methodInvokers = new HashMap<Method, MethodInvoker>(interceptorsSize);
+        for (Method method : interceptors.keySet())
+        {
+            methodInvokers.put(method, methodInvokerFactory.getMethodInvoker(method));
+        }
+
         beanPassivationId = in.readUTF();
     }
 
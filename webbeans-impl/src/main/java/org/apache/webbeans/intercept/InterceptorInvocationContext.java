@@ -26,6 +26,8 @@ import javax.enterprise.inject.spi.InterceptionType;
 import javax.enterprise.inject.spi.Interceptor;
 import javax.inject.Provider;
 
+import org.apache.webbeans.proxy.MethodInvoker;
+
 /**
  * InvocationContext for business method interceptors
  */
@@ -36,35 +38,56 @@ public class InterceptorInvocationContext<T> extends AbstractInvocationContext<T
     protected List<Interceptor<?>> interceptors;
     protected Map<Interceptor<?>, ?> instances;
     protected int index = 0;
+
+    /**
+     * Calls the intercepted method at the end of the chain, <code>null</code> to use reflection
+     */
+    protected MethodInvoker methodInvoker;
     
     public InterceptorInvocationContext(Provider<T> provider, InterceptionType type,
                                         List<Interceptor<?>> interceptors, Map<Interceptor<?>, ?> instances,
                                         AccessibleObject method, Object[] parameters)
+    {
+        this(provider, type, interceptors, instances, method, null, parameters);
+    }
+
+    public InterceptorInvocationContext(Provider<T> provider, InterceptionType type,
+                                        List<Interceptor<?>> interceptors, Map<Interceptor<?>, ?> instances,
+                                        AccessibleObject method, MethodInvoker methodInvoker, Object[] parameters)
     {
         super(provider, method, parameters);
         this.type = type;
         this.interceptors = interceptors;
         this.instances = instances;
+        this.methodInvoker = methodInvoker;
     }
 
     @Override
     public Object proceed() throws Exception
     {
-        if (index < interceptors.size())
+        while (index < interceptors.size())
         {
             Interceptor interceptor = interceptors.get(index++);
-            if (!interceptor.intercepts(type))
+            if (interceptor.intercepts(type))
             {
-                // continue with next interceptor
-                // this e.g. happens for lifecycle interceptors
-                return proceed();
+                return interceptor.intercept(type, instances.get(interceptor), this);
             }
 
-            return interceptor.intercept(type, instances.get(interceptor), this);
+            // continue with next interceptor
+            // this e.g. happens for lifecycle interceptors
         }
-        else
+
+        return super.proceed();
+    }
+
+    @Override
+    public Object directProceed() throws Exception
+    {
+        if (methodInvoker != null)
         {
-            return super.proceed();
+            return methodInvoker.invoke(target.get(), parameters);
         }
+
+        return super.directProceed();
     }
 }
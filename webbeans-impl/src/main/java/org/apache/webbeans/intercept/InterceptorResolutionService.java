@@ -27,6 +27,7 @@ import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.spi.SecurityService;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
 import org.apache.webbeans.util.ClassUtil;
@@ -48,6 +49,7 @@ import javax.interceptor.ExcludeClassInterceptors;
 import javax.interceptor.Interceptors;
 import javax.interceptor.InvocationContext;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -228,6 +230,9 @@ public class InterceptorResolutionService
             }
         }
 
+        makeAccessible(businessMethodInterceptorInfos);
+        makeAccessible(constructorInterceptorInfos);
+
         return new BeanInterceptorInfo(decorators, allUsedEjbInterceptors,
                                        cdiInterceptors, cdiConstructorInterceptors,
                                        selfInterceptorBean,
@@ -235,6 +240,37 @@ public class InterceptorResolutionService
                                        nonInterceptedMethods, lifecycleMethodInterceptorInfos);
     }
 
+    /**
+     * The intercepted and decorated members get invoked via reflection on each business method call.
+     * We make them accessible once while the interceptor information gets calculated,
+     * so the invocation path doesn't need to touch the reflection state anymore.
+     */
+    private void makeAccessible(Map<? extends AccessibleObject, BusinessMethodInterceptorInfo> interceptorInfos)
+    {
+        SecurityService securityService = webBeansContext.getSecurityService();
+        for (Map.Entry<? extends AccessibleObject, BusinessMethodInterceptorInfo> entry : interceptorInfos.entrySet())
+        {
+            setAccessible(securityService, entry.getKey());
+
+            LinkedHashMap<Decorator<?>, Method> methodDecorators = entry.getValue().getMethodDecorators();
+            if (methodDecorators != null)
+            {
+                for (Method decoratingMethod : methodDecorators.values())
+                {
+                    setAccessible(securityService, decoratingMethod);
+                }
+            }
+        }
+    }
+
+    private void setAccessible(SecurityService securityService, AccessibleObject member)
+    {
+        if (!securityService.doPrivilegedIsAccessible(member))
+        {
+            securityService.doPrivilegedSetAccessible(member, true);
+        }
+    }
+
     /**
      * Lifycycle methods like {@link javax.annotation.PostConstruct} and
      * {@link javax.annotation.PreDestroy} must not define a checked Exception
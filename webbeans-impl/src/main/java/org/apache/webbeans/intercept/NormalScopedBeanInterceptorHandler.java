@@ -29,6 +29,7 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
 
 /**
  * <p>A Provider which handles all NormalScoped proxying.
@@ -48,6 +49,12 @@ public class NormalScopedBeanInterceptorHandler implements Provider, Serializabl
     private transient BeanManager beanManager;
     protected transient Bean<?> bean;
 
+    /**
+     * Directly provides the current context of the bean's scope,
+     * or <code>null</code> if the ContextsService has no fast path for it.
+     */
+    private transient Provider<Context> contextProvider;
+
     /**
      * The passivation if in case this is a {@link PassivationCapable} bean.
      * we just keep this field for serializing it away
@@ -62,6 +69,15 @@ public class NormalScopedBeanInterceptorHandler implements Provider, Serializabl
         {
             beanPassivationId = ((PassivationCapable) bean).getId();
         }
+        initContextProvider();
+    }
+
+    private void initContextProvider()
+    {
+        if (beanManager instanceof BeanManagerImpl)
+        {
+            contextProvider = ((BeanManagerImpl) beanManager).getContextProvider(bean.getScope());
+        }
     }
 
     @Override
@@ -85,7 +101,7 @@ public class NormalScopedBeanInterceptorHandler implements Provider, Serializabl
         Object webbeansInstance;
 
         //Context of the bean
-        Context webbeansContext = beanManager.getContext(bean.getScope());
+        Context webbeansContext = getContext();
 
         //Already saved in context?
         webbeansInstance = webbeansContext.get(bean);
@@ -106,6 +122,21 @@ public class NormalScopedBeanInterceptorHandler implements Provider, Serializabl
         return webbeansInstance;
     }
 
+    private Context getContext()
+    {
+        if (contextProvider != null)
+        {
+            Context context = contextProvider.get();
+            if (context != null && context.isActive())
+            {
+                return context;
+            }
+        }
+
+        // no fast path or no active standard context, do the full lookup
+        return beanManager.getContext(bean.getScope());
+    }
+
     /**
      * The following code gets generated into the proxy:
      *
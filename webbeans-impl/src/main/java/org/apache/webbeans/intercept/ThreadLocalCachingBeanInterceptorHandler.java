@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.context.AbstractContextsService;
+import org.apache.webbeans.context.ThreadLocalInstanceCache;
+import org.apache.webbeans.spi.ContextsService;
+
+
+/**
+ * <p>This is a {@link javax.inject.Provider} for NormalScoped beans whose
+ * contexts are bound to the current thread, like &#064;RequestScoped.</p>
+ *
+ * <p>Since there is only one single contextual instance of such a bean per thread,
+ * we can cache this instance per thread. The cache is provided by the
+ * {@link ContextsService} via {@link AbstractContextsService#getInstanceCache(Class)}
+ * and gets cleared by it when the context ends. If the ContextsService doesn't
+ * provide a cache for the scope of the bean this handler behaves exactly like
+ * the {@link NormalScopedBeanInterceptorHandler}.</p>
+ *
+ * <p>If the application uses {@link javax.enterprise.context.spi.AlterableContext#destroy(javax.enterprise.context.spi.Contextual)}
+ * on such beans then the standard NormalScopedBeanInterceptorHandler must be configured to prevent any caching.</p>
+ */
+public class ThreadLocalCachingBeanInterceptorHandler extends NormalScopedBeanInterceptorHandler
+{
+    /**default serial id*/
+    private static final long serialVersionUID = 1L;
+
+    private transient ThreadLocalInstanceCache instanceCache;
+
+    private transient int slot;
+
+
+    public ThreadLocalCachingBeanInterceptorHandler(BeanManager beanManager, Bean<?> bean)
+    {
+        super(beanManager, bean);
+
+        if (beanManager instanceof BeanManagerImpl)
+        {
+            ContextsService contextsService = ((BeanManagerImpl) beanManager).getWebBeansContext().getContextsService();
+            if (contextsService instanceof AbstractContextsService)
+            {
+                instanceCache = ((AbstractContextsService) contextsService).getInstanceCache(bean.getScope());
+                if (instanceCache != null)
+                {
+                    slot = instanceCache.getSlot(bean);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getContextualInstance()
+    {
+        if (instanceCache == null)
+        {
+            return super.getContextualInstance();
+        }
+
+        Object cachedInstance = instanceCache.get(slot);
+        if (cachedInstance == null)
+        {
+            cachedInstance = super.getContextualInstance();
+            instanceCache.put(slot, cachedInstance);
+        }
+
+        return cachedInstance;
+    }
+
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.lifecycle;
 
+import java.io.Closeable;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -36,6 +37,7 @@ import org.apache.webbeans.portable.events.discovery.BeforeShutdownImpl;
 import org.apache.webbeans.spi.ContainerLifecycle;
 import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.JNDIService;
+import org.apache.webbeans.spi.MetricsService;
 import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.util.WebBeansConstants;
 import org.apache.webbeans.util.WebBeansUtil;
@@ -129,7 +131,9 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
         logger.fine("Scanning classpaths for beans artifacts.");
 
         //Scan
+        long scanStart = System.nanoTime();
         scannerService.scan();
+        webBeansContext.getMetricsService().deploymentPhaseFinished("Scanning", System.nanoTime() - scanStart);
         
         //Deploy beans
         logger.fine("Deploying scanned beans.");
@@ -172,6 +176,16 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
 
             //Free all plugin resources
             webBeansContext.getPluginLoader().shutDown();
+
+            //Stop the asynchronous event delivery
+            beanManager.getNotificationManager().shutdown();
+
+            //e.g. unregister the MBean of the metrics
+            MetricsService metricsService = webBeansContext.getMetricsService();
+            if (metricsService instanceof Closeable)
+            {
+                ((Closeable) metricsService).close();
+            }
             
             //Clear extensions
             webBeansContext.getExtensionLoader().clear();
@@ -183,6 +197,9 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
             
             //Delete AnnotateTypeCache
             webBeansContext.getAnnotatedElementFactory().clear();
+
+            //Delete the InjectionTargets of the non-contextual instances
+            webBeansContext.getInjectionTargetCache().clear();
             
             //After Stop
             afterStopApplication(endObject);
@@ -33,6 +33,7 @@ import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.Decorator;
 import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.InterceptionType;
 import javax.enterprise.inject.spi.Interceptor;
 import javax.enterprise.inject.spi.PassivationCapable;
 import javax.enterprise.inject.spi.Producer;
@@ -47,6 +48,8 @@ import org.apache.webbeans.intercept.InterceptorResolutionService.BeanIntercepto
 import org.apache.webbeans.intercept.InterceptorResolutionService.BusinessMethodInterceptorInfo;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
 import org.apache.webbeans.proxy.InterceptorHandler;
+import org.apache.webbeans.proxy.MethodInvoker;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
 import org.apache.webbeans.proxy.OwbInterceptorProxy;
 
 public abstract class AbstractProducer<T> implements Producer<T>
@@ -58,6 +61,7 @@ public abstract class AbstractProducer<T> implements Producer<T>
     protected BeanInterceptorInfo interceptorInfo;
     protected InterceptorDecoratorProxyFactory proxyFactory;
     protected Map<Method, List<Interceptor<?>>> methodInterceptors;
+    protected Map<Method, MethodInvoker> methodInvokers;
 
     public AbstractProducer()
     {
@@ -102,20 +106,25 @@ public abstract class AbstractProducer<T> implements Producer<T>
             BusinessMethodInterceptorInfo mii = miEntry.getValue();
             List<Interceptor<?>> activeInterceptors = new ArrayList<Interceptor<?>>();
 
+            boolean intercepted = false;
+
             if (mii.getEjbInterceptors() != null)
             {
-                Collections.addAll(activeInterceptors, mii.getEjbInterceptors());
+                intercepted = true;
+                addAroundInvokeInterceptors(activeInterceptors, mii.getEjbInterceptors());
             }
             if (mii.getCdiInterceptors() != null)
             {
-                Collections.addAll(activeInterceptors, mii.getCdiInterceptors());
+                intercepted = true;
+                addAroundInvokeInterceptors(activeInterceptors, mii.getCdiInterceptors());
             }
             if (interceptorInfo.getSelfInterceptorBean() != null)
             {
                 if (interceptedMethod.getAnnotation(AroundInvoke.class) == null) // this check is a dirty hack for now to prevent infinite loops
                 {
                     // add self-interception as last interceptor in the chain.
-                    activeInterceptors.add(interceptorInfo.getSelfInterceptorBean());
+                    intercepted = true;
+                    addAroundInvokeInterceptors(activeInterceptors, interceptorInfo.getSelfInterceptorBean());
                 }
             }
 
@@ -123,8 +132,9 @@ public abstract class AbstractProducer<T> implements Producer<T>
             {
                 methodInterceptors.put(interceptedMethod, activeInterceptors);
             }
-            else if (mii.getMethodDecorators() != null)
+            else if (intercepted || mii.getMethodDecorators() != null)
             {
+                // the method is part of the proxy but there is no AroundInvoke interceptor to call
                 methodInterceptors.put(interceptedMethod, Collections.EMPTY_LIST);
             }
         }
@@ -143,11 +153,35 @@ public abstract class AbstractProducer<T> implements Producer<T>
 
             proxyClass = (Class<? extends T>) pf.createProxyClass(bean, classLoader, annotatedType.getJavaClass(), businessMethods, nonInterceptedMethods);
 
+            // bind the calls at the end of the interceptor chains
+            MethodInvokerFactory methodInvokerFactory = webBeansContext.getMethodInvokerFactory();
+            methodInvokers = new HashMap<Method, MethodInvoker>(businessMethods.length);
+            for (Method businessMethod : businessMethods)
+            {
+                methodInvokers.put(businessMethod, methodInvokerFactory.getMethodInvoker(businessMethod));
+            }
+
             // now we collect the post-construct and pre-destroy interceptors
 
         }
     }
     
+    /**
+     * The interceptor chain of each business method gets bound once when the proxy class gets defined.
+     * Interceptors which only provide lifecycle callbacks are not part of the chain,
+     * so the invocation doesn't need to skip them on each call.
+     */
+    private void addAroundInvokeInterceptors(List<Interceptor<?>> activeInterceptors, Interceptor<?>... interceptors)
+    {
+        for (Interceptor<?> interceptor : interceptors)
+        {
+            if (interceptor.intercepts(InterceptionType.AROUND_INVOKE))
+            {
+                activeInterceptors.add(interceptor);
+            }
+        }
+    }
+
     @Override
     public Set<InjectionPoint> getInjectionPoints()
     {
@@ -218,7 +252,8 @@ public abstract class AbstractProducer<T> implements Producer<T>
                             new DecoratorHandler(interceptorInfo, decorators, instances, i - 1, instance, passivationId));
                 }
             }
-            InterceptorHandler interceptorHandler = new DefaultInterceptorHandler<T>(instance, delegate, methodInterceptors, interceptorInstances, passivationId);
+            InterceptorHandler interceptorHandler = new DefaultInterceptorHandler<T>(instance, delegate, methodInterceptors, methodInvokers,
+                    interceptorInstances, passivationId);
 
             T proxyInstance = proxyFactory.createProxyInstance(proxyClass, instance, interceptorHandler);
             instance = proxyInstance;
@@ -23,9 +23,8 @@ import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.exception.WebBeansCreationException;
 import org.apache.webbeans.exception.WebBeansException;
+import org.apache.webbeans.inject.AbstractInjectable;
 import org.apache.webbeans.inject.InjectableConstructor;
-import org.apache.webbeans.inject.InjectableField;
-import org.apache.webbeans.inject.InjectableMethod;
 import org.apache.webbeans.intercept.ConstructorInterceptorInvocationContext;
 import org.apache.webbeans.intercept.DefaultInterceptorHandler;
 import org.apache.webbeans.intercept.InterceptorResolutionService;
@@ -37,6 +36,7 @@ import org.apache.webbeans.proxy.InterceptorHandler;
 import org.apache.webbeans.proxy.OwbInterceptorProxy;
 import org.apache.webbeans.proxy.OwbNormalScopeProxy;
 import org.apache.webbeans.spi.ResourceInjectionService;
+import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
 import org.apache.webbeans.util.ExceptionUtil;
 
@@ -44,6 +44,7 @@ import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.TransientReference;
 import javax.enterprise.inject.spi.AnnotatedConstructor;
 import javax.enterprise.inject.spi.AnnotatedMethod;
 import javax.enterprise.inject.spi.AnnotatedParameter;
@@ -58,6 +59,7 @@ import javax.inject.Provider;
 import javax.interceptor.InvocationContext;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -67,10 +69,12 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static java.util.Arrays.asList;
 
@@ -112,6 +116,12 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
 
     private List<Interceptor<?>> aroundConstructInterceptors;
 
+    /**
+     * The immutable injection plan per injected class, built lazily.
+     * @see #getInjectionPlan(Class)
+     */
+    private final ConcurrentMap<Class<?>, InjectionStep[]> injectionPlans = new ConcurrentHashMap<Class<?>, InjectionStep[]>();
+
     public InjectionTargetImpl(AnnotatedType<T> annotatedType, Set<InjectionPoint> injectionPoints, WebBeansContext webBeansContext,
                                List<AnnotatedMethod<?>> postConstructMethods, List<AnnotatedMethod<?>> preDestroyMethods)
     {
@@ -199,66 +209,183 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
 
     private void inject(Class<?> type, final T instance, CreationalContextImpl<T> context)
     {
-        if (type == null || type.equals(Object.class))
+        InjectionStep[] steps = getInjectionPlan(type);
+        for (int i = 0; i < steps.length; i++)
         {
-            return;
+            InjectionStep step = steps[i];
+            for (int j = 0; j < step.fields.length; j++)
+            {
+                injectField(step.fields[j], instance, context);
+            }
+            for (int j = 0; j < step.methods.length; j++)
+            {
+                injectMethod(step.methods[j], instance, context);
+            }
+            injectResources(instance);
         }
-        inject(type.getSuperclass(), instance, context);
-        injectFields(type, instance, context);
-        injectMethods(type, instance, context);
-        injectInitializerMethods(type, instance, context);
-        injectResources(instance);
     }
 
-    private void injectFields(Class<?> type, T instance, CreationalContextImpl<T> context)
+    private void injectField(FieldInjection injection, T instance, CreationalContextImpl<T> context)
     {
-        for (InjectionPoint injectionPoint : getInjectionPoints())
+        InjectionPoint injectionPoint = injection.injectionPoint;
+        Object value;
+        if (injectionPoint.isDelegate())
+        {
+            value = context.getDelegate();
+        }
+        else
+        {
+            value = AbstractInjectable.injectReference(injectionPoint, context, context);
+        }
+
+        try
+        {
+            injection.field.set(instance, value);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new WebBeansException(e);
+        }
+    }
+
+    private void injectMethod(MethodInjection injection, T instance, CreationalContextImpl<T> context)
+    {
+        InjectionPoint[] parameters = injection.parameters;
+
+        // only needed for the @TransientReference parameters, released once the method got invoked
+        CreationalContextImpl<T> transientContext = null;
+        if (injection.hasTransientReference)
+        {
+            transientContext = webBeansContext.getBeanManagerImpl().createCreationalContext(context.getContextual());
+        }
+
+        try
         {
-            if (injectionPoint.getMember().getDeclaringClass().equals(type))
+            Object[] arguments = parameters.length == 0 ? AnnotationUtil.EMPTY_OBJECT_ARRAY : new Object[parameters.length];
+            for (int i = 0; i < parameters.length; i++)
             {
-                if (injectionPoint.getMember() instanceof Field)
+                if (parameters[i].isDelegate())
                 {
-                    new InjectableField<T>((Field) injectionPoint.getMember(), instance, this, context).doInjection();
+                    arguments[i] = context.getDelegate();
+                }
+                else
+                {
+                    arguments[i] = AbstractInjectable.injectReference(parameters[i], context,
+                                                                      injection.transientReferences[i] ? transientContext : context);
                 }
             }
+
+            try
+            {
+                injection.method.invoke(instance, arguments);
+            }
+            catch (Exception e)
+            {
+                throw new WebBeansException(e);
+            }
+        }
+        finally
+        {
+            if (transientContext != null)
+            {
+                transientContext.release();
+            }
         }
     }
 
-    private void injectMethods(Class<?> type, T instance, CreationalContextImpl<T> context)
+    /**
+     * The injection plan gets built on first use and reused for all further instances
+     * of the same class, including subclasses of the annotated type.
+     */
+    private InjectionStep[] getInjectionPlan(Class<?> type)
     {
-        Set<Member> injectedMethods = new HashSet<Member>();
-        for (InjectionPoint injectionPoint : getInjectionPoints())
+        InjectionStep[] plan = injectionPlans.get(type);
+        if (plan == null)
         {
-            if (injectionPoint.getMember().getDeclaringClass().equals(type))
+            plan = createInjectionPlan(type);
+            InjectionStep[] existing = injectionPlans.putIfAbsent(type, plan);
+            if (existing != null)
             {
-                if (injectionPoint.getMember() instanceof Method
-                        && !injectedMethods.contains(injectionPoint.getMember())
-                        && !isProducerMethod(injectionPoint)
-                        && !isDisposalMethod(injectionPoint)
-                        && !isObserverMethod(injectionPoint))
-                {
-                    new InjectableMethod<T>((Method) injectionPoint.getMember(), instance, this, context).doInjection();
-                    injectedMethods.add(injectionPoint.getMember());
-                }
+                plan = existing;
             }
         }
+        return plan;
     }
 
     /**
-     * Performs injection on initializer methods, which are methods that are annotated with &#64;Inject,
-     * but have no parameter and thus no injection point.
+     * Creates the injection steps for the given class hierarchy, <b>superclass first</b>.
+     * For each class the fields get injected first, then the methods with injection points
+     * and last the initializer methods without any parameter.
      */
-    private void injectInitializerMethods(Class<?> declaringType, T instance, CreationalContextImpl<T> context)
+    private InjectionStep[] createInjectionPlan(Class<?> type)
     {
+        List<InjectionStep> steps = new ArrayList<InjectionStep>();
+        for (Class<?> current = type; current != null && !current.equals(Object.class); current = current.getSuperclass())
+        {
+            steps.add(0, createInjectionStep(current));
+        }
+        return steps.toArray(new InjectionStep[steps.size()]);
+    }
+
+    private InjectionStep createInjectionStep(Class<?> type)
+    {
+        List<FieldInjection> fields = new ArrayList<FieldInjection>();
+        Map<Method, List<InjectionPoint>> methods = new LinkedHashMap<Method, List<InjectionPoint>>();
+        for (InjectionPoint injectionPoint : getInjectionPoints())
+        {
+            Member member = injectionPoint.getMember();
+            if (!member.getDeclaringClass().equals(type))
+            {
+                continue;
+            }
+            if (member instanceof Field)
+            {
+                fields.add(new FieldInjection(makeAccessible((Field) member), injectionPoint));
+            }
+            else if (member instanceof Method
+                    && !isProducerMethod(injectionPoint)
+                    && !isDisposalMethod(injectionPoint)
+                    && !isObserverMethod(injectionPoint))
+            {
+                Method method = (Method) member;
+                List<InjectionPoint> methodInjectionPoints = methods.get(method);
+                if (methodInjectionPoints == null)
+                {
+                    methodInjectionPoints = new ArrayList<InjectionPoint>();
+                    methods.put(makeAccessible(method), methodInjectionPoints);
+                }
+                methodInjectionPoints.add(injectionPoint);
+            }
+        }
+
+        // initializer methods are annotated with @Inject, but have no parameter and thus no injection point
         for (AnnotatedMethod<? super T> method : webBeansContext.getAnnotatedElementFactory().getFilteredAnnotatedMethods(annotatedType))
         {
-            if (method.getDeclaringType().getJavaClass().equals(declaringType) && method.isAnnotationPresent(Inject.class) && method.getParameters().isEmpty())
+            if (method.getDeclaringType().getJavaClass().equals(type) && method.isAnnotationPresent(Inject.class) && method.getParameters().isEmpty())
             {
-                new InjectableMethod<T>(method.getJavaMember(), instance, this, context).doInjection();
+                methods.put(makeAccessible(method.getJavaMember()), Collections.<InjectionPoint>emptyList());
             }
         }
+
+        List<MethodInjection> methodInjections = new ArrayList<MethodInjection>(methods.size());
+        for (Map.Entry<Method, List<InjectionPoint>> method : methods.entrySet())
+        {
+            methodInjections.add(new MethodInjection(method.getKey(), method.getValue()));
+        }
+
+        return new InjectionStep(fields.toArray(new FieldInjection[fields.size()]),
+                                 methodInjections.toArray(new MethodInjection[methodInjections.size()]));
     }
-    
+
+    private <M extends AccessibleObject> M makeAccessible(M member)
+    {
+        if (!member.isAccessible())
+        {
+            webBeansContext.getSecurityService().doPrivilegedSetAccessible(member, true);
+        }
+        return member;
+    }
+
     private void injectResources(T instance)
     {
         try
@@ -462,6 +589,62 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
         return lifecycleInterceptors;
     }
 
+    /**
+     * The fields and methods which get injected for a single class of the hierarchy.
+     * The members are already accessible and the injection points are resolved.
+     */
+    private static final class InjectionStep
+    {
+        private final FieldInjection[] fields;
+        private final MethodInjection[] methods;
+
+        private InjectionStep(FieldInjection[] fields, MethodInjection[] methods)
+        {
+            this.fields = fields;
+            this.methods = methods;
+        }
+    }
+
+    private static final class FieldInjection
+    {
+        private final Field field;
+        private final InjectionPoint injectionPoint;
+
+        private FieldInjection(Field field, InjectionPoint injectionPoint)
+        {
+            this.field = field;
+            this.injectionPoint = injectionPoint;
+        }
+    }
+
+    /**
+     * An injection or initializer method with the injection points of its parameters ordered by position.
+     */
+    private static final class MethodInjection
+    {
+        private final Method method;
+        private final InjectionPoint[] parameters;
+        private final boolean[] transientReferences;
+        private final boolean hasTransientReference;
+
+        private MethodInjection(Method method, List<InjectionPoint> injectionPoints)
+        {
+            this.method = method;
+            parameters = new InjectionPoint[injectionPoints.size()];
+            transientReferences = new boolean[parameters.length];
+
+            boolean anyTransientReference = false;
+            for (InjectionPoint injectionPoint : injectionPoints)
+            {
+                int position = ((AnnotatedParameter<?>) injectionPoint.getAnnotated()).getPosition();
+                parameters[position] = injectionPoint;
+                transientReferences[position] = injectionPoint.getAnnotated().isAnnotationPresent(TransientReference.class);
+                anyTransientReference |= transientReferences[position];
+            }
+            hasTransientReference = anyTransientReference;
+        }
+    }
+
     private static class ConstructorInstanceProvider<T> implements Provider<T>
     {
         private ConstructorInterceptorInvocationContext<T> context;
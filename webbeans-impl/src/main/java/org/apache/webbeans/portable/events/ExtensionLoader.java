@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.portable.events;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -112,6 +113,14 @@ public class ExtensionLoader
     }
 
 
+    /**
+     * @return the classes of all registered extensions
+     */
+    public Set<Class<?>> getExtensionClasses()
+    {
+        return Collections.unmodifiableSet(extensions.keySet());
+    }
+
     /**
      * Add a CDI Extension to our internal list.
      * @param ext Extension to add
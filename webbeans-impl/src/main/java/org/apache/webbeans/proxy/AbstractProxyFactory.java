@@ -24,11 +24,21 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Logger;
 
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.MetricsService;
 import org.apache.xbean.asm5.ClassWriter;
 import org.apache.xbean.asm5.MethodVisitor;
 import org.apache.xbean.asm5.Opcodes;
@@ -61,6 +71,18 @@ public abstract class AbstractProxyFactory
     private Object unsafe = null;
     private Method unsafeAllocateInstance = null;
 
+    /**
+     * Proxy class names which got handed out by {@link #getUnusedProxyClassName(ClassLoader, String)} per ClassLoader.
+     * This keeps the names unique even if multiple threads generate a proxy for the same class concurrently.
+     * The ClassLoaders are weakly referenced, so the names go away together with an undeployed application.
+     */
+    private final Map<ClassLoader, Set<String>> reservedProxyClassNames = new WeakHashMap<ClassLoader, Set<String>>();
+
+    /**
+     * Proxy classes which are currently in creation, see {@link #createProxyClassOnce(Object, Callable)}.
+     */
+    private final ConcurrentMap<Object, FutureTask<Class<?>>> proxyClassesInCreation = new ConcurrentHashMap<Object, FutureTask<Class<?>>>();
+
 
     /**
      * The name of the field which stores the passivationID of the Bean this proxy serves.
@@ -133,9 +155,15 @@ public abstract class AbstractProxyFactory
 
         for (int i = 0; i < MAX_CLASSLOAD_TRIES; i++)
         {
+            finalName = proxyClassName + i;
+            if (!reserveProxyClassName(classLoader, finalName))
+            {
+                // another thread already uses this name
+                continue;
+            }
+
             try
             {
-                finalName = proxyClassName + i;
                 Class.forName(finalName, true, classLoader);
             }
             catch (ClassNotFoundException cnfe)
@@ -149,6 +177,85 @@ public abstract class AbstractProxyFactory
         throw new WebBeansException("Unable to detect a free proxy class name based on: " + proxyClassName);
     }
 
+    /**
+     * @return false if the name already got reserved for the given ClassLoader
+     */
+    private boolean reserveProxyClassName(ClassLoader classLoader, String proxyClassName)
+    {
+        synchronized (reservedProxyClassNames)
+        {
+            Set<String> proxyClassNames = reservedProxyClassNames.get(classLoader);
+            if (proxyClassNames == null)
+            {
+                proxyClassNames = new HashSet<String>();
+                reservedProxyClassNames.put(classLoader, proxyClassNames);
+            }
+            return proxyClassNames.add(proxyClassName);
+        }
+    }
+
+    /**
+     * @return a key for {@link #createProxyClassOnce(Object, Callable)} which is equal for the same
+     *         proxy class name in the very same ClassLoader instance
+     */
+    protected Object getProxyClassKey(ClassLoader classLoader, String proxyClassName)
+    {
+        return new ProxyClassKey(classLoader, proxyClassName);
+    }
+
+    /**
+     * Creates the proxy class for the given key only once, even if multiple threads ask for it concurrently.
+     * Proxy classes with different keys get created concurrently.
+     *
+     * @param key e.g. the Bean the proxy class gets created for
+     * @param creator creates the proxy class. It is responsible for caching the result.
+     * @return the proxy class
+     */
+    protected <T> Class<T> createProxyClassOnce(Object key, Callable<Class<T>> creator)
+            throws ProxyGenerationException
+    {
+        FutureTask<Class<?>> creation = new FutureTask<Class<?>>((Callable) creator);
+        FutureTask<Class<?>> existingCreation = proxyClassesInCreation.putIfAbsent(key, creation);
+        if (existingCreation == null)
+        {
+            try
+            {
+                creation.run();
+            }
+            finally
+            {
+                proxyClassesInCreation.remove(key, creation);
+            }
+        }
+        else
+        {
+            creation = existingCreation;
+        }
+
+        try
+        {
+            return (Class<T>) creation.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ProxyGenerationException(e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new ProxyGenerationException(cause);
+        }
+    }
+
     protected String fixPreservedPackages(String proxyClassName)
     {
         proxyClassName = fixPreservedPackage(proxyClassName, "java.");
@@ -187,12 +294,19 @@ public abstract class AbstractProxyFactory
                                                       Method[] interceptedMethods, Method[] nonInterceptedMethods)
             throws ProxyGenerationException
     {
+        MetricsService metricsService = webBeansContext.getMetricsService();
+        long start = metricsService.isEnabled() ? System.nanoTime() : 0L;
+
         String proxyClassFileName = proxyClassName.replace('.', '/');
 
         final byte[] proxyBytes = generateProxy(classLoader, classToProxy, proxyClassName, proxyClassFileName, interceptedMethods, nonInterceptedMethods);
 
         Class<T> clazz = defineAndLoadClass(classLoader, proxyClassName, proxyBytes);
 
+        if (metricsService.isEnabled())
+        {
+            metricsService.proxyClassCreated(classToProxy, System.nanoTime() - start);
+        }
 
         return clazz;
     }
@@ -732,4 +846,42 @@ public abstract class AbstractProxyFactory
     }
 
 
+
+    /**
+     * Identifies a proxy class by its name and the identity of its ClassLoader.
+     * It only gets used while the class is in creation, so the ClassLoader is strongly referenced.
+     */
+    private static final class ProxyClassKey
+    {
+        private final ClassLoader classLoader;
+        private final String proxyClassName;
+
+        private ProxyClassKey(ClassLoader classLoader, String proxyClassName)
+        {
+            this.classLoader = classLoader;
+            this.proxyClassName = proxyClassName;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof ProxyClassKey))
+            {
+                return false;
+            }
+
+            ProxyClassKey otherKey = (ProxyClassKey) other;
+            return classLoader == otherKey.classLoader && proxyClassName.equals(otherKey.proxyClassName);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(classLoader) + proxyClassName.hashCode();
+        }
+    }
 }
@@ -36,6 +36,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
@@ -64,6 +65,11 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
     /** the name of the field which stores the Method[] of all intercepted methods */
     public static final String FIELD_INTERCEPTED_METHODS = "owbIntDecMethods";
 
+    /**
+     * The parameters passed to the InterceptorHandler for methods without parameters.
+     */
+    public static final Object[] EMPTY_PARAMETERS = new Object[0];
+
     /**
      * Caches the proxy classes for each bean.
      * We need this to prevent filling up the ClassLoaders by
@@ -177,8 +183,22 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
      * @param <T>
      * @return the proxy class
      */
-    public synchronized <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy,
-                                                      Method[] interceptedMethods, Method[] nonInterceptedMethods)
+    public <T> Class<T> createProxyClass(final Bean<T> bean, final ClassLoader classLoader, final Class<T> classToProxy,
+                                         final Method[] interceptedMethods, final Method[] nonInterceptedMethods)
+            throws ProxyGenerationException
+    {
+        return createProxyClassOnce(bean, new Callable<Class<T>>()
+        {
+            @Override
+            public Class<T> call()
+            {
+                return doCreateProxyClass(bean, classLoader, classToProxy, interceptedMethods, nonInterceptedMethods);
+            }
+        });
+    }
+
+    private <T> Class<T> doCreateProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy,
+                                            Method[] interceptedMethods, Method[] nonInterceptedMethods)
             throws ProxyGenerationException
     {
         String proxyClassName = getUnusedProxyClassName(classLoader, classToProxy.getName() + "$$OwbInterceptProxy");
@@ -411,43 +431,11 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
 
         // push try code
         mv.visitLabel(l0);
-        final String classNameToOverride = method.getDeclaringClass().getName().replace('.', '/');
-        mv.visitLdcInsn(Type.getType("L" + classNameToOverride + ";"));
-
-        // the following code generates the bytecode for this line of Java:
-        // Method method = <proxy>.class.getMethod("add", new Class[] { <array of function argument classes> });
-
-        // get the method name to invoke, and push to stack
-        mv.visitLdcInsn(method.getName());
-
-        // create the Class[]
-        createArrayDefinition(mv, parameterTypes.length, Class.class);
 
+        // the local variable index after the method parameters, used to store a caught exception
         int length = 1;
-
-        // push parameters into array
-        for (int i = 0; i < parameterTypes.length; i++)
+        for (final Class<?> parameterType : parameterTypes)
         {
-            // keep copy of array on stack
-            mv.visitInsn(Opcodes.DUP);
-
-            final Class<?> parameterType = parameterTypes[i];
-
-            // push number onto stack
-            pushIntOntoStack(mv, i);
-
-            if (parameterType.isPrimitive())
-            {
-                String wrapperType = getWrapperType(parameterType);
-                mv.visitFieldInsn(Opcodes.GETSTATIC, wrapperType, "TYPE", "Ljava/lang/Class;");
-            }
-            else
-            {
-                mv.visitLdcInsn(Type.getType(parameterType));
-            }
-
-            mv.visitInsn(Opcodes.AASTORE);
-
             if (Long.TYPE.equals(parameterType) || Double.TYPE.equals(parameterType))
             {
                 length += 2;
@@ -492,7 +480,16 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
 
 
         // prepare the parameter array as Object[] and store it on the stack
-        pushMethodParameterArray(mv, parameterTypes);
+        if (parameterTypes.length == 0)
+        {
+            // an empty array cannot be changed, so all invocations can share the same instance
+            mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(InterceptorDecoratorProxyFactory.class),
+                    "EMPTY_PARAMETERS", Type.getDescriptor(Object[].class));
+        }
+        else
+        {
+            pushMethodParameterArray(mv, parameterTypes);
+        }
 
 
         // invoke the invocationHandler
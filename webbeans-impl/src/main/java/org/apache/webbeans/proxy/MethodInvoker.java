@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+/**
+ * Calls a single method on a given instance.
+ * Implementations get generated by the {@link MethodInvokerFactory},
+ * so the call is a plain virtual call which the JIT can inline.
+ */
+public interface MethodInvoker
+{
+
+    /**
+     * Invokes the method.
+     * Unlike {@link java.lang.reflect.Method#invoke(Object, Object...)} this doesn't wrap
+     * the exceptions of the method into an {@link java.lang.reflect.InvocationTargetException}.
+     * @param instance the instance to invoke the method on
+     * @param parameters the parameters of the method
+     * @return the return value of the method, <code>null</code> for void methods
+     */
+    public Object invoke(Object instance, Object[] parameters) throws Exception;
+}
@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.util.ExceptionUtil;
+import org.apache.xbean.asm5.ClassWriter;
+import org.apache.xbean.asm5.MethodVisitor;
+import org.apache.xbean.asm5.Opcodes;
+import org.apache.xbean.asm5.Type;
+
+/**
+ * <p>Creates a {@link MethodInvoker} per method. The invoker class gets generated into
+ * the package and ClassLoader of the class which declares the method, so it can directly
+ * call public, protected and package private methods. The interceptor chain uses them for
+ * the AroundInvoke methods and for the intercepted business methods instead of
+ * {@link Method#invoke(Object, Object...)}.</p>
+ *
+ * <p>Private and static methods, methods with inaccessible parameter types and methods
+ * of classes which cannot see OpenWebBeans get invoked via reflection.</p>
+ */
+public class MethodInvokerFactory extends AbstractProxyFactory
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(MethodInvokerFactory.class);
+
+    private static final String INVOKE_DESCRIPTOR
+            = Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(Object.class), Type.getType(Object[].class));
+
+    private final ConcurrentMap<Method, MethodInvoker> methodInvokers = new ConcurrentHashMap<Method, MethodInvoker>();
+
+    public MethodInvokerFactory(WebBeansContext webBeansContext)
+    {
+        super(webBeansContext);
+    }
+
+    /**
+     * @param method the method which must be accessible if it cannot be called from a generated class
+     * @return the cached invoker for the given method
+     */
+    public MethodInvoker getMethodInvoker(Method method)
+    {
+        MethodInvoker methodInvoker = methodInvokers.get(method);
+        if (methodInvoker == null)
+        {
+            methodInvoker = createMethodInvoker(method);
+            MethodInvoker existingInvoker = methodInvokers.putIfAbsent(method, methodInvoker);
+            if (existingInvoker != null)
+            {
+                methodInvoker = existingInvoker;
+            }
+        }
+        return methodInvoker;
+    }
+
+    private MethodInvoker createMethodInvoker(final Method method)
+    {
+        if (!webBeansContext.getOpenWebBeansConfiguration().isGeneratedMethodInvokers() || !isInvokable(method))
+        {
+            return new ReflectiveMethodInvoker(method);
+        }
+
+        try
+        {
+            Class<MethodInvoker> invokerClass = createProxyClassOnce(method, new Callable<Class<MethodInvoker>>()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Class<MethodInvoker> call()
+                {
+                    // another thread might have created it in the meantime
+                    MethodInvoker existingInvoker = methodInvokers.get(method);
+                    if (existingInvoker != null && !(existingInvoker instanceof ReflectiveMethodInvoker))
+                    {
+                        return (Class<MethodInvoker>) existingInvoker.getClass();
+                    }
+                    return createInvokerClass(method);
+                }
+            });
+            return invokerClass.newInstance();
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.FINE, "Using reflection to invoke " + method, e);
+            return new ReflectiveMethodInvoker(method);
+        }
+        catch (LinkageError e)
+        {
+            // e.g. the ClassLoader of the method cannot see the MethodInvoker interface
+            logger.log(Level.FINE, "Using reflection to invoke " + method, e);
+            return new ReflectiveMethodInvoker(method);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<MethodInvoker> createInvokerClass(Method method)
+    {
+        Class<?> declaringClass = method.getDeclaringClass();
+        ClassLoader classLoader = declaringClass.getClassLoader();
+        String invokerClassName = getUnusedProxyClassName(classLoader, declaringClass.getName() + "$$OwbInvoker$$" + method.getName());
+
+        return (Class<MethodInvoker>) (Class<?>) createProxyClass(classLoader, invokerClassName, Object.class, new Method[]{method}, null);
+    }
+
+    /**
+     * @return true if a class in the package of the method, e.g. org.apache.webbeans.custom for java.*,
+     *         can call the method without reflection
+     */
+    private boolean isInvokable(Method method)
+    {
+        int modifiers = method.getModifiers();
+        if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers))
+        {
+            return false;
+        }
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (declaringClass.getClassLoader() == null)
+        {
+            return false;
+        }
+
+        String invokerPackage = getPackageName(fixPreservedPackages(declaringClass.getName()));
+        if (!Modifier.isPublic(modifiers) && !invokerPackage.equals(getPackageName(declaringClass.getName())))
+        {
+            return false;
+        }
+
+        if (!isAccessible(declaringClass, declaringClass, invokerPackage) || !isAccessible(method.getReturnType(), declaringClass, invokerPackage))
+        {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes())
+        {
+            if (!isAccessible(parameterType, declaringClass, invokerPackage))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(Class<?> type, Class<?> declaringClass, String invokerPackage)
+    {
+        while (type.isArray())
+        {
+            type = type.getComponentType();
+        }
+
+        for (Class<?> clazz = type; clazz != null && !clazz.isPrimitive(); clazz = clazz.getDeclaringClass())
+        {
+            int modifiers = clazz.getModifiers();
+            if (Modifier.isPrivate(modifiers))
+            {
+                return false;
+            }
+            if (!Modifier.isPublic(modifiers)
+                    && (clazz.getClassLoader() != declaringClass.getClassLoader() || !getPackageName(clazz.getName()).equals(invokerPackage)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getPackageName(String className)
+    {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    @Override
+    protected Class<?> getMarkerInterface()
+    {
+        return MethodInvoker.class;
+    }
+
+    @Override
+    protected void createInstanceVariables(ClassWriter cw, Class<?> classToProxy, String classFileName)
+    {
+        // the invoker is stateless
+    }
+
+    @Override
+    protected void createSerialisation(ClassWriter cw, String proxyClassFileName, Class<?> classToProxy, String classFileName)
+    {
+        // the invoker doesn't get serialized
+    }
+
+    @Override
+    protected void createConstructor(ClassWriter cw, String proxyClassFileName, Class<?> classToProxy, String classFileName)
+    {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    /**
+     * The following code gets generated for the single given method:
+     *
+     * <pre>
+     * public Object invoke(Object instance, Object[] parameters) throws Exception
+     * {
+     *     return ((DeclaringClass) instance).method((ParameterType) parameters[0], ...);
+     * }
+     * </pre>
+     *
+     * Primitive parameters get unboxed and primitive return values get boxed.
+     */
+    @Override
+    protected void delegateInterceptedMethods(ClassLoader classLoader, ClassWriter cw, String proxyClassFileName, Class<?> classToProxy,
+                                              Method[] interceptedMethods)
+    {
+        Method method = interceptedMethods[0];
+        Class<?> declaringClass = method.getDeclaringClass();
+        String owner = Type.getInternalName(declaringClass);
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null,
+                new String[]{Type.getInternalName(Exception.class)});
+        mv.visitCode();
+
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++)
+        {
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            pushIntOntoStack(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+            unbox(mv, parameterTypes[i]);
+        }
+
+        boolean isInterface = declaringClass.isInterface();
+        mv.visitMethodInsn(isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+                owner, method.getName(), Type.getMethodDescriptor(method), isInterface);
+
+        Class<?> returnType = method.getReturnType();
+        if (Void.TYPE.equals(returnType))
+        {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        }
+        else if (returnType.isPrimitive())
+        {
+            String wrapperType = getWrapperType(returnType);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapperType, "valueOf",
+                    "(" + Type.getDescriptor(returnType) + ")L" + wrapperType + ";", false);
+        }
+        mv.visitInsn(Opcodes.ARETURN);
+
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    /**
+     * Numbers get converted like in {@link Number#intValue()}, so e.g. an Integer can be passed to a long parameter.
+     */
+    private void unbox(MethodVisitor mv, Class<?> parameterType)
+    {
+        if (!parameterType.isPrimitive())
+        {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+            return;
+        }
+
+        String boxType;
+        if (Boolean.TYPE.equals(parameterType) || Character.TYPE.equals(parameterType))
+        {
+            boxType = getWrapperType(parameterType);
+        }
+        else
+        {
+            boxType = Type.getInternalName(Number.class);
+        }
+        mv.visitTypeInsn(Opcodes.CHECKCAST, boxType);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, boxType, getPrimitiveMethod(parameterType),
+                "()" + Type.getDescriptor(parameterType), false);
+    }
+
+    @Override
+    protected void delegateNonInterceptedMethods(ClassLoader classLoader, ClassWriter cw, String proxyClassFileName, Class<?> classToProxy,
+                                                 Method[] noninterceptedMethods)
+    {
+        // an invoker only contains the invoke method
+    }
+
+    /**
+     * Fallback for methods which cannot be called from a generated class.
+     */
+    private static final class ReflectiveMethodInvoker implements MethodInvoker
+    {
+        private final Method method;
+
+        private ReflectiveMethodInvoker(Method method)
+        {
+            if (!method.isAccessible())
+            {
+                method.setAccessible(true);
+            }
+            this.method = method;
+        }
+
+        @Override
+        public Object invoke(Object instance, Object[] parameters) throws Exception
+        {
+            try
+            {
+                return method.invoke(instance, parameters);
+            }
+            catch (InvocationTargetException ite)
+            {
+                // unpack the reflection Exception
+                throw ExceptionUtil.throwAsRuntimeException(ite.getCause());
+            }
+        }
+    }
+}
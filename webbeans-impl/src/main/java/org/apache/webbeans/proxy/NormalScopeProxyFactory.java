@@ -29,6 +29,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -190,14 +191,26 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
         }
     }
 
-    public synchronized <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy)
+    public <T> Class<T> createProxyClass(final Bean<T> bean, final ClassLoader classLoader, final Class<T> classToProxy)
     {
         Class<T> proxyClass = (Class<T>) cachedProxyClasses.get(bean);
 
         if (proxyClass == null)
         {
-            proxyClass = createProxyClass(classLoader, classToProxy);
-            cachedProxyClasses.putIfAbsent(bean, proxyClass);
+            proxyClass = createProxyClassOnce(bean, new Callable<Class<T>>()
+            {
+                @Override
+                public Class<T> call()
+                {
+                    Class<T> proxyClass = (Class<T>) cachedProxyClasses.get(bean);
+                    if (proxyClass == null)
+                    {
+                        proxyClass = createProxyClass(classLoader, classToProxy);
+                        cachedProxyClasses.put(bean, proxyClass);
+                    }
+                    return proxyClass;
+                }
+            });
         }
 
         return proxyClass;
@@ -22,6 +22,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
@@ -95,7 +96,27 @@ public class SubclassProxyFactory extends AbstractProxyFactory
      * @param <T>
      * @return the proxy class
      */
-    public synchronized <T> Class<T> createSubClass(ClassLoader classLoader, Class<T> classToProxy)
+    public <T> Class<T> createSubClass(final ClassLoader classLoader, final Class<T> classToProxy)
+            throws ProxyGenerationException
+    {
+        Class<T> clazz = tryToLoadClass(classLoader, classToProxy);
+        if (clazz != null)
+        {
+            return clazz;
+        }
+
+        // the name of the subclass is fixed, so only one thread must create it
+        return createProxyClassOnce(getProxyClassKey(classLoader, getSubClassName(classToProxy)), new Callable<Class<T>>()
+        {
+            @Override
+            public Class<T> call()
+            {
+                return doCreateSubClass(classLoader, classToProxy);
+            }
+        });
+    }
+
+    private <T> Class<T> doCreateSubClass(ClassLoader classLoader, Class<T> classToProxy)
             throws ProxyGenerationException
     {
         Class<T> clazz = tryToLoadClass(classLoader, classToProxy);
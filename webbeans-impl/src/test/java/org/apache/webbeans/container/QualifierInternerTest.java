@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import org.apache.webbeans.annotation.DefaultLiteral;
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.test.annotation.binding.AnnotationWithBindingMember;
+import org.apache.webbeans.test.annotation.binding.AnnotationWithNonBindingMember;
+import org.apache.webbeans.test.component.BindingComponent;
+import org.apache.webbeans.test.component.NonBindingComponent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+public class QualifierInternerTest
+{
+    @AnnotationWithNonBindingMember(value = "B", arg1 = "1", arg2 = "2")
+    public NonBindingComponent s1;
+
+    @AnnotationWithNonBindingMember(value = "B", arg1 = "11", arg2 = "21")
+    public NonBindingComponent s2;
+
+    @AnnotationWithNonBindingMember(value = "C", arg1 = "1", arg2 = "2")
+    public NonBindingComponent s3;
+
+    @AnnotationWithBindingMember(value = "B", number = 3)
+    public BindingComponent s4;
+
+    @Test
+    public void testInternedKeysEqualTemporaryKeys() throws Exception
+    {
+        Annotation b1 = getQualifier("s1");
+        Annotation b2 = getQualifier("s2");
+        Annotation c = getQualifier("s3");
+        Annotation binding = getQualifier("s4");
+
+        QualifierInterner interner = new QualifierInterner();
+        interner.intern(Arrays.asList(b1, b2, c));
+
+        // the same value ignoring @Nonbinding members leads to the same canonical qualifier
+        Assert.assertSame(interner.get(b1), interner.get(b2));
+        Assert.assertNotSame(interner.get(b1), interner.get(c));
+
+        BeanCacheKey interned = new BeanCacheKey(false, String.class, null, interner, b1, DefaultLiteral.INSTANCE);
+        BeanCacheKey internedSwapped = new BeanCacheKey(false, String.class, null, interner, DefaultLiteral.INSTANCE, b2);
+        BeanCacheKey temporary = new BeanCacheKey(false, String.class, null, b2, DefaultLiteral.INSTANCE);
+
+        Assert.assertEquals(interned, internedSwapped);
+        Assert.assertEquals(interned.hashCode(), internedSwapped.hashCode());
+        Assert.assertEquals(interned, temporary);
+        Assert.assertEquals(temporary, interned);
+        Assert.assertEquals(interned.hashCode(), temporary.hashCode());
+
+        Assert.assertFalse(interned.equals(new BeanCacheKey(false, String.class, null, interner, c, DefaultLiteral.INSTANCE)));
+        Assert.assertFalse(interned.equals(new BeanCacheKey(false, String.class, null, interner, b1, binding)));
+        Assert.assertFalse(new BeanCacheKey(false, String.class, null, interner, b1)
+                .equals(new BeanCacheKey(false, String.class, null, interner, c)));
+    }
+
+    @Test
+    public void testFreshLiteralsResolveToCanonicalQualifier() throws Exception
+    {
+        QualifierInterner interner = new QualifierInterner();
+        interner.intern(Arrays.<Annotation>asList(new NamedLiteral("a"), getQualifier("s1")));
+
+        // no binding members
+        Assert.assertSame(interner.get(DefaultLiteral.INSTANCE), interner.get(new DefaultLiteral()));
+
+        // binding members get compared by value
+        Assert.assertSame(interner.get(getQualifier("s1")), interner.get(getQualifier("s2")));
+        Assert.assertSame(interner.get(new NamedLiteral("a")), interner.get(new NamedLiteral("a")));
+
+        // unknown values stay temporary
+        Assert.assertNotSame(interner.get(new NamedLiteral("b")), interner.get(new NamedLiteral("b")));
+        Assert.assertTrue(interner.get(new NamedLiteral("b")).matches(interner.get(new NamedLiteral("b"))));
+        Assert.assertFalse(interner.get(new NamedLiteral("a")).matches(interner.get(new NamedLiteral("b"))));
+    }
+
+    private Annotation getQualifier(String fieldName) throws NoSuchFieldException
+    {
+        return QualifierInternerTest.class.getDeclaredField(fieldName).getAnnotations()[0];
+    }
+}
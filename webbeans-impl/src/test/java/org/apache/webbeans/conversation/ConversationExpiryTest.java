@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConversationExpiryTest extends AbstractUnitTest
+{
+    @Test
+    public void testOnlyTimedOutConversationsGetDestroyed()
+    {
+        startContainer();
+        ConversationManager conversationManager = getWebBeansContext().getConversationManager();
+
+        ConversationImpl shortConversation = beginConversation(1000L);
+        ConversationImpl longConversation = beginConversation(60000L);
+        ConversationImpl eternalConversation = beginConversation(0L);
+
+        long now = shortConversation.getActiveTime();
+        conversationManager.destroyWithRespectToTimout(now + 500L);
+        Assert.assertNotNull(conversationManager.getConversationContext(shortConversation));
+
+        conversationManager.destroyWithRespectToTimout(now + 2000L);
+        Assert.assertNull(conversationManager.getConversationContext(shortConversation));
+        Assert.assertNotNull(conversationManager.getConversationContext(longConversation));
+        Assert.assertNotNull(conversationManager.getConversationContext(eternalConversation));
+
+        conversationManager.destroyWithRespectToTimout(now + 120000L);
+        Assert.assertNull(conversationManager.getConversationContext(longConversation));
+        Assert.assertNotNull(conversationManager.getConversationContext(eternalConversation));
+    }
+
+    @Test
+    public void testUsedConversationGetsRescheduled() throws Exception
+    {
+        startContainer();
+        ConversationManager conversationManager = getWebBeansContext().getConversationManager();
+
+        ConversationImpl conversation = beginConversation(1000L);
+        long begin = conversation.getActiveTime();
+
+        // wait until updateTimeOut moves the active time
+        while (System.currentTimeMillis() == begin)
+        {
+            Thread.sleep(1L);
+        }
+        conversation.updateTimeOut();
+        long used = conversation.getActiveTime();
+
+        // the original deadline passed, but the conversation got used in the meantime
+        conversationManager.destroyWithRespectToTimout(begin + 1001L);
+        Assert.assertNotNull(conversationManager.getConversationContext(conversation));
+
+        conversationManager.destroyWithRespectToTimout(used + 999L);
+        Assert.assertNotNull(conversationManager.getConversationContext(conversation));
+
+        conversationManager.destroyWithRespectToTimout(used + 1001L);
+        Assert.assertNull(conversationManager.getConversationContext(conversation));
+    }
+
+    @Test
+    public void testTimeoutChangeAndEnd()
+    {
+        startContainer();
+        ConversationManager conversationManager = getWebBeansContext().getConversationManager();
+
+        ConversationImpl conversation = beginConversation(60000L);
+        long now = conversation.getActiveTime();
+        conversation.setTimeout(1000L);
+        conversationManager.destroyWithRespectToTimout(now + 2000L);
+        Assert.assertNull(conversationManager.getConversationContext(conversation));
+
+        ConversationImpl endedConversation = beginConversation(1000L);
+        endedConversation.end();
+        Assert.assertNull(endedConversation.getExpiry());
+    }
+
+    private ConversationImpl beginConversation(long timeout)
+    {
+        ConversationImpl conversation = new ConversationImpl("session-1", getWebBeansContext());
+        conversation.setTimeout(timeout);
+        conversation.begin();
+        return conversation;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import java.util.Map;
+
+import javax.enterprise.context.Conversation;
+
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConversationSessionIndexTest extends AbstractUnitTest
+{
+    @Test
+    public void testConversationsPerSession()
+    {
+        startContainer();
+        ConversationManager conversationManager = getWebBeansContext().getConversationManager();
+
+        ConversationImpl conversation1 = beginConversation("session-1");
+        ConversationImpl conversation2 = beginConversation("session-1");
+        ConversationImpl conversation3 = beginConversation("session-2");
+
+        Map<Conversation, ConversationContext> session1 = conversationManager.getConversationMapWithSessionId("session-1");
+        Assert.assertEquals(2, session1.size());
+        Assert.assertTrue(session1.containsKey(conversation1));
+        Assert.assertTrue(session1.containsKey(conversation2));
+        Assert.assertTrue(conversationManager.getConversationMapWithSessionId("unknown").isEmpty());
+
+        Assert.assertSame(conversation3, conversationManager.getPropogatedConversation(conversation3.getId(), "session-2"));
+        Assert.assertNull(conversationManager.getPropogatedConversation(conversation3.getId(), "session-1"));
+
+        conversation2.end();
+        Assert.assertEquals(1, conversationManager.getConversationMapWithSessionId("session-1").size());
+        Assert.assertNull(conversationManager.getPropogatedConversation(conversation2.getId(), "session-1"));
+
+        Map<Conversation, ConversationContext> removed = conversationManager.getAndRemoveConversationMapWithSessionId("session-1");
+        Assert.assertEquals(1, removed.size());
+        Assert.assertTrue(removed.containsKey(conversation1));
+        Assert.assertNull(conversationManager.getConversationContext(conversation1));
+        Assert.assertNull(conversation1.getExpiry());
+        Assert.assertTrue(conversationManager.getConversationMapWithSessionId("session-1").isEmpty());
+
+        // a new conversation after the session index entry got removed
+        ConversationImpl conversation4 = beginConversation("session-1");
+        Assert.assertEquals(1, conversationManager.getConversationMapWithSessionId("session-1").size());
+
+        conversationManager.destroyConversationContextWithSessionId("session-1");
+        Assert.assertNull(conversationManager.getConversationContext(conversation4));
+        Assert.assertNotNull(conversationManager.getConversationContext(conversation3));
+    }
+
+    @Test
+    public void testRemoveAllConversations()
+    {
+        startContainer();
+        ConversationManager conversationManager = getWebBeansContext().getConversationManager();
+
+        ConversationImpl conversation1 = beginConversation("session-1");
+        ConversationImpl conversation2 = beginConversation("session-2");
+
+        try
+        {
+            conversationManager.getAllConversationContexts().clear();
+            Assert.fail("the conversations must only get removed via the ConversationManager");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // expected
+        }
+
+        Map<Conversation, ConversationContext> removed = conversationManager.getAndRemoveAllConversationContexts();
+        Assert.assertEquals(2, removed.size());
+        Assert.assertTrue(conversationManager.getAllConversationContexts().isEmpty());
+        Assert.assertTrue(conversationManager.getConversationMapWithSessionId("session-1").isEmpty());
+        Assert.assertTrue(conversationManager.getConversationMapWithSessionId("session-2").isEmpty());
+        Assert.assertNull(conversation1.getExpiry());
+        Assert.assertNull(conversation2.getExpiry());
+    }
+
+    private ConversationImpl beginConversation(String sessionId)
+    {
+        ConversationImpl conversation = new ConversationImpl(sessionId, getWebBeansContext());
+        conversation.begin();
+        return conversation;
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Annotated;
+import javax.enterprise.inject.spi.DeploymentException;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
+import javax.inject.Inject;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.config.DeploymentSnapshot;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
+import org.apache.webbeans.lifecycle.StandaloneLifeCycle;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.WebBeansUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeploymentSnapshotTest extends AbstractUnitTest
+{
+    private File archiveDir;
+    private File snapshotDir;
+
+    @Before
+    public void createDirectories() throws IOException
+    {
+        archiveDir = createTempDirectory("owb-archive");
+        snapshotDir = createTempDirectory("owb-snapshot");
+        writeFile(new File(archiveDir, "META-INF/beans.xml"), "<beans></beans>");
+        writeFile(new File(archiveDir, "org/test/Bean.class"), "dummy");
+    }
+
+    @After
+    public void deleteDirectories()
+    {
+        delete(archiveDir);
+        delete(snapshotDir);
+    }
+
+    @Test
+    public void testKey() throws Exception
+    {
+        Collection<URL> urls = Collections.singletonList(archiveDir.toURI().toURL());
+
+        String key = DeploymentSnapshot.computeKey(urls);
+        Assert.assertNotNull(key);
+        Assert.assertEquals(key, DeploymentSnapshot.computeKey(urls));
+
+        writeFile(new File(archiveDir, "META-INF/beans.xml"), "<beans><!-- changed --></beans>");
+        Assert.assertFalse(key.equals(DeploymentSnapshot.computeKey(urls)));
+
+        Assert.assertNull(DeploymentSnapshot.computeKey(Collections.singletonList(new URL("http://localhost/app.jar"))));
+    }
+
+    @Test
+    public void testStoreAndRestore() throws Exception
+    {
+        Collection<URL> urls = Collections.singletonList(archiveDir.toURI().toURL());
+        WebBeansContext webBeansContext = new WebBeansContext();
+
+        Assert.assertNull(DeploymentSnapshot.open(webBeansContext, urls));
+
+        webBeansContext.getOpenWebBeansConfiguration().setProperty(OpenWebBeansConfiguration.DEPLOYMENT_SNAPSHOT_DIRECTORY,
+                snapshotDir.getAbsolutePath());
+
+        DeploymentSnapshot snapshot = DeploymentSnapshot.open(webBeansContext, urls);
+        Assert.assertNotNull(snapshot);
+        Assert.assertFalse(snapshot.isRestored());
+        snapshot.setClassNames(Arrays.asList("org.test.Bean", "org.test.Other"));
+        snapshot.store("fingerprint");
+
+        snapshot = DeploymentSnapshot.open(webBeansContext, urls);
+        Assert.assertTrue(snapshot.isRestored());
+        Assert.assertEquals(Arrays.asList("org.test.Bean", "org.test.Other"), snapshot.getClassNames());
+        Assert.assertTrue(snapshot.isValidated("fingerprint"));
+        Assert.assertFalse(snapshot.isValidated("otherFingerprint"));
+
+        // a changed archive must not use the old snapshot
+        writeFile(new File(archiveDir, "org/test/Other.class"), "dummy");
+        Assert.assertFalse(DeploymentSnapshot.open(webBeansContext, urls).isRestored());
+    }
+
+    @Test
+    public void testUnsafeExtension() throws Exception
+    {
+        Collection<URL> urls = Collections.singletonList(archiveDir.toURI().toURL());
+        WebBeansContext webBeansContext = new WebBeansContext();
+        webBeansContext.getOpenWebBeansConfiguration().setProperty(OpenWebBeansConfiguration.DEPLOYMENT_SNAPSHOT_DIRECTORY,
+                snapshotDir.getAbsolutePath());
+        webBeansContext.getExtensionLoader().addExtension(new UnsafeExtension());
+
+        // the snapshot must not even get opened, otherwise the scanner would restore the classes
+        Assert.assertNull(DeploymentSnapshot.open(webBeansContext, urls));
+
+        webBeansContext.getOpenWebBeansConfiguration().setProperty(OpenWebBeansConfiguration.DEPLOYMENT_SNAPSHOT_SAFE_EXTENSIONS,
+                UnsafeExtension.class.getName());
+        Assert.assertNotNull(DeploymentSnapshot.open(webBeansContext, urls));
+    }
+
+    @Test
+    public void testFingerprint()
+    {
+        startContainer(FirstBean.class);
+        String fingerprint = DeploymentSnapshot.fingerprint(getWebBeansContext());
+        shutDownContainer();
+
+        startContainer(FirstBean.class);
+        Assert.assertEquals(fingerprint, DeploymentSnapshot.fingerprint(getWebBeansContext()));
+        shutDownContainer();
+
+        startContainer(FirstBean.class, SecondBean.class);
+        Assert.assertFalse(fingerprint.equals(DeploymentSnapshot.fingerprint(getWebBeansContext())));
+    }
+
+    @Test
+    public void testFingerprintContainsInjectionPoints()
+    {
+        startContainer(FirstBean.class, Consumer.class);
+        String fingerprint = DeploymentSnapshot.fingerprint(getWebBeansContext());
+        shutDownContainer();
+
+        // the same beans, only the qualifiers of the injection point differ
+        addExtension(new AnyQualifierExtension());
+        startContainer(FirstBean.class, Consumer.class);
+        Assert.assertFalse(fingerprint.equals(DeploymentSnapshot.fingerprint(getWebBeansContext())));
+    }
+
+    @Test
+    public void testRestartFromSnapshot() throws Exception
+    {
+        DirectoryArchive archive = new DirectoryArchive(FirstBean.class, Consumer.class);
+        try
+        {
+            StandaloneLifeCycle lifecycle = archive.start(getSnapshotConfiguration());
+            Assert.assertFalse(getDeploymentSnapshot().isRestored());
+            Set<Class<?>> beanClasses = getBeanClasses();
+            lifecycle.stopApplication(null);
+
+            Assert.assertTrue(new File(snapshotDir, DeploymentSnapshot.FILE_NAME).isFile());
+
+            lifecycle = archive.start(getSnapshotConfiguration());
+            try
+            {
+                // the classes got loaded from the snapshot and the validation got skipped
+                DeploymentSnapshot snapshot = getDeploymentSnapshot();
+                Assert.assertTrue(snapshot.isRestored());
+                Assert.assertTrue(snapshot.getClassNames().contains(Consumer.class.getName()));
+                Assert.assertTrue(snapshot.isValidated(DeploymentSnapshot.fingerprint(WebBeansContext.getInstance())));
+
+                Assert.assertEquals(beanClasses, getBeanClasses());
+                Assert.assertEquals(1, WebBeansContext.getInstance().getBeanManagerImpl().getBeans(FirstBean.class).size());
+                Assert.assertEquals(1, WebBeansContext.getInstance().getBeanManagerImpl().getBeans(Consumer.class).size());
+            }
+            finally
+            {
+                lifecycle.stopApplication(null);
+            }
+        }
+        finally
+        {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void testChangedArchiveGetsScannedAgain() throws Exception
+    {
+        DirectoryArchive archive = new DirectoryArchive(FirstBean.class);
+        try
+        {
+            archive.start(getSnapshotConfiguration()).stopApplication(null);
+
+            archive.addClasses(SecondBean.class);
+
+            StandaloneLifeCycle lifecycle = archive.start(getSnapshotConfiguration());
+            try
+            {
+                Assert.assertFalse(getDeploymentSnapshot().isRestored());
+                Assert.assertEquals(1, WebBeansContext.getInstance().getBeanManagerImpl().getBeans(SecondBean.class).size());
+            }
+            finally
+            {
+                lifecycle.stopApplication(null);
+            }
+        }
+        finally
+        {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void testChangedFingerprintGetsValidated() throws Exception
+    {
+        DirectoryArchive archive = new DirectoryArchive(FirstBean.class, Consumer.class);
+        try
+        {
+            archive.start(getSnapshotConfiguration()).stopApplication(null);
+
+            // the same archive, but the injection point of the Consumer cannot get satisfied anymore
+            Properties configuration = getSnapshotConfiguration();
+            configuration.setProperty(OpenWebBeansConfiguration.DEPLOYMENT_SNAPSHOT_SAFE_EXTENSIONS, MissingBeanExtension.class.getName());
+            try
+            {
+                archive.start(configuration, new MissingBeanExtension()).stopApplication(null);
+                Assert.fail("the changed deployment must get validated");
+            }
+            catch (DeploymentException e)
+            {
+                Assert.assertTrue(getDeploymentSnapshot().isRestored());
+            }
+        }
+        finally
+        {
+            WebBeansFinder.clearInstances(WebBeansUtil.getCurrentClassLoader());
+            archive.delete();
+        }
+    }
+
+    private Properties getSnapshotConfiguration()
+    {
+        Properties configuration = new Properties();
+        configuration.setProperty(OpenWebBeansConfiguration.DEPLOYMENT_SNAPSHOT_DIRECTORY, snapshotDir.getAbsolutePath());
+        return configuration;
+    }
+
+    private static DeploymentSnapshot getDeploymentSnapshot()
+    {
+        return ((AbstractMetaDataDiscovery) WebBeansContext.getInstance().getScannerService()).getDeploymentSnapshot();
+    }
+
+    private static Set<Class<?>> getBeanClasses()
+    {
+        Set<Class<?>> beanClasses = new HashSet<Class<?>>();
+        for (Bean<?> bean : WebBeansContext.getInstance().getBeanManagerImpl().getBeans(Object.class, AnyLiteral.INSTANCE))
+        {
+            beanClasses.add(bean.getBeanClass());
+        }
+        return beanClasses;
+    }
+
+    private static File createTempDirectory(String prefix) throws IOException
+    {
+        File dir = File.createTempFile(prefix, "");
+        dir.delete();
+        dir.mkdirs();
+        return dir;
+    }
+
+    private static void writeFile(File file, String content) throws IOException
+    {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            out.write(content.getBytes("UTF-8"));
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private static void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    @RequestScoped
+    public static class FirstBean
+    {
+    }
+
+    @ApplicationScoped
+    public static class SecondBean
+    {
+    }
+
+    public static class Consumer
+    {
+        @Inject
+        private FirstBean bean;
+    }
+
+    public static class AnyQualifierExtension implements Extension
+    {
+        public void addAnyQualifier(@Observes ProcessInjectionPoint<Consumer, FirstBean> event)
+        {
+            Set<Annotation> qualifiers = new HashSet<Annotation>(event.getInjectionPoint().getQualifiers());
+            qualifiers.add(AnyLiteral.INSTANCE);
+            event.setInjectionPoint(withQualifiers(event.getInjectionPoint(), qualifiers));
+        }
+    }
+
+    public static class MissingBeanExtension implements Extension
+    {
+        public void requireMissingBean(@Observes ProcessInjectionPoint<Consumer, FirstBean> event)
+        {
+            Set<Annotation> qualifiers = Collections.<Annotation>singleton(new NamedLiteral("missing"));
+            event.setInjectionPoint(withQualifiers(event.getInjectionPoint(), qualifiers));
+        }
+    }
+
+    private static InjectionPoint withQualifiers(final InjectionPoint injectionPoint, final Set<Annotation> qualifiers)
+    {
+        return new InjectionPoint()
+        {
+            @Override
+            public Type getType()
+            {
+                return injectionPoint.getType();
+            }
+
+            @Override
+            public Set<Annotation> getQualifiers()
+            {
+                return qualifiers;
+            }
+
+            @Override
+            public Bean<?> getBean()
+            {
+                return injectionPoint.getBean();
+            }
+
+            @Override
+            public Member getMember()
+            {
+                return injectionPoint.getMember();
+            }
+
+            @Override
+            public Annotated getAnnotated()
+            {
+                return injectionPoint.getAnnotated();
+            }
+
+            @Override
+            public boolean isDelegate()
+            {
+                return injectionPoint.isDelegate();
+            }
+
+            @Override
+            public boolean isTransient()
+            {
+                return injectionPoint.isTransient();
+            }
+        };
+    }
+
+    public static class UnsafeExtension implements Extension
+    {
+    }
+}
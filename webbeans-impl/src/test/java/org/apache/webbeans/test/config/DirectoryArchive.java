@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.enterprise.inject.spi.Extension;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
+import org.apache.webbeans.exception.WebBeansDeploymentException;
+import org.apache.webbeans.lifecycle.StandaloneLifeCycle;
+import org.apache.webbeans.spi.ScannerService;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * A bean archive in a temporary directory which contains the class files of the given classes.
+ * In contrast to the usual unit tests it gets deployed through the regular class scanning
+ * of the {@link AbstractMetaDataDiscovery}.
+ */
+public class DirectoryArchive
+{
+    private final File directory;
+
+    public DirectoryArchive(Class<?>... classes) throws IOException
+    {
+        directory = File.createTempFile("owb-archive", "");
+        directory.delete();
+        directory.mkdirs();
+
+        writeFile(new File(directory, "META-INF/beans.xml"), "<beans></beans>".getBytes("UTF-8"));
+        addClasses(classes);
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Copies the class files of the given classes into the archive.
+     */
+    public void addClasses(Class<?>... classes) throws IOException
+    {
+        for (Class<?> clazz : classes)
+        {
+            String classFile = clazz.getName().replace('.', '/') + ".class";
+            InputStream in = clazz.getClassLoader().getResourceAsStream(classFile);
+            try
+            {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) > 0)
+                {
+                    content.write(buffer, 0, read);
+                }
+                writeFile(new File(directory, classFile), content.toByteArray());
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Starts a new container which scans this archive.
+     *
+     * @param configuration properties which get set on the {@link org.apache.webbeans.config.OpenWebBeansConfiguration}
+     * @param extensions additional Extensions
+     * @return the started container, it must get stopped via {@link StandaloneLifeCycle#stopApplication(Object)}
+     */
+    public StandaloneLifeCycle start(Properties configuration, Extension... extensions)
+    {
+        WebBeansFinder.clearInstances(WebBeansUtil.getCurrentClassLoader());
+
+        WebBeansContext webBeansContext = WebBeansContext.getInstance();
+        for (Map.Entry<Object, Object> property : configuration.entrySet())
+        {
+            webBeansContext.getOpenWebBeansConfiguration().setProperty((String) property.getKey(), property.getValue());
+        }
+        for (Extension extension : extensions)
+        {
+            webBeansContext.getExtensionLoader().addExtension(extension);
+        }
+        webBeansContext.registerService(ScannerService.class, new DirectoryScannerService());
+
+        StandaloneLifeCycle lifecycle = new StandaloneLifeCycle();
+        lifecycle.startApplication(null);
+        return lifecycle;
+    }
+
+    public void delete()
+    {
+        delete(directory);
+    }
+
+    private static void writeFile(File file, byte[] content) throws IOException
+    {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            out.write(content);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private static void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Only scans the directory of the archive instead of the whole classpath.
+     */
+    private final class DirectoryScannerService extends AbstractMetaDataDiscovery
+    {
+        @Override
+        protected void configure()
+        {
+            try
+            {
+                URL archiveUrl = directory.toURI().toURL();
+                URL beansXmlUrl = new URL(archiveUrl, META_INF_BEANS_XML);
+                addWebBeansXmlLocation(beansXmlUrl);
+                addDeploymentUrl(beansXmlUrl.toExternalForm(), archiveUrl);
+            }
+            catch (MalformedURLException e)
+            {
+                throw new WebBeansDeploymentException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.lifecycle.StandaloneLifeCycle;
+import org.apache.webbeans.test.component.CheckWithCheckPayment;
+import org.apache.webbeans.test.component.CheckWithMoneyPayment;
+import org.apache.webbeans.test.component.IPayment;
+import org.apache.webbeans.test.component.PaymentProcessorComponent;
+import org.apache.webbeans.test.component.dependent.DependentComponent;
+import org.apache.webbeans.test.component.dependent.DependentOwnerComponent;
+import org.apache.webbeans.test.component.dependent.MultipleDependentComponent;
+import org.apache.webbeans.test.component.dependent.circular.DependentA;
+import org.apache.webbeans.test.component.dependent.circular.DependentB;
+import org.apache.webbeans.test.component.inheritance.InheritFromParentComponent;
+import org.apache.webbeans.test.component.inheritance.ParentComponent;
+import org.apache.webbeans.test.component.inheritance.ParentComponentSubClass;
+import org.apache.webbeans.test.profields.beans.classproducer.MyProductBean;
+import org.apache.webbeans.test.profields.beans.classproducer.MyProductProducer;
+import org.apache.webbeans.test.profields.beans.classproducer.ProductInjectedBean;
+import org.apache.webbeans.test.promethods.beans.PersonProducerBean;
+import org.apache.webbeans.test.promethods.common.Person;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The parallel bootstrap must discover the same beans as the sequential one
+ * and fire the ProcessAnnotatedType events in the same order.
+ */
+public class ParallelBootstrapTest
+{
+    private DirectoryArchive archive;
+
+    @Before
+    public void createArchive() throws Exception
+    {
+        archive = new DirectoryArchive(PaymentProcessorComponent.class, CheckWithCheckPayment.class, CheckWithMoneyPayment.class,
+                IPayment.class, ProductInjectedBean.class, MyProductProducer.class, MyProductBean.class,
+                Person.class, PersonProducerBean.class, DependentA.class, DependentB.class,
+                DependentComponent.class, DependentOwnerComponent.class, MultipleDependentComponent.class,
+                InheritFromParentComponent.class, ParentComponent.class, ParentComponentSubClass.class);
+    }
+
+    @After
+    public void deleteArchive()
+    {
+        archive.delete();
+    }
+
+    @Test
+    public void testSameDeploymentAsSequentialBootstrap()
+    {
+        ProcessAnnotatedTypeRecorder sequentialRecorder = new ProcessAnnotatedTypeRecorder();
+        Set<Class<?>> sequentialBeanClasses = deploy(false, sequentialRecorder);
+
+        ProcessAnnotatedTypeRecorder parallelRecorder = new ProcessAnnotatedTypeRecorder();
+        Set<Class<?>> parallelBeanClasses = deploy(true, parallelRecorder);
+
+        Assert.assertTrue(sequentialBeanClasses.contains(PaymentProcessorComponent.class));
+        Assert.assertTrue(sequentialBeanClasses.contains(ParentComponentSubClass.class));
+        Assert.assertEquals(sequentialBeanClasses, parallelBeanClasses);
+
+        Assert.assertTrue(sequentialRecorder.getTypes().contains(IPayment.class));
+        Assert.assertEquals(sequentialRecorder.getTypes(), parallelRecorder.getTypes());
+    }
+
+    /**
+     * @return the classes of all beans which got deployed from the archive
+     */
+    private Set<Class<?>> deploy(boolean parallel, Extension extension)
+    {
+        Properties configuration = new Properties();
+        configuration.setProperty(OpenWebBeansConfiguration.PARALLEL_BOOTSTRAP, Boolean.toString(parallel));
+        configuration.setProperty(OpenWebBeansConfiguration.PARALLEL_BOOTSTRAP_THREADS, "4");
+
+        StandaloneLifeCycle lifecycle = archive.start(configuration, extension);
+        try
+        {
+            Set<Class<?>> beanClasses = new HashSet<Class<?>>();
+            for (Bean<?> bean : WebBeansContext.getInstance().getBeanManagerImpl().getBeans(Object.class, AnyLiteral.INSTANCE))
+            {
+                beanClasses.add(bean.getBeanClass());
+            }
+            return beanClasses;
+        }
+        finally
+        {
+            lifecycle.stopApplication(null);
+        }
+    }
+
+    public static class ProcessAnnotatedTypeRecorder implements Extension
+    {
+        private final List<Class<?>> types = new ArrayList<Class<?>>();
+
+        public void recordType(@Observes ProcessAnnotatedType<?> event)
+        {
+            types.add(event.getAnnotatedType().getJavaClass());
+        }
+
+        public List<Class<?>> getTypes()
+        {
+            return types;
+        }
+    }
+}
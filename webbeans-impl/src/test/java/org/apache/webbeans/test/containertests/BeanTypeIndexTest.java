@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.containertests;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.util.TypeLiteral;
+import javax.inject.Inject;
+
+import junit.framework.Assert;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+/**
+ * Checks that the type resolution which uses the bean type index
+ * after the AfterBeanDiscovery event finds the same beans
+ * as a full scan over all deployed beans.
+ */
+public class BeanTypeIndexTest extends AbstractUnitTest
+{
+    @Test
+    public void testResolutionViaIndex()
+    {
+        startContainer(IndexedBean.class, IndexedProducers.class);
+
+        Assert.assertEquals(1, getBeanManager().getBeans(IndexedBean.class).size());
+        Assert.assertEquals(1, getBeanManager().getBeans(Serializable.class).size());
+
+        // primitive and wrapper types must resolve to each other
+        Assert.assertEquals(1, getBeanManager().getBeans(int.class).size());
+        Assert.assertEquals(1, getBeanManager().getBeans(Integer.class).size());
+
+        Assert.assertEquals(1, getBeanManager().getBeans(new TypeLiteral<List<String>>(){}.getType()).size());
+        Assert.assertTrue(getBeanManager().getBeans(new TypeLiteral<List<Long>>(){}.getType()).isEmpty());
+
+        Assert.assertTrue(getBeanManager().getBeans(Runnable.class).isEmpty());
+
+        Set<Bean<?>> objectBeans = getBeanManager().getBeans(Object.class);
+        Assert.assertTrue(objectBeans.size() >= 4);
+    }
+
+    @Test
+    public void testArrayProducers()
+    {
+        startContainer(ArrayProducers.class, ArrayConsumer.class);
+
+        Assert.assertEquals(1, getBeanManager().getBeans(String[].class).size());
+        Assert.assertEquals(1, getBeanManager().getBeans(int[].class).size());
+        Assert.assertTrue(getBeanManager().getBeans(Integer[].class).isEmpty());
+        Assert.assertEquals(1, getBeanManager().getBeans(new TypeLiteral<List<String[]>>(){}.getType()).size());
+        Assert.assertTrue(getBeanManager().getBeans(new TypeLiteral<List<Integer[]>>(){}.getType()).isEmpty());
+
+        ArrayConsumer consumer = getInstance(ArrayConsumer.class);
+        Assert.assertEquals("a", consumer.strings[0]);
+        Assert.assertEquals(42, consumer.ints[0]);
+        Assert.assertEquals("b", consumer.stringArrays.get(0)[0]);
+    }
+
+    public static class IndexedBean implements Serializable
+    {
+    }
+
+    public static class IndexedProducers
+    {
+        @Produces
+        public int produceInt()
+        {
+            return 42;
+        }
+
+        @Produces
+        public List<String> produceList()
+        {
+            return new ArrayList<String>();
+        }
+    }
+
+    public static class ArrayProducers
+    {
+        @Produces
+        public String[] produceStringArray()
+        {
+            return new String[]{"a"};
+        }
+
+        @Produces
+        public int[] produceIntArray()
+        {
+            return new int[]{42};
+        }
+
+        @Produces
+        public List<String[]> produceListOfArrays()
+        {
+            List<String[]> stringArrays = new ArrayList<String[]>();
+            stringArrays.add(new String[]{"b"});
+            return stringArrays;
+        }
+    }
+
+    public static class ArrayConsumer
+    {
+        @Inject
+        private String[] strings;
+
+        @Inject
+        private int[] ints;
+
+        @Inject
+        private List<String[]> stringArrays;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+import javax.inject.Provider;
+
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the context fast path used by the normal scoped proxies
+ * always hands out the context which is current at invocation time.
+ */
+public class ContextProviderTest extends AbstractUnitTest
+{
+    @Test
+    public void testContextProviderFollowsCurrentContext()
+    {
+        startContainer(RequestBean.class);
+
+        Provider<Context> provider = getWebBeansContext().getBeanManagerImpl().getContextProvider(RequestScoped.class);
+        Assert.assertNotNull(provider);
+        Assert.assertSame(getBeanManager().getContext(RequestScoped.class), provider.get());
+
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        contextsService.endContext(RequestScoped.class, null);
+        contextsService.startContext(RequestScoped.class, null);
+
+        Assert.assertSame(getBeanManager().getContext(RequestScoped.class), provider.get());
+        Assert.assertNull(getWebBeansContext().getBeanManagerImpl().getContextProvider(Dependent.class));
+    }
+
+    @Test
+    public void testRequestScopedProxyAfterContextRestart()
+    {
+        startContainer(RequestBean.class);
+
+        RequestBean bean = getInstance(RequestBean.class);
+        int firstId = bean.getId();
+        Assert.assertEquals(firstId, bean.getId());
+
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        contextsService.endContext(RequestScoped.class, null);
+        contextsService.startContext(RequestScoped.class, null);
+
+        int secondId = bean.getId();
+        Assert.assertTrue(firstId != secondId);
+        Assert.assertEquals(secondId, bean.getId());
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        private static final AtomicInteger COUNTER = new AtomicInteger();
+
+        private final int id = COUNTER.incrementAndGet();
+
+        public int getId()
+        {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.context.AbstractContextsService;
+import org.apache.webbeans.context.ThreadLocalInstanceCache;
+import org.apache.webbeans.intercept.ThreadLocalCachingBeanInterceptorHandler;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThreadLocalInstanceCacheTest extends AbstractUnitTest
+{
+    @Test
+    public void testCacheIsClearedWhenContextEnds()
+    {
+        startContainer(CountingRequestBean.class);
+
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        Assert.assertNotNull(((AbstractContextsService) contextsService).getInstanceCache(RequestScoped.class));
+        Assert.assertNull(((AbstractContextsService) contextsService).getInstanceCache(ApplicationScoped.class));
+
+        Bean<CountingRequestBean> bean = getBean(CountingRequestBean.class);
+        ThreadLocalCachingBeanInterceptorHandler handler = new ThreadLocalCachingBeanInterceptorHandler(getBeanManager(), bean);
+
+        CountingRequestBean instance = (CountingRequestBean) handler.get();
+        Assert.assertSame(instance, handler.get());
+        Assert.assertSame(instance, getBeanManager().getContext(RequestScoped.class).get(bean));
+
+        contextsService.endContext(RequestScoped.class, null);
+        contextsService.startContext(RequestScoped.class, null);
+
+        CountingRequestBean newInstance = (CountingRequestBean) handler.get();
+        Assert.assertNotSame(instance, newInstance);
+        Assert.assertTrue(instance.getId() != newInstance.getId());
+        Assert.assertSame(newInstance, getBeanManager().getContext(RequestScoped.class).get(bean));
+    }
+
+    @Test
+    public void testCacheIsThreadBound() throws Exception
+    {
+        startContainer(CountingRequestBean.class);
+
+        Bean<CountingRequestBean> bean = getBean(CountingRequestBean.class);
+        final ThreadLocalCachingBeanInterceptorHandler handler = new ThreadLocalCachingBeanInterceptorHandler(getBeanManager(), bean);
+        final ContextsService contextsService = getWebBeansContext().getContextsService();
+
+        Object instance = handler.get();
+
+        final Object[] otherInstance = new Object[1];
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                contextsService.startContext(RequestScoped.class, null);
+                try
+                {
+                    otherInstance[0] = handler.get();
+                }
+                finally
+                {
+                    contextsService.endContext(RequestScoped.class, null);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+
+        Assert.assertNotNull(otherInstance[0]);
+        Assert.assertNotSame(instance, otherInstance[0]);
+        Assert.assertSame(instance, handler.get());
+    }
+
+    @Test
+    public void testStaticRemoveThreadLocals()
+    {
+        startContainer(CountingRequestBean.class);
+
+        Bean<CountingRequestBean> bean = getBean(CountingRequestBean.class);
+        ThreadLocalInstanceCache instanceCache
+                = ((AbstractContextsService) getWebBeansContext().getContextsService()).getInstanceCache(RequestScoped.class);
+        int slot = instanceCache.getSlot(bean);
+
+        Object instance = new ThreadLocalCachingBeanInterceptorHandler(getBeanManager(), bean).get();
+        Assert.assertSame(instance, instanceCache.get(slot));
+
+        // e.g. the cleanup of a pooled thread which has no access to the ContextsService
+        ThreadLocalInstanceCache.removeThreadLocals();
+        Assert.assertNull(instanceCache.get(slot));
+    }
+
+    @RequestScoped
+    public static class CountingRequestBean
+    {
+        private static final AtomicInteger COUNTER = new AtomicInteger();
+
+        private final int id = COUNTER.incrementAndGet();
+
+        public int getId()
+        {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts.slot;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.context.BeanSlotInstanceMap;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BeanSlotTest extends AbstractUnitTest
+{
+    @Test
+    public void testBeanSlotsAreDensePerScope()
+    {
+        startContainer(FirstRequestBean.class, SecondRequestBean.class);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        int slotCount = beanManager.getBeanSlotCount(RequestScoped.class);
+
+        Set<Integer> slots = new HashSet<Integer>();
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (bean.getScope() == RequestScoped.class)
+            {
+                int slot = ((AbstractOwbBean<?>) bean).getBeanSlot();
+                Assert.assertTrue(slot >= 0 && slot < slotCount);
+                Assert.assertTrue(slots.add(slot));
+            }
+        }
+        Assert.assertEquals(slotCount, slots.size());
+    }
+
+    @Test
+    public void testRequestScopedBeansInSlotMap()
+    {
+        startContainer(FirstRequestBean.class, SecondRequestBean.class);
+
+        FirstRequestBean first = getInstance(FirstRequestBean.class);
+        SecondRequestBean second = getInstance(SecondRequestBean.class);
+        first.setValue("first");
+        second.setValue("second");
+
+        Assert.assertEquals("first", getInstance(FirstRequestBean.class).getValue());
+        Assert.assertEquals("second", getInstance(SecondRequestBean.class).getValue());
+    }
+
+    @Test
+    public void testContextualsWithoutSlot()
+    {
+        startContainer(FirstRequestBean.class, SecondRequestBean.class);
+
+        AbstractOwbBean<?> first = (AbstractOwbBean<?>) getBean(FirstRequestBean.class);
+        AbstractOwbBean<?> second = (AbstractOwbBean<?>) getBean(SecondRequestBean.class);
+
+        // only room for the first bean, the second one has to use the fallback storage
+        BeanSlotInstanceMap map = new BeanSlotInstanceMap(Math.max(first.getBeanSlot(), second.getBeanSlot()));
+        BeanInstanceBag<?> firstBag = new BeanInstanceBag<Object>(null);
+        BeanInstanceBag<?> secondBag = new BeanInstanceBag<Object>(null);
+
+        Assert.assertNull(map.putIfAbsent(first, firstBag));
+        Assert.assertNull(map.putIfAbsent(second, secondBag));
+        Assert.assertSame(firstBag, map.putIfAbsent(first, secondBag));
+        Assert.assertSame(firstBag, map.get(first));
+        Assert.assertSame(secondBag, map.get(second));
+        Assert.assertEquals(2, map.size());
+
+        Set<Contextual<?>> keys = new HashSet<Contextual<?>>(map.keySet());
+        Assert.assertTrue(keys.contains(first));
+        Assert.assertTrue(keys.contains(second));
+
+        Assert.assertSame(firstBag, map.remove(first));
+        Assert.assertNull(map.get(first));
+        Assert.assertSame(secondBag, map.remove(second));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @RequestScoped
+    public static class FirstRequestBean
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+
+    @RequestScoped
+    public static class SecondRequestBean
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.corespi;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DefaultSingletonServiceTest
+{
+    @Test
+    public void testOneWebBeansContextPerClassLoader()
+    {
+        DefaultSingletonService singletonService = new DefaultSingletonService();
+        ClassLoader loader1 = new URLClassLoader(new URL[0]);
+        ClassLoader loader2 = new URLClassLoader(new URL[0]);
+
+        WebBeansContext context1 = singletonService.get(loader1);
+        WebBeansContext context2 = singletonService.get(loader2);
+        Assert.assertNotNull(context1);
+        Assert.assertNotNull(context2);
+        Assert.assertNotSame(context1, context2);
+
+        Assert.assertSame(context1, singletonService.get(loader1));
+        Assert.assertSame(context2, singletonService.get(loader2));
+        Assert.assertSame(context1, singletonService.get(loader1));
+    }
+
+    @Test
+    public void testClear()
+    {
+        DefaultSingletonService singletonService = new DefaultSingletonService();
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+
+        WebBeansContext context = singletonService.get(loader);
+        Assert.assertSame(context, singletonService.get(loader));
+
+        singletonService.clear(loader);
+
+        WebBeansContext newContext = singletonService.get(loader);
+        Assert.assertNotNull(newContext);
+        Assert.assertNotSame(context, newContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonClassLoaderKey()
+    {
+        new DefaultSingletonService().get("not a ClassLoader");
+    }
+
+    @Test
+    public void testConcurrentGet() throws Exception
+    {
+        final DefaultSingletonService singletonService = new DefaultSingletonService();
+        final ClassLoader[] loaders = new ClassLoader[] { new URLClassLoader(new URL[0]), new URLClassLoader(new URL[0]) };
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<WebBeansContext>> futures = new ArrayList<Future<WebBeansContext>>();
+            for (int i = 0; i < 64; i++)
+            {
+                final ClassLoader loader = loaders[i % loaders.length];
+                futures.add(executor.submit(new Callable<WebBeansContext>()
+                {
+                    @Override
+                    public WebBeansContext call() throws Exception
+                    {
+                        start.await();
+                        return singletonService.get(loader);
+                    }
+                }));
+            }
+            start.countDown();
+
+            Map<WebBeansContext, Boolean> contexts = new IdentityHashMap<WebBeansContext, Boolean>();
+            for (Future<WebBeansContext> future : futures)
+            {
+                contexts.put(future.get(), Boolean.TRUE);
+            }
+            Assert.assertEquals(loaders.length, contexts.size());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
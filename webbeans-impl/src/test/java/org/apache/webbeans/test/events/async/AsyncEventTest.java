@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.async;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import junit.framework.Assert;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.event.EventImpl;
+import org.apache.webbeans.event.ObserverNotificationException;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.After;
+import org.junit.Test;
+
+public class AsyncEventTest extends AbstractUnitTest
+{
+    private static final List<String> NOTIFIED = new CopyOnWriteArrayList<String>();
+
+    @After
+    public void cleanup()
+    {
+        NOTIFIED.clear();
+        System.clearProperty(OpenWebBeansConfiguration.ASYNC_EVENT_DELIVERY);
+    }
+
+    @Test
+    public void testDeliveryOnFiringThreadIfDisabled() throws Exception
+    {
+        startContainer(getBeanClasses());
+
+        Future<AsyncTestEvent> future = fire(new AsyncTestEvent(false));
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertNotNull(future.get());
+        Assert.assertEquals(1, NOTIFIED.size());
+        Assert.assertEquals(Thread.currentThread().getName(), NOTIFIED.get(0));
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testDeliveryOnSeparateThread() throws Exception
+    {
+        System.setProperty(OpenWebBeansConfiguration.ASYNC_EVENT_DELIVERY, "true");
+        startContainer(getBeanClasses());
+
+        AsyncTestEvent event = new AsyncTestEvent(false);
+        Assert.assertSame(event, fire(event).get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, NOTIFIED.size());
+        Assert.assertTrue(NOTIFIED.get(0), NOTIFIED.get(0).startsWith("OWB-event-"));
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testExceptionsGetCollected() throws Exception
+    {
+        System.setProperty(OpenWebBeansConfiguration.ASYNC_EVENT_DELIVERY, "true");
+        startContainer(getBeanClasses());
+
+        Future<AsyncTestEvent> future = fire(new AsyncTestEvent(true));
+        try
+        {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail("ObserverNotificationException expected");
+        }
+        catch (ExecutionException e)
+        {
+            Assert.assertTrue(e.getCause() instanceof ObserverNotificationException);
+            List<Throwable> failures = ((ObserverNotificationException) e.getCause()).getFailures();
+            Assert.assertEquals(1, failures.size());
+            Assert.assertTrue(failures.get(0) instanceof IllegalStateException);
+        }
+
+        // the failing observer must not prevent the notification of the other one
+        Assert.assertEquals(1, NOTIFIED.size());
+
+        shutDownContainer();
+    }
+
+    private Future<AsyncTestEvent> fire(AsyncTestEvent event)
+    {
+        return ((EventImpl<AsyncTestEvent>) getInstance(EventSource.class).getEvent()).fireAsync(event);
+    }
+
+    private Collection<Class<?>> getBeanClasses()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(EventSource.class);
+        classes.add(RequestBean.class);
+        classes.add(AsyncObservers.class);
+        return classes;
+    }
+
+    public static class AsyncTestEvent
+    {
+        private final boolean fail;
+
+        public AsyncTestEvent(boolean fail)
+        {
+            this.fail = fail;
+        }
+    }
+
+    public static class EventSource
+    {
+        @Inject
+        private Event<AsyncTestEvent> event;
+
+        public Event<AsyncTestEvent> getEvent()
+        {
+            return event;
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        public String getThreadName()
+        {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    @ApplicationScoped
+    public static class AsyncObservers
+    {
+        @Inject
+        private RequestBean requestBean;
+
+        public void notify(@Observes AsyncTestEvent event)
+        {
+            // needs an active RequestContext
+            NOTIFIED.add(requestBean.getThreadName());
+        }
+
+        public void fail(@Observes AsyncTestEvent event)
+        {
+            if (event.fail)
+            {
+                throw new IllegalStateException("failing observer");
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import junit.framework.Assert;
+
+import org.apache.webbeans.event.EventImpl;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class BatchEventTest extends AbstractUnitTest
+{
+    @Test
+    public void testBatchDelivery()
+    {
+        startContainer(getBeanClasses());
+
+        List<Record> records = Arrays.asList(new Record(1), new Record(2), new Record(3));
+        EventImpl<Record> event = (EventImpl<Record>) getInstance(RecordSource.class).getEvent();
+        event.fireAll(records);
+
+        RecordObservers observers = getInstance(RecordObservers.class);
+        Assert.assertEquals(records, observers.getSingleRecords());
+        Assert.assertEquals(1, observers.getBatches().size());
+        Assert.assertEquals(records, observers.getBatches().get(0));
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testBatchViaBeanManager()
+    {
+        startContainer(getBeanClasses());
+
+        getWebBeansContext().getBeanManagerImpl().fireEvents(Arrays.asList(new Record(1), new Record(2)));
+
+        RecordObservers observers = getInstance(RecordObservers.class);
+        Assert.assertEquals(2, observers.getSingleRecords().size());
+        Assert.assertEquals(1, observers.getBatches().size());
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testBatchOnlyForExactListObservers()
+    {
+        Collection<Class<?>> classes = getBeanClasses();
+        classes.add(WideObservers.class);
+        startContainer(classes);
+
+        getWebBeansContext().getBeanManagerImpl().fireEvents(Arrays.asList(new Record(1), new Record(2)));
+        getWebBeansContext().getBeanManagerImpl().fireEvents(Arrays.asList(new Record(3)));
+
+        WideObservers wideObservers = getInstance(WideObservers.class);
+        Assert.assertEquals(3, wideObservers.getObjects().size());
+        Assert.assertEquals(0, wideObservers.getCollections().size());
+        Assert.assertEquals(2, getInstance(RecordObservers.class).getBatches().size());
+
+        shutDownContainer();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMixedEventClassesAreRejected()
+    {
+        startContainer(getBeanClasses());
+        try
+        {
+            getWebBeansContext().getBeanManagerImpl().fireEvents(Arrays.<Object>asList(new Record(1), "no record"));
+        }
+        finally
+        {
+            shutDownContainer();
+        }
+    }
+
+    private Collection<Class<?>> getBeanClasses()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(RecordSource.class);
+        classes.add(RecordObservers.class);
+        return classes;
+    }
+
+    public static class Record
+    {
+        private final int id;
+
+        public Record(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Record" + id;
+        }
+    }
+
+    public static class RecordSource
+    {
+        @Inject
+        private Event<Record> event;
+
+        public Event<Record> getEvent()
+        {
+            return event;
+        }
+    }
+
+    @ApplicationScoped
+    public static class WideObservers
+    {
+        private final List<Object> objects = new ArrayList<Object>();
+        private final List<Collection<?>> collections = new ArrayList<Collection<?>>();
+
+        public void object(@Observes Object object)
+        {
+            if (object instanceof Record || object instanceof Collection)
+            {
+                objects.add(object);
+            }
+        }
+
+        public void collection(@Observes Collection<?> collection)
+        {
+            collections.add(collection);
+        }
+
+        public List<Object> getObjects()
+        {
+            return objects;
+        }
+
+        public List<Collection<?>> getCollections()
+        {
+            return collections;
+        }
+    }
+
+    @ApplicationScoped
+    public static class RecordObservers
+    {
+        private final List<Record> singleRecords = new ArrayList<Record>();
+        private final List<List<Record>> batches = new ArrayList<List<Record>>();
+
+        public void single(@Observes Record record)
+        {
+            singleRecords.add(record);
+        }
+
+        public void batch(@Observes List<Record> records)
+        {
+            batches.add(records);
+        }
+
+        public List<Record> getSingleRecords()
+        {
+            return singleRecords;
+        }
+
+        public List<List<Record>> getBatches()
+        {
+            return batches;
+        }
+    }
+}
@@ -18,8 +18,17 @@
  */
 package org.apache.webbeans.test.events.observer;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.enterprise.event.Reception;
+import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.spi.ObserverMethod;
+import javax.enterprise.util.AnnotationLiteral;
 
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.junit.Assert;
@@ -150,4 +159,91 @@ public class EventTest extends AbstractUnitTest {
         shutDownContainer();
 
     }
+
+    @Test
+    public void testObserverAddedAfterFirstResolution()
+    {
+        Collection<Class<?>> beanClasses = new ArrayList<Class<?>>();
+        beanClasses.add(Superclass.class);
+        beanClasses.add(BeanA.class);
+        startContainer(beanClasses, null);
+
+        TestEvent testEvent = new TestEvent();
+        getBeanManager().fireEvent(testEvent);
+        getBeanManager().fireEvent(testEvent);
+        Assert.assertEquals(2, testEvent.getCalledObservers().size());
+
+        getWebBeansContext().getBeanManagerImpl().getNotificationManager().addObserver(new ObserverMethod<TestEvent>()
+        {
+            @Override
+            public Class<?> getBeanClass()
+            {
+                return EventTest.class;
+            }
+
+            @Override
+            public Type getObservedType()
+            {
+                return TestEvent.class;
+            }
+
+            @Override
+            public Set<Annotation> getObservedQualifiers()
+            {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Reception getReception()
+            {
+                return Reception.ALWAYS;
+            }
+
+            @Override
+            public TransactionPhase getTransactionPhase()
+            {
+                return TransactionPhase.IN_PROGRESS;
+            }
+
+            @Override
+            public void notify(TestEvent event)
+            {
+                event.addInvocation("Programmatic");
+            }
+        }, TestEvent.class);
+
+        getBeanManager().fireEvent(testEvent);
+        Assert.assertEquals(4, testEvent.getCalledObservers().size());
+        Assert.assertTrue(testEvent.getCalledObservers().subList(2, 4).contains("Programmatic"));
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testQualifierRetentionGetsCheckedOnEachFire()
+    {
+        startContainer(Collections.<Class<?>>emptyList(), null);
+
+        Annotation qualifier = new AnnotationLiteral<ClassRetentionQualifier>()
+        {
+        };
+
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                getBeanManager().fireEvent(new Orange(), qualifier);
+                Assert.fail("IllegalArgumentException expected");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // expected
+            }
+        }
+
+        getBeanManager().fireEvent(new Orange());
+        getBeanManager().fireEvent(new Orange());
+
+        shutDownContainer();
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.injection.injectionpoint;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.inject.Inject;
+
+import junit.framework.Assert;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.annotation.DefaultLiteral;
+import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+/**
+ * Checks that the bean resolved for an injection point gets remembered
+ * and invalidated once the set of deployed beans changes.
+ */
+public class ResolvedInjectionPointBeanTest extends AbstractUnitTest
+{
+    @Test
+    public void testResolvedBeanIsCachedOnInjectionPoint()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(Dependency.class);
+        classes.add(Consumer.class);
+        startContainer(classes);
+
+        Bean<?> consumerBean = getBeanManager().getBeans(Consumer.class).iterator().next();
+        Assert.assertEquals(1, consumerBean.getInjectionPoints().size());
+        InjectionPoint injectionPoint = consumerBean.getInjectionPoints().iterator().next();
+        Assert.assertTrue(injectionPoint instanceof InjectionResolver.ResolvedBeanHolder);
+        InjectionResolver.ResolvedBeanHolder holder = (InjectionResolver.ResolvedBeanHolder) injectionPoint;
+
+        InjectionResolver injectionResolver = getWebBeansContext().getBeanManagerImpl().getInjectionResolver();
+        Bean<?> dependencyBean = injectionResolver.getInjectionPointBean(injectionPoint);
+        Assert.assertEquals(Dependency.class, dependencyBean.getBeanClass());
+
+        InjectionResolver.ResolvedBean resolvedBean = holder.getResolvedBean();
+        Assert.assertNotNull(resolvedBean);
+        Assert.assertSame(dependencyBean, injectionResolver.getInjectionPointBean(injectionPoint));
+        Assert.assertSame(resolvedBean, holder.getResolvedBean());
+
+        // a changed set of beans must trigger a new resolution
+        injectionResolver.clearBeanTypeIndex();
+        Assert.assertSame(dependencyBean, injectionResolver.getInjectionPointBean(injectionPoint));
+        Assert.assertNotSame(resolvedBean, holder.getResolvedBean());
+
+        Consumer first = getInstance(Consumer.class);
+        Consumer second = getInstance(Consumer.class);
+        Assert.assertNotNull(first.dependency);
+        Assert.assertNotNull(second.dependency);
+        Assert.assertNotSame(first.dependency, second.dependency);
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testBeanAddedAfterBoot()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(Dependency.class);
+        classes.add(Consumer.class);
+        startContainer(classes);
+
+        Bean<?> consumerBean = getBeanManager().getBeans(Consumer.class).iterator().next();
+        InjectionPoint injectionPoint = consumerBean.getInjectionPoints().iterator().next();
+        InjectionResolver.ResolvedBeanHolder holder = (InjectionResolver.ResolvedBeanHolder) injectionPoint;
+
+        InjectionResolver injectionResolver = getWebBeansContext().getBeanManagerImpl().getInjectionResolver();
+        Bean<?> dependencyBean = injectionResolver.getInjectionPointBean(injectionPoint);
+        InjectionResolver.ResolvedBean resolvedBean = holder.getResolvedBean();
+
+        // gets remembered as not resolvable
+        Assert.assertTrue(getBeanManager().getBeans(AddedDependency.class).isEmpty());
+
+        getWebBeansContext().getBeanManagerImpl().addBean(new AddedDependencyBean());
+
+        Set<Bean<?>> addedBeans = getBeanManager().getBeans(AddedDependency.class);
+        Assert.assertEquals(1, addedBeans.size());
+        Assert.assertEquals(AddedDependency.class, addedBeans.iterator().next().getBeanClass());
+        Assert.assertNotNull(getInstance(AddedDependency.class));
+
+        // the injection point gets resolved again
+        Assert.assertSame(dependencyBean, injectionResolver.getInjectionPointBean(injectionPoint));
+        Assert.assertNotSame(resolvedBean, holder.getResolvedBean());
+
+        shutDownContainer();
+    }
+
+    public static class Dependency
+    {
+    }
+
+    public static class Consumer
+    {
+        @Inject
+        private Dependency dependency;
+    }
+
+    public static class AddedDependency
+    {
+    }
+
+    private static class AddedDependencyBean implements Bean<AddedDependency>
+    {
+        @Override
+        public Set<Type> getTypes()
+        {
+            return new HashSet<Type>(Arrays.<Type>asList(AddedDependency.class, Object.class));
+        }
+
+        @Override
+        public Set<Annotation> getQualifiers()
+        {
+            return new HashSet<Annotation>(Arrays.<Annotation>asList(DefaultLiteral.INSTANCE, AnyLiteral.INSTANCE));
+        }
+
+        @Override
+        public Class<? extends Annotation> getScope()
+        {
+            return Dependent.class;
+        }
+
+        @Override
+        public String getName()
+        {
+            return null;
+        }
+
+        @Override
+        public Set<Class<? extends Annotation>> getStereotypes()
+        {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Class<?> getBeanClass()
+        {
+            return AddedDependency.class;
+        }
+
+        @Override
+        public boolean isAlternative()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isNullable()
+        {
+            return false;
+        }
+
+        @Override
+        public Set<InjectionPoint> getInjectionPoints()
+        {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public AddedDependency create(CreationalContext<AddedDependency> creationalContext)
+        {
+            return new AddedDependency();
+        }
+
+        @Override
+        public void destroy(AddedDependency instance, CreationalContext<AddedDependency> creationalContext)
+        {
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Set;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Bean;
+import javax.inject.Inject;
+import javax.management.ObjectName;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.corespi.metrics.InMemoryMetricsService;
+import org.apache.webbeans.corespi.metrics.NoopMetricsService;
+import org.apache.webbeans.lifecycle.test.OpenWebBeansTestLifeCycle;
+import org.apache.webbeans.lifecycle.test.OpenWebBeansTestMetaDataDiscoveryService;
+import org.apache.webbeans.spi.MetricsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.WebBeansUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsServiceTest extends AbstractUnitTest
+{
+    @Test
+    public void testNoopByDefault()
+    {
+        startContainer(EventSource.class, Observer.class);
+
+        Assert.assertTrue(getWebBeansContext().getMetricsService() instanceof NoopMetricsService);
+    }
+
+    @Test
+    public void testInMemoryMetrics() throws Exception
+    {
+        WebBeansFinder.clearInstances(WebBeansUtil.getCurrentClassLoader());
+        OpenWebBeansTestLifeCycle lifecycle = new OpenWebBeansTestLifeCycle();
+        WebBeansContext webBeansContext = WebBeansContext.getInstance();
+
+        InMemoryMetricsService metrics = new InMemoryMetricsService();
+        webBeansContext.registerService(MetricsService.class, metrics);
+
+        ((OpenWebBeansTestMetaDataDiscoveryService) webBeansContext.getScannerService()).deployClasses(
+                Arrays.<Class<?>>asList(EventSource.class, Observer.class, RequestBean.class));
+        lifecycle.startApplication(null);
+
+        ObjectName pattern = new ObjectName("org.apache.openwebbeans:type=Metrics,*");
+        Set<ObjectName> names = ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null);
+        Assert.assertEquals(1, names.size());
+        Assert.assertEquals(metrics.getEventsFired(),
+                ManagementFactory.getPlatformMBeanServer().getAttribute(names.iterator().next(), "EventsFired"));
+
+        Assert.assertTrue(metrics.getDeploymentPhaseMicros().containsKey("Scanning"));
+        Assert.assertTrue(metrics.getDeploymentPhaseMicros().containsKey("AfterDeploymentValidation"));
+        Assert.assertEquals(Long.valueOf(1), metrics.getContextsCreated().get(RequestScoped.class.getName()));
+
+        metrics.reset();
+
+        EventSource eventSource = getReference(webBeansContext, EventSource.class);
+        eventSource.fire();
+        eventSource.fire();
+        Assert.assertEquals(2, metrics.getEventsFired());
+        Assert.assertEquals(2, metrics.getObserverNotifications());
+
+        getReference(webBeansContext, RequestBean.class).ping();
+        Assert.assertTrue(metrics.getResolutionCacheHits() + metrics.getResolutionCacheMisses() > 0);
+        Assert.assertTrue(metrics.getProxyClassesCreated() > 0);
+
+        lifecycle.stopApplication(null);
+
+        Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).isEmpty());
+        Assert.assertEquals(Long.valueOf(1), metrics.getContextsDestroyed().get(RequestScoped.class.getName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getReference(WebBeansContext webBeansContext, Class<T> type)
+    {
+        Bean<T> bean = (Bean<T>)
+                webBeansContext.getBeanManagerImpl().resolve(webBeansContext.getBeanManagerImpl().getBeans(type));
+        return (T) webBeansContext.getBeanManagerImpl().getReference(bean, type,
+                webBeansContext.getBeanManagerImpl().createCreationalContext(bean));
+    }
+
+    public static class MetricsEvent
+    {
+    }
+
+    public static class EventSource
+    {
+        @Inject
+        private Event<MetricsEvent> event;
+
+        public void fire()
+        {
+            event.fire(new MetricsEvent());
+        }
+    }
+
+    public static class Observer
+    {
+        public void observe(@Observes MetricsEvent event)
+        {
+            // nothing to do
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        public int ping()
+        {
+            return 1;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.apache.webbeans.test.component.binding.AnyBindingComponent;
 import org.apache.webbeans.test.component.binding.DefaultAnyBinding;
@@ -95,6 +96,50 @@ public class StartupPerformanceTest extends AbstractUnitTest
 
     @Test
     public void testPerformance()
+    {
+        Collection<Class<?>> beanClasses = getBeanClasses();
+
+        long start = System.nanoTime();
+        for (int i=0; i < NUMBER_ITERATIONS; i++)
+        {
+            startupWithClasses(beanClasses);
+        }
+        long stop = System.nanoTime();
+        log.info("Starting up " + beanClasses.size() + " classes " + NUMBER_ITERATIONS + " times took " + TimeUnit.NANOSECONDS.toMillis(stop - start) + " ms");
+    }
+
+    @Test
+    public void testParallelBootstrapPerformance()
+    {
+        Collection<Class<?>> beanClasses = getBeanClasses();
+
+        long sequential = measureStartup(beanClasses, false);
+        long parallel = measureStartup(beanClasses, true);
+
+        log.info("Starting up " + beanClasses.size() + " classes " + NUMBER_ITERATIONS + " times took "
+                + TimeUnit.NANOSECONDS.toMillis(sequential) + " ms sequential and "
+                + TimeUnit.NANOSECONDS.toMillis(parallel) + " ms with parallel bootstrap");
+    }
+
+    private long measureStartup(Collection<Class<?>> beanClasses, boolean parallel)
+    {
+        System.setProperty(OpenWebBeansConfiguration.PARALLEL_BOOTSTRAP, Boolean.toString(parallel));
+        try
+        {
+            long start = System.nanoTime();
+            for (int i=0; i < NUMBER_ITERATIONS; i++)
+            {
+                startupWithClasses(beanClasses);
+            }
+            return System.nanoTime() - start;
+        }
+        finally
+        {
+            System.clearProperty(OpenWebBeansConfiguration.PARALLEL_BOOTSTRAP);
+        }
+    }
+
+    private Collection<Class<?>> getBeanClasses()
     {
         Collection<Class<?>> beanClasses = new ArrayList<Class<?>>();
         beanClasses.add(PaymentProcessorComponent.class);
@@ -160,13 +205,7 @@ public class StartupPerformanceTest extends AbstractUnitTest
         addDecorator(LargeTransactionDecorator.class);
         addDecorator(ServiceDecorator.class);
 
-        long start = System.nanoTime();
-        for (int i=0; i < NUMBER_ITERATIONS; i++)
-        {
-            startupWithClasses(beanClasses);
-        }
-        long stop = System.nanoTime();
-        log.info("Starting up " + beanClasses.size() + " classes " + NUMBER_ITERATIONS + " times took " + TimeUnit.NANOSECONDS.toMillis(stop - start) + " ms");
+        return beanClasses;
     }
 
     private void startupWithClasses(Collection<Class<?>> beanClasses)
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.portable.injectiontarget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.TransientReference;
+import javax.enterprise.inject.spi.InjectionTarget;
+import javax.inject.Inject;
+
+import junit.framework.Assert;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+/**
+ * Checks the injection order of fields, methods and initializer methods
+ * when the injection plan of an InjectionTarget gets reused.
+ */
+public class InjectionPlanTest extends AbstractUnitTest
+{
+    @Test
+    public void testInjectionOrderIsKeptForEachInstance()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(Dependency.class);
+        classes.add(OtherDependency.class);
+        classes.add(ParentTarget.class);
+        classes.add(ChildTarget.class);
+        startContainer(classes);
+
+        InjectionTarget<ChildTarget> injectionTarget
+            = getBeanManager().createInjectionTarget(getBeanManager().createAnnotatedType(ChildTarget.class));
+
+        List<String> expected = Arrays.asList("parentMethod", "childMethod", "childInitializer");
+        for (int i = 0; i < 3; i++)
+        {
+            CreationalContext<ChildTarget> creationalContext = getBeanManager().createCreationalContext(null);
+            ChildTarget instance = injectionTarget.produce(creationalContext);
+            injectionTarget.inject(instance, creationalContext);
+
+            Assert.assertEquals(expected, instance.calls);
+            Assert.assertNotNull(instance.parentDependency);
+            Assert.assertNotNull(instance.childDependency);
+        }
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testSubclassInstanceIsInjected()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(Dependency.class);
+        classes.add(ParentTarget.class);
+        startContainer(classes);
+
+        InjectionTarget<ParentTarget> injectionTarget
+            = getBeanManager().createInjectionTarget(getBeanManager().createAnnotatedType(ParentTarget.class));
+
+        CreationalContext<ParentTarget> creationalContext = getBeanManager().createCreationalContext(null);
+        ParentTarget parent = injectionTarget.produce(creationalContext);
+        injectionTarget.inject(parent, creationalContext);
+        Assert.assertEquals(Arrays.asList("parentMethod"), parent.calls);
+
+        // the plans of both classes get kept
+        for (int i = 0; i < 3; i++)
+        {
+            ParentTarget subclass = new ParentTarget()
+            {
+            };
+            injectionTarget.inject(subclass, creationalContext);
+            Assert.assertEquals(Arrays.asList("parentMethod"), subclass.calls);
+            Assert.assertNotNull(subclass.parentDependency);
+
+            parent = injectionTarget.produce(creationalContext);
+            injectionTarget.inject(parent, creationalContext);
+            Assert.assertEquals(Arrays.asList("parentMethod"), parent.calls);
+        }
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testTransientReferenceGetsReleasedAfterTheMethod()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(TransientDependency.class);
+        classes.add(TransientTarget.class);
+        startContainer(classes);
+
+        InjectionTarget<TransientTarget> injectionTarget
+            = getBeanManager().createInjectionTarget(getBeanManager().createAnnotatedType(TransientTarget.class));
+
+        TransientDependency.destroyed = false;
+        CreationalContext<TransientTarget> creationalContext = getBeanManager().createCreationalContext(null);
+        TransientTarget instance = injectionTarget.produce(creationalContext);
+        injectionTarget.inject(instance, creationalContext);
+
+        Assert.assertTrue(instance.injected);
+        Assert.assertTrue(TransientDependency.destroyed);
+
+        shutDownContainer();
+    }
+
+    public static class Dependency
+    {
+    }
+
+    public static class OtherDependency
+    {
+    }
+
+    public static class ParentTarget
+    {
+        protected final List<String> calls = new ArrayList<String>();
+
+        @Inject
+        protected Dependency parentDependency;
+
+        @Inject
+        public void parentMethod(Dependency dependency)
+        {
+            Assert.assertNotNull("fields must be injected before methods", parentDependency);
+            calls.add("parentMethod");
+        }
+    }
+
+    public static class ChildTarget extends ParentTarget
+    {
+        @Inject
+        private Dependency childDependency;
+
+        @Inject
+        private void childMethod(Dependency dependency, OtherDependency otherDependency)
+        {
+            Assert.assertNotNull("fields must be injected before methods", childDependency);
+            Assert.assertNotNull(dependency);
+            Assert.assertNotNull(otherDependency);
+            calls.add("childMethod");
+        }
+
+        @Inject
+        protected void childInitializer()
+        {
+            calls.add("childInitializer");
+        }
+    }
+
+    public static class TransientDependency
+    {
+        private static boolean destroyed;
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed = true;
+        }
+    }
+
+    public static class TransientTarget
+    {
+        private boolean injected;
+
+        @Inject
+        public void init(@TransientReference TransientDependency dependency)
+        {
+            injected = dependency != null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.portable.javaee;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.inject.InjectionTargetCache;
+import org.apache.webbeans.inject.OWBInjector;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InjectionTargetCacheTest extends AbstractUnitTest
+{
+    @After
+    public void resetCacheSize()
+    {
+        System.clearProperty(OpenWebBeansConfiguration.INJECTION_TARGET_CACHE_SIZE);
+    }
+
+    @Test
+    public void testInjectionTargetGetsCached() throws Exception
+    {
+        startContainer(SampleBean.class);
+
+        InjectionTargetCache cache = getWebBeansContext().getInjectionTargetCache();
+        Assert.assertSame(cache.getInjectionTarget(MockInstance.class), cache.getInjectionTarget(MockInstance.class));
+
+        for (int i = 0; i < 3; i++)
+        {
+            MockInstance instance = new MockInstance();
+            OWBInjector.inject(getBeanManager(), instance, null);
+            Assert.assertNotNull(instance.getSample());
+            Assert.assertNotNull(instance.getViaMethod());
+        }
+        Assert.assertEquals(1, cache.size());
+
+        cache.clear(MockInstance.class.getClassLoader());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception
+    {
+        System.setProperty(OpenWebBeansConfiguration.INJECTION_TARGET_CACHE_SIZE, "1");
+        startContainer(SampleBean.class);
+
+        InjectionTargetCache cache = getWebBeansContext().getInjectionTargetCache();
+        OWBInjector.inject(getBeanManager(), new MockInstance(), null);
+        OWBInjector.inject(getBeanManager(), new SampleBean(), null);
+        Assert.assertEquals(1, cache.size());
+
+        MockInstance instance = new MockInstance();
+        OWBInjector.inject(getBeanManager(), instance, null);
+        Assert.assertNotNull(instance.getSample());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCacheCanBeDisabled() throws Exception
+    {
+        System.setProperty(OpenWebBeansConfiguration.INJECTION_TARGET_CACHE_SIZE, "0");
+        startContainer(SampleBean.class);
+
+        MockInstance instance = new MockInstance();
+        OWBInjector.inject(getBeanManager(), instance, null);
+        Assert.assertNotNull(instance.getSample());
+        Assert.assertEquals(0, getWebBeansContext().getInjectionTargetCache().size());
+    }
+}
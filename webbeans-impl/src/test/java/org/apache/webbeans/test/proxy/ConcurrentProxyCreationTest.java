@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.proxy;
+
+import javax.enterprise.inject.spi.Bean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.proxy.SubclassProxyFactory;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.test.proxy.beans.ApplicationBean;
+import org.apache.webbeans.test.proxy.beans.ConversationBean;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that proxy classes can be created from multiple threads at the same time.
+ */
+public class ConcurrentProxyCreationTest extends AbstractUnitTest
+{
+    private static final int THREADS = 8;
+
+    @Test
+    public void testSameBeanGetsOneProxyClass() throws Exception
+    {
+        Collection<Class<?>> beanClasses = new ArrayList<Class<?>>();
+        beanClasses.add(ApplicationBean.class);
+        beanClasses.add(ConversationBean.class);
+        startContainer(beanClasses, null);
+
+        final NormalScopeProxyFactory pf = new NormalScopeProxyFactory(getWebBeansContext());
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final Bean<ApplicationBean> applicationBean = getBean(ApplicationBean.class);
+        final Bean<ConversationBean> conversationBean = getBean(ConversationBean.class);
+
+        List<Class<?>> proxyClasses = runConcurrently(new Callable<Class<?>>()
+        {
+            private int count;
+
+            @Override
+            public Class<?> call()
+            {
+                boolean application;
+                synchronized (this)
+                {
+                    application = count++ % 2 == 0;
+                }
+                if (application)
+                {
+                    return pf.createProxyClass(applicationBean, classLoader, ApplicationBean.class);
+                }
+                return pf.createProxyClass(conversationBean, classLoader, ConversationBean.class);
+            }
+        });
+
+        Set<Class<?>> distinctClasses = new HashSet<Class<?>>(proxyClasses);
+        Assert.assertEquals(2, distinctClasses.size());
+        Assert.assertTrue(distinctClasses.contains(pf.createProxyClass(applicationBean, classLoader, ApplicationBean.class)));
+        Assert.assertTrue(distinctClasses.contains(pf.createProxyClass(conversationBean, classLoader, ConversationBean.class)));
+    }
+
+    @Test
+    public void testConcurrentProxyClassNamesAreUnique() throws Exception
+    {
+        Collection<Class<?>> beanClasses = new ArrayList<Class<?>>();
+        beanClasses.add(ApplicationBean.class);
+        startContainer(beanClasses, null);
+
+        final InterceptorDecoratorProxyFactory pf = new InterceptorDecoratorProxyFactory(getWebBeansContext());
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final Bean<ApplicationBean> bean = getBean(ApplicationBean.class);
+
+        // every Bean gets its own proxy class, so all of them need a different name
+        List<Class<?>> proxyClasses = runConcurrently(new Callable<Class<?>>()
+        {
+            @Override
+            public Class<?> call()
+            {
+                return pf.createProxyClass(newBeanIdentity(bean), classLoader, ApplicationBean.class, new Method[0], new Method[0]);
+            }
+        });
+
+        Set<String> proxyClassNames = new HashSet<String>();
+        for (Class<?> proxyClass : proxyClasses)
+        {
+            Assert.assertTrue(ApplicationBean.class.isAssignableFrom(proxyClass));
+            proxyClassNames.add(proxyClass.getName());
+        }
+        Assert.assertEquals(THREADS, proxyClassNames.size());
+    }
+
+    @Test
+    public void testSubclassNamesAreReservedPerClassLoader() throws Exception
+    {
+        startContainer(new ArrayList<Class<?>>(), null);
+
+        final SubclassProxyFactory pf = new SubclassProxyFactory(getWebBeansContext());
+        final ClassLoader parent = getClass().getClassLoader();
+
+        // the subclass name is fixed, so each ClassLoader must get its own reservation for it
+        List<Class<?>> subClasses = runConcurrently(new Callable<Class<?>>()
+        {
+            @Override
+            public Class<?> call()
+            {
+                return pf.createSubClass(new ClassLoader(parent)
+                {
+                }, ApplicationBean.class);
+            }
+        });
+
+        Set<ClassLoader> classLoaders = new HashSet<ClassLoader>();
+        for (Class<?> subClass : subClasses)
+        {
+            Assert.assertEquals(ApplicationBean.class, subClass.getSuperclass());
+            classLoaders.add(subClass.getClassLoader());
+        }
+        Assert.assertEquals(THREADS, classLoaders.size());
+    }
+
+    /**
+     * @return a Bean which behaves like the given one but has its own identity
+     */
+    private <T> Bean<T> newBeanIdentity(final Bean<T> bean)
+    {
+        return (Bean<T>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Bean.class}, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+            {
+                if (method.getName().equals("equals"))
+                {
+                    return proxy == args[0];
+                }
+                if (method.getName().equals("hashCode"))
+                {
+                    return System.identityHashCode(proxy);
+                }
+                return method.invoke(bean, args);
+            }
+        });
+    }
+
+    private List<Class<?>> runConcurrently(final Callable<Class<?>> proxyCreation) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Class<?>>> futures = new ArrayList<Future<Class<?>>>();
+            for (int i = 0; i < THREADS; i++)
+            {
+                futures.add(executor.submit(new Callable<Class<?>>()
+                {
+                    @Override
+                    public Class<?> call() throws Exception
+                    {
+                        start.await();
+                        return proxyCreation.call();
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Class<?>> proxyClasses = new ArrayList<Class<?>>();
+            for (Future<Class<?>> future : futures)
+            {
+                proxyClasses.add(future.get());
+            }
+            return proxyClasses;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
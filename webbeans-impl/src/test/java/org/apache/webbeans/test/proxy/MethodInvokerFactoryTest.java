@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.proxy;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.proxy.MethodInvoker;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodInvokerFactoryTest
+{
+    @Test
+    public void testGeneratedInvoker() throws Exception
+    {
+        MethodInvokerFactory factory = new MethodInvokerFactory(new WebBeansContext());
+        Method add = Target.class.getMethod("add", int.class, long.class);
+
+        MethodInvoker invoker = factory.getMethodInvoker(add);
+        Assert.assertTrue(invoker.getClass().getName().startsWith(Target.class.getName() + "$$OwbInvoker$$add"));
+        Assert.assertSame(invoker, factory.getMethodInvoker(add));
+
+        Assert.assertEquals(5L, invoker.invoke(new Target(), new Object[]{2, 3L}));
+        // widening like Method#invoke
+        Assert.assertEquals(5L, invoker.invoke(new Target(), new Object[]{2, 3}));
+    }
+
+    @Test
+    public void testVoidAndPackagePrivateMethods() throws Exception
+    {
+        MethodInvokerFactory factory = new MethodInvokerFactory(new WebBeansContext());
+        Target target = new Target();
+
+        MethodInvoker setName = factory.getMethodInvoker(Target.class.getDeclaredMethod("setName", String.class));
+        Assert.assertNull(setName.invoke(target, new Object[]{"owb"}));
+        Assert.assertEquals("owb", factory.getMethodInvoker(Target.class.getDeclaredMethod("getName")).invoke(target, new Object[0]));
+    }
+
+    @Test
+    public void testInterfaceMethod() throws Exception
+    {
+        MethodInvokerFactory factory = new MethodInvokerFactory(new WebBeansContext());
+        MethodInvoker invoker = factory.getMethodInvoker(Named.class.getMethod("getName"));
+
+        Target target = new Target();
+        target.setName("interface");
+        Assert.assertEquals("interface", invoker.invoke(target, new Object[0]));
+    }
+
+    @Test
+    public void testPrivateMethodUsesReflection() throws Exception
+    {
+        MethodInvokerFactory factory = new MethodInvokerFactory(new WebBeansContext());
+        MethodInvoker invoker = factory.getMethodInvoker(Target.class.getDeclaredMethod("secret"));
+
+        Assert.assertFalse(invoker.getClass().getName().contains("$$OwbInvoker$$"));
+        Assert.assertEquals(42, invoker.invoke(new Target(), new Object[0]));
+    }
+
+    @Test
+    public void testExceptionsAreNotWrapped() throws Exception
+    {
+        WebBeansContext webBeansContext = new WebBeansContext();
+        assertExceptionIsNotWrapped(new MethodInvokerFactory(webBeansContext));
+
+        webBeansContext.getOpenWebBeansConfiguration().setProperty(OpenWebBeansConfiguration.GENERATED_METHOD_INVOKERS, "false");
+        assertExceptionIsNotWrapped(new MethodInvokerFactory(webBeansContext));
+    }
+
+    private void assertExceptionIsNotWrapped(MethodInvokerFactory factory) throws Exception
+    {
+        MethodInvoker invoker = factory.getMethodInvoker(Target.class.getMethod("fail"));
+        try
+        {
+            invoker.invoke(new Target(), new Object[0]);
+            Assert.fail("the IOException of the method must get thrown");
+        }
+        catch (IOException e)
+        {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+    }
+
+    public interface Named
+    {
+        String getName();
+    }
+
+    public static class Target implements Named
+    {
+        private String name;
+
+        public long add(int a, long b)
+        {
+            return a + b;
+        }
+
+        @Override
+        public String getName()
+        {
+            return name;
+        }
+
+        void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public void fail() throws IOException
+        {
+            throw new IOException("failed");
+        }
+
+        private int secret()
+        {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.webbeans.corespi.scanner.index.BeanArchiveIndex;
+import org.apache.webbeans.corespi.scanner.index.BeanArchiveIndexProcessor;
+import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
+import org.apache.webbeans.xml.DefaultBeanArchiveService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BeanArchiveIndexTest
+{
+    private static final String BEAN_SOURCE =
+            "package org.test.indexed;\n" +
+            "@javax.enterprise.context.RequestScoped\n" +
+            "public class IndexedBean\n" +
+            "{\n" +
+            "    public static class Nested { }\n" +
+            "    public Runnable runnable()\n" +
+            "    {\n" +
+            "        return new Runnable() { public void run() { } };\n" +
+            "    }\n" +
+            "}\n";
+
+    private File archiveDir;
+
+    @Before
+    public void createArchive() throws IOException
+    {
+        archiveDir = File.createTempFile("owb-index", "");
+        archiveDir.delete();
+        archiveDir.mkdirs();
+    }
+
+    @After
+    public void deleteArchive()
+    {
+        delete(archiveDir);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException
+    {
+        Map<String, List<String>> classes = new LinkedHashMap<String, List<String>>();
+        classes.put("org.test.A", Arrays.asList("javax.enterprise.context.RequestScoped", "javax.inject.Named"));
+        classes.put("org.test.B", Collections.<String>emptyList());
+
+        StringWriter writer = new StringWriter();
+        new BeanArchiveIndex("abcdef", classes).write(writer);
+
+        BeanArchiveIndex index = BeanArchiveIndex.read(toStream(writer.toString()));
+        Assert.assertNotNull(index);
+        Assert.assertEquals("abcdef", index.getBeansXmlDigest());
+        Assert.assertEquals(classes.keySet(), index.getClassNames());
+        Assert.assertEquals(classes.get("org.test.A"), index.getAnnotations("org.test.A"));
+        Assert.assertTrue(index.getAnnotations("org.test.B").isEmpty());
+
+        Assert.assertNull(BeanArchiveIndex.read(toStream("OWB-BEAN-ARCHIVE-INDEX 0\n")));
+    }
+
+    @Test
+    public void testIndexReplacesScanning() throws Exception
+    {
+        Assume.assumeTrue(compile());
+
+        BeanArchiveIndex index = BeanArchiveIndex.read(archiveDir.toURI().toURL());
+        Assert.assertNotNull(index);
+        Assert.assertEquals(2, index.getClassNames().size());
+        Assert.assertEquals(Arrays.asList("javax.enterprise.context.RequestScoped"),
+                index.getAnnotations("org.test.indexed.IndexedBean"));
+        Assert.assertTrue(index.getAnnotations("org.test.indexed.IndexedBean$Nested").isEmpty());
+
+        CdiArchive.FoundClasses foundClasses = scan();
+        Assert.assertNotNull(foundClasses.getIndex());
+        Assert.assertTrue(foundClasses.getClassNames().contains("org.test.indexed.IndexedBean"));
+        Assert.assertTrue(foundClasses.getClassNames().contains("org.test.indexed.IndexedBean$Nested"));
+    }
+
+    @Test
+    public void testOutdatedIndexIsIgnored() throws Exception
+    {
+        Assume.assumeTrue(compile());
+
+        writeFile(new File(archiveDir, "META-INF/beans.xml"), "<beans><!-- changed --></beans>");
+        Assert.assertNull(scan().getIndex());
+    }
+
+    private CdiArchive.FoundClasses scan() throws IOException
+    {
+        URL url = archiveDir.toURI().toURL();
+
+        DefaultBeanArchiveService beanArchiveService = new DefaultBeanArchiveService();
+        beanArchiveService.getBeanArchiveInformation(new File(archiveDir, "META-INF/beans.xml").toURI().toURL());
+
+        Map<String, URL> urls = new HashMap<String, URL>();
+        urls.put(url.toExternalForm(), url);
+        CdiArchive archive = new CdiArchive(beanArchiveService, Thread.currentThread().getContextClassLoader(), urls);
+        return archive.classesByUrl().get(url.toExternalForm());
+    }
+
+    private boolean compile() throws IOException
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null)
+        {
+            // running on a JRE
+            return false;
+        }
+
+        writeFile(new File(archiveDir, "META-INF/beans.xml"), "<beans></beans>");
+        File source = new File(archiveDir, "IndexedBean.java");
+        writeFile(source, BEAN_SOURCE);
+
+        int result = compiler.run(null, null, null,
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", archiveDir.getAbsolutePath(),
+                "-processor", BeanArchiveIndexProcessor.class.getName(),
+                source.getAbsolutePath());
+        source.delete();
+
+        Assert.assertEquals(0, result);
+        Assert.assertTrue(new File(archiveDir, "org/test/indexed/IndexedBean$1.class").exists());
+        return true;
+    }
+
+    private static void writeFile(File file, String content) throws IOException
+    {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            out.write(content.getBytes("UTF-8"));
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private static void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static InputStream toStream(String content) throws IOException
+    {
+        return new ByteArrayInputStream(content.getBytes("UTF-8"));
+    }
+}
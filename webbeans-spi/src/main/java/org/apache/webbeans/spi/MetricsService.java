@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.spi;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * <p>The MetricsService SPI receives runtime measurements of the container
+ * hot paths, e.g. to expose them via JMX or a monitoring system.</p>
+ * <p>All methods get invoked synchronously on the thread which does the measured
+ * work, so implementations must be thread safe and cheap. If {@link #isEnabled()}
+ * returns <code>false</code>, the container doesn't even measure the durations.</p>
+ */
+public interface MetricsService
+{
+    /**
+     * @return <code>false</code> if this service ignores all measurements
+     */
+    public boolean isEnabled();
+
+    /**
+     * A type safe resolution got served from the resolution cache.
+     */
+    public void resolutionCacheHit();
+
+    /**
+     * A type safe resolution had to be computed and got stored in the resolution cache.
+     */
+    public void resolutionCacheMiss();
+
+    /**
+     * The InjectionTarget for a non-contextual instance got served from the cache.
+     */
+    public void injectionTargetCacheHit();
+
+    /**
+     * The InjectionTarget for a non-contextual instance had to be created.
+     */
+    public void injectionTargetCacheMiss();
+
+    /**
+     * A cached InjectionTarget got evicted because the cache reached its maximum size.
+     */
+    public void injectionTargetCacheEviction();
+
+    /**
+     * An event got delivered to its observers.
+     * @param eventType the type of the event
+     * @param observerCount the number of resolved observer methods
+     * @param durationNanos the time for the observer resolution and the notification
+     */
+    public void eventFired(Type eventType, int observerCount, long durationNanos);
+
+    /**
+     * A proxy class got generated and defined.
+     * @param proxiedClass the class the proxy got created for
+     * @param durationNanos the time for generating and defining the proxy class
+     */
+    public void proxyClassCreated(Class<?> proxiedClass, long durationNanos);
+
+    /**
+     * A new context instance of the given scope got created.
+     */
+    public void contextCreated(Class<? extends Annotation> scopeType);
+
+    /**
+     * A context instance of the given scope got destroyed.
+     */
+    public void contextDestroyed(Class<? extends Annotation> scopeType);
+
+    /**
+     * A phase of the container deployment got finished.
+     * @param phase the name of the phase, e.g. <code>AfterBeanDiscovery</code>
+     * @param durationNanos the duration of the phase
+     */
+    public void deploymentPhaseFinished(String phase, long durationNanos);
+}
@@ -25,6 +25,7 @@ import org.apache.webbeans.inject.OWBInjector;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.Producer;
+import javax.servlet.Servlet;
 
 public class TomcatUtil
 {
@@ -53,7 +54,8 @@ public class TomcatUtil
         Thread.currentThread().setContextClassLoader(loader);
         try
         {
-            final BeanManagerImpl beanManager = WebBeansContext.currentInstance().getBeanManagerImpl();
+            final WebBeansContext webBeansContext = WebBeansContext.currentInstance();
+            final BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
             final Producer producer = beanManager.getProducerForJavaEeComponent(instance.object.getClass());
             if (producer != null)
             {
@@ -63,6 +65,13 @@ public class TomcatUtil
             {
                 instance.context.release();
             }
+
+            // a JSP servlet only gets destroyed when the JSP gets reloaded or the web application stops
+            final ClassLoader instanceLoader = instance.object.getClass().getClassLoader();
+            if (instance.object instanceof Servlet && isChildLoader(instanceLoader, loader))
+            {
+                webBeansContext.getInjectionTargetCache().clear(instanceLoader);
+            }
         }
         finally
         {
@@ -70,6 +79,29 @@ public class TomcatUtil
         }
     }
 
+    /**
+     * @return <code>true</code> if the given ClassLoader is a child of the web application ClassLoader,
+     *         e.g. the one of a JSP
+     */
+    private static boolean isChildLoader(ClassLoader classLoader, ClassLoader webappLoader)
+    {
+        if (classLoader == null || classLoader == webappLoader)
+        {
+            return false;
+        }
+
+        ClassLoader parent = classLoader.getParent();
+        while (parent != null)
+        {
+            if (parent == webappLoader)
+            {
+                return true;
+            }
+            parent = parent.getParent();
+        }
+        return false;
+    }
+
     private static class Instance
     {
         private Object object;
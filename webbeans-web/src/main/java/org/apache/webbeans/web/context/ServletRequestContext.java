@@ -40,6 +40,11 @@ public class ServletRequestContext extends RequestContext
         super();
     }
 
+    public ServletRequestContext(int beanSlotCount)
+    {
+        super(beanSlotCount);
+    }
+
     public HttpServletRequest getServletRequest()
     {
         if (active)
@@ -27,13 +27,13 @@ import org.apache.webbeans.context.DependentContext;
 import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.context.SessionContext;
 import org.apache.webbeans.context.SingletonContext;
+import org.apache.webbeans.context.ThreadLocalInstanceCache;
 import org.apache.webbeans.conversation.ConversationImpl;
 import org.apache.webbeans.conversation.ConversationManager;
 import org.apache.webbeans.el.ELContextStore;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.FailOverService;
 import org.apache.webbeans.util.WebBeansUtil;
-import org.apache.webbeans.web.intercept.RequestScopedBeanInterceptorHandler;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.ContextException;
@@ -43,6 +43,7 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.context.spi.Context;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletRequestEvent;
@@ -80,6 +81,14 @@ public class WebContextsService extends AbstractContextsService
 
     /**Current conversation context*/
     private static ThreadLocal<ConversationContext> conversationContexts = null;
+
+    /**
+     * The ServletRequestEvent of a lazily started request whose RequestContext
+     * didn't get created yet, or {@link #NO_REQUEST_EVENT} if there is none.
+     */
+    private static ThreadLocal<Object> pendingRequestEvents = null;
+
+    private static final Object NO_REQUEST_EVENT = new Object();
     
     /**Current dependent context*/
     private static DependentContext dependentContext;
@@ -99,6 +108,9 @@ public class WebContextsService extends AbstractContextsService
     private final ConversationManager conversationManager;
 
     private boolean supportsConversation = false;
+
+    /**Only create the RequestContext when it gets used the first time*/
+    private boolean lazyRequestContext = false;
     
     protected FailOverService failoverService = null;
 
@@ -110,6 +122,7 @@ public class WebContextsService extends AbstractContextsService
         requestContexts = new ThreadLocal<RequestContext>();
         sessionContexts = new ThreadLocal<SessionContext>();
         conversationContexts = new ThreadLocal<ConversationContext>();
+        pendingRequestEvents = new ThreadLocal<Object>();
 
         //Dependent context is always active
         dependentContext = new DependentContext();
@@ -124,7 +137,8 @@ public class WebContextsService extends AbstractContextsService
         requestContexts.remove();
         sessionContexts.remove();
         conversationContexts.remove();
-        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+        pendingRequestEvents.remove();
+        ThreadLocalInstanceCache.removeThreadLocals();
     }
     
     /**
@@ -134,9 +148,13 @@ public class WebContextsService extends AbstractContextsService
     {
         this.webBeansContext = webBeansContext;
         supportsConversation =  webBeansContext.getOpenWebBeansConfiguration().supportsConversation();
+        lazyRequestContext = webBeansContext.getOpenWebBeansConfiguration().isLazyRequestContext();
         failoverService = webBeansContext.getService(FailOverService.class);
         conversationManager = webBeansContext.getConversationManager();
 
+        // see RequestScopedBeanInterceptorHandler
+        enableInstanceCache(RequestScoped.class);
+
         sharedApplicationContext = new ApplicationContext();
         sharedApplicationContext.setActive(true);
     }
@@ -190,6 +208,8 @@ public class WebContextsService extends AbstractContextsService
         requestContexts.remove();
         sessionContexts.remove();
         conversationContexts.remove();
+
+        clearInstanceCaches();
     }
     
     
@@ -277,6 +297,51 @@ public class WebContextsService extends AbstractContextsService
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * ApplicationScoped and Singleton contexts depend on the current ClassLoader
+     * and thus still get resolved via {@link #getCurrentContext(Class)}.
+     */
+    @Override
+    public Provider<Context> getContextProvider(Class<? extends Annotation> scopeType)
+    {
+        if(scopeType.equals(RequestScoped.class))
+        {
+            return new Provider<Context>()
+            {
+                @Override
+                public Context get()
+                {
+                    return getRequestContext();
+                }
+            };
+        }
+        else if(scopeType.equals(SessionScoped.class))
+        {
+            return new Provider<Context>()
+            {
+                @Override
+                public Context get()
+                {
+                    return getSessionContext();
+                }
+            };
+        }
+        else if(supportsConversation && scopeType.equals(ConversationScoped.class))
+        {
+            return new Provider<Context>()
+            {
+                @Override
+                public Context get()
+                {
+                    return getConversationContext();
+                }
+            };
+        }
+
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -334,11 +399,39 @@ public class WebContextsService extends AbstractContextsService
      */
     private void initRequestContext(ServletRequestEvent event)
     {
-        
-        RequestContext rq = new ServletRequestContext();
+        if (lazyRequestContext)
+        {
+            // only remember the request, see materializeRequestContext()
+            pendingRequestEvents.set(event != null ? event : NO_REQUEST_EVENT);
+            clearInstanceCache(RequestScoped.class);
+            return;
+        }
+
+        createRequestContext(event);
+    }
+
+    /**
+     * Creates the RequestContext of a lazily started request
+     * if it didn't get created yet.
+     */
+    private void materializeRequestContext()
+    {
+        Object pendingRequestEvent = pendingRequestEvents.get();
+        if (pendingRequestEvent != null)
+        {
+            pendingRequestEvents.remove();
+            createRequestContext(pendingRequestEvent != NO_REQUEST_EVENT ? (ServletRequestEvent) pendingRequestEvent : null);
+        }
+    }
+
+    private void createRequestContext(ServletRequestEvent event)
+    {
+        RequestContext rq = new ServletRequestContext(webBeansContext.getBeanManagerImpl().getBeanSlotCount(RequestScoped.class));
         rq.setActive(true);
+        webBeansContext.getMetricsService().contextCreated(RequestScoped.class);
 
         requestContexts.set(rq);// set thread local
+        clearInstanceCache(RequestScoped.class);
 
         if(event != null)
         {
@@ -378,6 +471,14 @@ public class WebContextsService extends AbstractContextsService
      */
     private void destroyRequestContext(ServletRequestEvent request)
     {
+        if (lazyRequestContext && requestContexts.get() == null)
+        {
+            // the RequestContext never got used, so there is nothing to destroy
+            pendingRequestEvents.remove();
+            clearInstanceCache(RequestScoped.class);
+            return;
+        }
+
         // cleanup open conversations first
         if (supportsConversation)
         {
@@ -392,6 +493,7 @@ public class WebContextsService extends AbstractContextsService
         if (context != null)
         {
             context.destroy();
+            webBeansContext.getMetricsService().contextDestroyed(RequestScoped.class);
         }
         
         // clean up the EL caches after each request
@@ -405,7 +507,7 @@ public class WebContextsService extends AbstractContextsService
         requestContexts.set(null);
         requestContexts.remove();
 
-        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+        clearInstanceCache(RequestScoped.class);
     }
 
     private void cleanupConversations()
@@ -456,6 +558,7 @@ public class WebContextsService extends AbstractContextsService
             // this is handy if you create asynchronous tasks or
             // batches which use a 'admin' user.
             currentSessionContext = new SessionContext();
+            webBeansContext.getMetricsService().contextCreated(SessionScoped.class);
         }
         else
         {
@@ -469,6 +572,7 @@ public class WebContextsService extends AbstractContextsService
             {
                 currentSessionContext = new SessionContext();
                 sessionCtxManager.addNewSessionContext(sessionId, currentSessionContext);
+                webBeansContext.getMetricsService().contextCreated(SessionScoped.class);
             }
         }
 
@@ -501,6 +605,7 @@ public class WebContextsService extends AbstractContextsService
             if (context != null)
             {
                 context.destroy();
+                webBeansContext.getMetricsService().contextDestroyed(SessionScoped.class);
             }
 
             //Clear thread locals
@@ -530,6 +635,7 @@ public class WebContextsService extends AbstractContextsService
 
         ApplicationContext newApplicationContext = new ApplicationContext();
         newApplicationContext.setActive(true);
+        webBeansContext.getMetricsService().contextCreated(ApplicationScoped.class);
 
         if (servletContext != null)
         {
@@ -576,6 +682,7 @@ public class WebContextsService extends AbstractContextsService
         if(context != null)
         {
             context.destroy();
+            webBeansContext.getMetricsService().contextDestroyed(ApplicationScoped.class);
         }
         
         //Remove from saved contexts
@@ -603,21 +710,15 @@ public class WebContextsService extends AbstractContextsService
         }
         
         //destroyDependents all conversations
-        Collection<ConversationContext> allConversationContexts = conversationManager.getAllConversationContexts().values();
-        if (allConversationContexts != null && allConversationContexts.size() > 0)
+        Collection<ConversationContext> allConversationContexts = conversationManager.getAndRemoveAllConversationContexts().values();
+        for (ConversationContext conversationContext : allConversationContexts) 
         {
-            for (ConversationContext conversationContext : allConversationContexts) 
-            {
-                conversationContexts.set(conversationContext);
-                
-                conversationContext.destroy();
-
-                conversationContexts.set(null);
-                conversationContexts.remove();
-            }
+            conversationContexts.set(conversationContext);
+            
+            conversationContext.destroy();
 
-            //Clear conversations
-            allConversationContexts.clear();
+            conversationContexts.set(null);
+            conversationContexts.remove();
         }
 
         // this is needed to get rid of ApplicationScoped beans which are cached inside the proxies...
@@ -644,6 +745,7 @@ public class WebContextsService extends AbstractContextsService
 
         SingletonContext newSingletonContext = new SingletonContext();
         newSingletonContext.setActive(true);
+        webBeansContext.getMetricsService().contextCreated(Singleton.class);
 
         if (servletContext != null)
         {
@@ -687,6 +789,7 @@ public class WebContextsService extends AbstractContextsService
         if(context != null)
         {
             context.destroy();
+            webBeansContext.getMetricsService().contextDestroyed(Singleton.class);
         }
 
         //remove it from saved contexts
@@ -710,6 +813,7 @@ public class WebContextsService extends AbstractContextsService
             {
                 ConversationContext newContext = new ConversationContext();
                 newContext.setActive(true);
+                webBeansContext.getMetricsService().contextCreated(ConversationScoped.class);
                 
                 conversationContexts.set(newContext);
             }
@@ -736,6 +840,7 @@ public class WebContextsService extends AbstractContextsService
         if (context != null)
         {
             context.destroy();
+            webBeansContext.getMetricsService().contextDestroyed(ConversationScoped.class);
         }
 
         conversationContexts.set(null);
@@ -769,7 +874,13 @@ public class WebContextsService extends AbstractContextsService
      */
     private  RequestContext getRequestContext()
     {
-        return requestContexts.get();
+        RequestContext context = requestContexts.get();
+        if (context == null && lazyRequestContext)
+        {
+            materializeRequestContext();
+            context = requestContexts.get();
+        }
+        return context;
     }
 
     /**
@@ -778,6 +889,12 @@ public class WebContextsService extends AbstractContextsService
      */
     private  SessionContext getSessionContext()
     {
+        if (lazyRequestContext)
+        {
+            // the session context gets initialised together with the RequestContext
+            materializeRequestContext();
+        }
+
         SessionContext context = sessionContexts.get();
         if (null == context)
         {
@@ -794,6 +911,10 @@ public class WebContextsService extends AbstractContextsService
      */
     private  ConversationContext getConversationContext()
     {
+        if (lazyRequestContext)
+        {
+            materializeRequestContext();
+        }
         return conversationContexts.get();
     }
 
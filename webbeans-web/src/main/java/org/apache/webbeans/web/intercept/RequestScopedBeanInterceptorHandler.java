@@ -18,11 +18,11 @@
  */
 package org.apache.webbeans.web.intercept;
 
-import org.apache.webbeans.intercept.NormalScopedBeanInterceptorHandler;
+import org.apache.webbeans.context.ThreadLocalInstanceCache;
+import org.apache.webbeans.intercept.ThreadLocalCachingBeanInterceptorHandler;
 
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
-import java.util.HashMap;
 
 
 /**
@@ -30,24 +30,23 @@ import java.util.HashMap;
  * made for &#064;RequestScoped beans used in web applications.</p>
  * 
  * <p>Since there is only one single contextual instance of an &#064;RequestScoped bean per thread,
- * we can simply cache this instance inside our bean. We only need to reload this instance
- * if it is null or if the thread ends.</p>
+ * we can simply cache this instance per thread. The cache gets provided and cleared
+ * by the {@link org.apache.webbeans.web.context.WebContextsService}.</p>
  */
-public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterceptorHandler
+public class RequestScopedBeanInterceptorHandler extends ThreadLocalCachingBeanInterceptorHandler
 {
     /**default serial id*/
     private static final long serialVersionUID = 1L;
 
+
     /**
-     * Cached bean instance for each thread
+     * Removes the cached instances of the current thread.
+     * The ContextsService clears them at the end of each request, this is for the
+     * cleanup of pooled threads.
      */
-    private static ThreadLocal<HashMap<Bean<?>, Object>> cachedInstances = new ThreadLocal<HashMap<Bean<?>, Object>>();
-
-
     public static void removeThreadLocals()
     {
-        cachedInstances.set(null);
-        cachedInstances.remove();
+        ThreadLocalInstanceCache.removeThreadLocals();
     }
 
     /**
@@ -57,29 +56,5 @@ public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     {
         super(beanManager, bean);
     }
-    
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    protected Object getContextualInstance()
-    {
-        HashMap<Bean<?>, Object> beanMap = cachedInstances.get();
-        if (beanMap == null)
-        {
-            beanMap = new HashMap<Bean<?>, Object>();
-            cachedInstances.set(beanMap);
-        }
-
-        Object cachedInstance = beanMap.get(bean);
-        if (cachedInstance == null)
-        {
-
-            cachedInstance = super.getContextualInstance();
-            beanMap.put(bean, cachedInstance);
-        }
-
-        return cachedInstance;
-    }
 
 }
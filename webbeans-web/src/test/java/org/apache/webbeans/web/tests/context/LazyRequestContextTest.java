@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.web.tests.context;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+import javax.servlet.ServletRequestEvent;
+
+import junit.framework.Assert;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.web.context.ServletRequestContext;
+import org.apache.webbeans.web.context.WebContextsService;
+import org.apache.webbeans.web.lifecycle.test.MockServletContext;
+import org.apache.webbeans.web.tests.MockServletRequest;
+import org.junit.Test;
+
+/**
+ * Checks the lazy RequestContext creation of the {@link WebContextsService}.
+ * The empty request cycle gets measured by the RequestContextBenchmark.
+ */
+public class LazyRequestContextTest extends AbstractUnitTest
+{
+    @Test
+    public void testLazyRequestContext()
+    {
+        startContainer();
+
+        // the contexts are bound to static ThreadLocals, get rid of the ones the container started
+        WebContextsService.removeThreadLocals();
+
+        WebContextsService contextsService = createLazyContextsService();
+        ServletRequestEvent event = createRequestEvent();
+
+        contextsService.startContext(RequestScoped.class, event);
+
+        Context context = contextsService.getCurrentContext(RequestScoped.class);
+        Assert.assertNotNull(context);
+        Assert.assertTrue(context.isActive());
+        Assert.assertSame(event.getServletRequest(), ((ServletRequestContext) context).getServletRequest());
+        Assert.assertSame(context, contextsService.getCurrentContext(RequestScoped.class));
+
+        contextsService.endContext(RequestScoped.class, event);
+        Assert.assertFalse(context.isActive());
+        Assert.assertNull(contextsService.getCurrentContext(RequestScoped.class));
+
+        // a request which never touches the RequestContext
+        contextsService.startContext(RequestScoped.class, event);
+        contextsService.endContext(RequestScoped.class, event);
+        Assert.assertNull(contextsService.getCurrentContext(RequestScoped.class));
+
+        WebContextsService.removeThreadLocals();
+        shutDownContainer();
+    }
+
+    private WebContextsService createLazyContextsService()
+    {
+        getWebBeansContext().getOpenWebBeansConfiguration().setProperty(OpenWebBeansConfiguration.LAZY_REQUEST_CONTEXT, "true");
+        return new WebContextsService(getWebBeansContext());
+    }
+
+    private ServletRequestEvent createRequestEvent()
+    {
+        return new ServletRequestEvent(new MockServletContext(), new MockServletRequest());
+    }
+}